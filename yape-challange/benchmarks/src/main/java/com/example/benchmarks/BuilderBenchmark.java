@@ -0,0 +1,110 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.TransactionType;
+import com.example.transactionservice.domain.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Construcción con los builders de Lombok; *AsCreated incluye además UUID.randomUUID() y
+// LocalDateTime.now() como se hace al crear una transacción
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuilderBenchmark {
+
+    private final String transactionId = UUID.randomUUID().toString();
+    private final String debitAccount = UUID.randomUUID().toString();
+    private final String creditAccount = UUID.randomUUID().toString();
+    private final BigDecimal value = new BigDecimal("120.50");
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Benchmark
+    public Transaction transaction() {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountExternalIdDebit(debitAccount)
+            .accountExternalIdCredit(creditAccount)
+            .transferTypeId(1)
+            .value(value)
+            .status("PENDING")
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+
+    @Benchmark
+    public Transaction transactionAsCreated() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        return Transaction.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountExternalIdDebit(debitAccount)
+            .accountExternalIdCredit(creditAccount)
+            .transferTypeId(1)
+            .value(value)
+            .status("PENDING")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .build();
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent transactionCreatedEvent() {
+        return TransactionCreatedEvent.builder()
+            .transactionId(transactionId)
+            .transactionType(new TransactionType("1"))
+            .transactionStatus(new TransactionStatus("PENDING"))
+            .value(value)
+            .accountExternalIdDebit(debitAccount)
+            .accountExternalIdCredit(creditAccount)
+            .createdAt(now)
+            .eventId(transactionId)
+            .eventTimestamp(now)
+            .build();
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent transactionCreatedEventAsCreated() {
+        return TransactionCreatedEvent.builder()
+            .transactionId(transactionId)
+            .transactionType(new TransactionType("1"))
+            .transactionStatus(new TransactionStatus("PENDING"))
+            .value(value)
+            .accountExternalIdDebit(debitAccount)
+            .accountExternalIdCredit(creditAccount)
+            .createdAt(now)
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+
+    @Benchmark
+    public TransactionStatusUpdatedEvent transactionStatusUpdatedEvent() {
+        return TransactionStatusUpdatedEvent.builder()
+            .transactionId(transactionId)
+            .oldStatus("PENDING")
+            .newStatus("ACCEPTED")
+            .updatedBy("status-service")
+            .updatedAt(now)
+            .eventId(transactionId)
+            .eventTimestamp(now)
+            .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// LocalDateTime en texto ISO, como aparece en los eventos JSON y en las respuestas de la API
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateTimeFormattingBenchmark {
+
+    private final ObjectMapper objectMapper = SampleEvents.objectMapper();
+    private final LocalDateTime value = LocalDateTime.of(2024, 5, 17, 13, 45, 12, 123_456_789);
+
+    private String iso;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        iso = value.toString();
+        json = objectMapper.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public String formatToString() {
+        return value.toString();
+    }
+
+    @Benchmark
+    public String formatIsoFormatter() {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    @Benchmark
+    public String formatObjectMapper() throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public LocalDateTime parseIso() {
+        return LocalDateTime.parse(iso);
+    }
+
+    @Benchmark
+    public LocalDateTime parseObjectMapper() throws Exception {
+        return objectMapper.readValue(json, LocalDateTime.class);
+    }
+
+    @Benchmark
+    public LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+}
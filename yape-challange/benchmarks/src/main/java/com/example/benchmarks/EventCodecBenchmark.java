@@ -0,0 +1,91 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.codec.BinaryTransactionCreatedCodec;
+import com.example.events.codec.BinaryTransactionStatusUpdatedCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Codec binario frente al camino anterior: writeValueAsString + StringSerializer y viceversa
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventCodecBenchmark {
+
+    private final ObjectMapper objectMapper = SampleEvents.objectMapper();
+    private final BinaryTransactionCreatedCodec createdCodec = new BinaryTransactionCreatedCodec();
+    private final BinaryTransactionStatusUpdatedCodec statusCodec = new BinaryTransactionStatusUpdatedCodec();
+
+    private TransactionCreatedEvent createdEvent;
+    private TransactionStatusUpdatedEvent statusEvent;
+    private byte[] createdBinary;
+    private byte[] createdJson;
+    private byte[] statusBinary;
+    private byte[] statusJson;
+
+    @Setup
+    public void setup() throws Exception {
+        createdEvent = SampleEvents.transactionCreated();
+        statusEvent = SampleEvents.transactionStatusUpdated();
+        createdBinary = createdCodec.encode(createdEvent);
+        createdJson = objectMapper.writeValueAsString(createdEvent).getBytes(StandardCharsets.UTF_8);
+        statusBinary = statusCodec.encode(statusEvent);
+        statusJson = objectMapper.writeValueAsString(statusEvent).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] createdEncodeBinary() {
+        return createdCodec.encode(createdEvent);
+    }
+
+    @Benchmark
+    public byte[] createdEncodeJackson() throws Exception {
+        return objectMapper.writeValueAsString(createdEvent).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent createdDecodeBinary() {
+        return createdCodec.decode(createdBinary);
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent createdDecodeJackson() throws Exception {
+        return objectMapper.readValue(new String(createdJson, StandardCharsets.UTF_8), TransactionCreatedEvent.class);
+    }
+
+    @Benchmark
+    public byte[] statusEncodeBinary() {
+        return statusCodec.encode(statusEvent);
+    }
+
+    @Benchmark
+    public byte[] statusEncodeJackson() throws Exception {
+        return objectMapper.writeValueAsString(statusEvent).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TransactionStatusUpdatedEvent statusDecodeBinary() {
+        return statusCodec.decode(statusBinary);
+    }
+
+    @Benchmark
+    public TransactionStatusUpdatedEvent statusDecodeJackson() throws Exception {
+        return objectMapper.readValue(new String(statusJson, StandardCharsets.UTF_8), TransactionStatusUpdatedEvent.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.codec.BinaryTransactionCreatedCodec;
+import com.example.events.codec.BinaryTransactionStatusUpdatedCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+// Bytes por evento de cada formato: java -cp target/benchmarks.jar com.example.benchmarks.EventSizeReport
+public class EventSizeReport {
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = SampleEvents.objectMapper();
+        TransactionCreatedEvent created = SampleEvents.transactionCreated();
+        TransactionStatusUpdatedEvent status = SampleEvents.transactionStatusUpdated();
+
+        System.out.printf("%-32s %8s %8s%n", "event", "json", "binary");
+        System.out.printf("%-32s %8d %8d%n", "TransactionCreatedEvent",
+            objectMapper.writeValueAsString(created).getBytes(StandardCharsets.UTF_8).length,
+            new BinaryTransactionCreatedCodec().encode(created).length);
+        System.out.printf("%-32s %8d %8d%n", "TransactionStatusUpdatedEvent",
+            objectMapper.writeValueAsString(status).getBytes(StandardCharsets.UTF_8).length,
+            new BinaryTransactionStatusUpdatedCodec().encode(status).length);
+    }
+}
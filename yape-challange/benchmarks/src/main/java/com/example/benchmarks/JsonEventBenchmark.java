@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.codec.JsonEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Formato JSON tal como lo escriben y leen los servicios: JsonEventCodec sobre el mapper de JacksonConfig
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonEventBenchmark {
+
+    private final ObjectMapper objectMapper = SampleEvents.objectMapper();
+    private final JsonEventCodec<TransactionCreatedEvent> createdCodec =
+        new JsonEventCodec<>(objectMapper, TransactionCreatedEvent.class);
+    private final JsonEventCodec<TransactionStatusUpdatedEvent> statusCodec =
+        new JsonEventCodec<>(objectMapper, TransactionStatusUpdatedEvent.class);
+
+    private TransactionCreatedEvent createdEvent;
+    private TransactionStatusUpdatedEvent statusEvent;
+    private byte[] createdJson;
+    private byte[] statusJson;
+
+    @Setup
+    public void setup() {
+        createdEvent = SampleEvents.transactionCreated();
+        statusEvent = SampleEvents.transactionStatusUpdated();
+        createdJson = createdCodec.encode(createdEvent);
+        statusJson = statusCodec.encode(statusEvent);
+    }
+
+    @Benchmark
+    public byte[] createdSerialize() {
+        return createdCodec.encode(createdEvent);
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent createdDeserialize() {
+        return createdCodec.decode(createdJson);
+    }
+
+    @Benchmark
+    public byte[] statusSerialize() {
+        return statusCodec.encode(statusEvent);
+    }
+
+    @Benchmark
+    public TransactionStatusUpdatedEvent statusDeserialize() {
+        return statusCodec.decode(statusJson);
+    }
+}
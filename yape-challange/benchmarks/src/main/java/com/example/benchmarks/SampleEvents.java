@@ -0,0 +1,49 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.TransactionType;
+import com.example.statusservice.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+final class SampleEvents {
+
+    private SampleEvents() {
+    }
+
+    // El mapper que configuran los servicios (JacksonConfig es idéntico en ambos)
+    static ObjectMapper objectMapper() {
+        return new JacksonConfig().objectMapper();
+    }
+
+    static TransactionCreatedEvent transactionCreated() {
+        return TransactionCreatedEvent.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .transactionType(new TransactionType("1"))
+            .transactionStatus(new TransactionStatus("PENDING"))
+            .value(new BigDecimal("120.50"))
+            .accountExternalIdDebit(UUID.randomUUID().toString())
+            .accountExternalIdCredit(UUID.randomUUID().toString())
+            .createdAt(LocalDateTime.now())
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+
+    static TransactionStatusUpdatedEvent transactionStatusUpdated() {
+        return TransactionStatusUpdatedEvent.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .oldStatus("PENDING")
+            .newStatus("ACCEPTED")
+            .updatedBy("status-service")
+            .updatedAt(LocalDateTime.now())
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+}
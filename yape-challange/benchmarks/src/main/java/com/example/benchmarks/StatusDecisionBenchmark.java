@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.TransactionType;
+import com.example.statusservice.config.FraudRulesConfig;
+import com.example.statusservice.config.VelocityConfig;
+import com.example.statusservice.dto.FraudRuleSetDefinition;
+import com.example.statusservice.rules.AccountVelocityAggregator;
+import com.example.statusservice.rules.FraudEvaluation;
+import com.example.statusservice.rules.FraudRuleEngine;
+import com.example.statusservice.service.StatusService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Coste de decidir el estado en validateTransactionStatus (reglas antifraude y ventana de
+// velocidad) sin el envío a Kafka; las cuentas y montos rotan para no medir siempre la misma rama
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StatusDecisionBenchmark {
+
+    private static final int EVENTS = 1024;
+    private static final int ACCOUNTS = 256;
+
+    @Param({"true", "false"})
+    public boolean velocity;
+
+    private StatusService statusService;
+    private FraudRuleEngine fraudRuleEngine;
+    private TransactionCreatedEvent[] events;
+    private int next;
+
+    @Setup
+    public void setup() {
+        FraudRulesConfig rulesConfig = new FraudRulesConfig();
+        FraudRuleSetDefinition rules = rulesConfig.getRules();
+        rules.setDenyListedAccounts(List.of("account-deny-1", "account-deny-2"));
+        rules.setVelocityMaxCount(50);
+        rules.setVelocityMaxAmount(new BigDecimal("20000"));
+
+        VelocityConfig velocityConfig = new VelocityConfig();
+        velocityConfig.setEnabled(velocity);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccountVelocityAggregator velocityAggregator = new AccountVelocityAggregator(velocityConfig, meterRegistry);
+        velocityAggregator.init();
+        velocityAggregator.onPartitionsAssigned(List.of(0));
+        fraudRuleEngine = new FraudRuleEngine(
+            rulesConfig, SampleEvents.objectMapper(), meterRegistry, velocityAggregator);
+        fraudRuleEngine.reload();
+        // Sin productor: evaluate() y decide() son la parte de validateTransactionStatus previa al envío
+        statusService = new StatusService(null, fraudRuleEngine, null);
+
+        Random random = new Random(42);
+        events = new TransactionCreatedEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = TransactionCreatedEvent.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .transactionType(new TransactionType(String.valueOf(1 + random.nextInt(3))))
+                .transactionStatus(new TransactionStatus("PENDING"))
+                .value(BigDecimal.valueOf(random.nextInt(150_000), 2))
+                .accountExternalIdDebit("account-" + random.nextInt(ACCOUNTS))
+                .accountExternalIdCredit("account-" + random.nextInt(ACCOUNTS))
+                .createdAt(LocalDateTime.now())
+                .eventId(UUID.randomUUID().toString())
+                .eventTimestamp(LocalDateTime.now())
+                .build();
+        }
+    }
+
+    @Benchmark
+    public TransactionStatusUpdatedEvent decide() {
+        TransactionCreatedEvent event = events[next++ & (EVENTS - 1)];
+        FraudEvaluation evaluation = fraudRuleEngine.evaluate(event, 0);
+        TransactionStatusUpdatedEvent decision = statusService.decide(event, evaluation, "status-service");
+        // Tras publicar, la transacción entra en la ventana de su cuenta
+        fraudRuleEngine.recordEvaluated(evaluation);
+        return decision;
+    }
+}
@@ -1,4 +1,4 @@
-package com.example.transactionservice.dto;
+package com.example.events;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
@@ -19,6 +19,8 @@ public class TransactionCreatedEvent {
     private TransactionType transactionType;
     private TransactionStatus transactionStatus;
     private BigDecimal value;
+    private String accountExternalIdDebit;
+    private String accountExternalIdCredit;
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -1,4 +1,4 @@
-package com.example.statusservice.dto;
+package com.example.events;
 
 import lombok.*;
 
@@ -1,4 +1,4 @@
-package com.example.statusservice.dto;
+package com.example.events;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
@@ -0,0 +1,60 @@
+package com.example.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+// Cabecera: [magic][versión][tipo de evento]. Los campos solo se añaden al final y cada campo
+// nuevo sube VERSION: readFields lee un campo solo si la versión del payload lo incluye, y un
+// payload de una versión posterior se lee hasta donde llega la actual ignorando el resto.
+public abstract class BinaryEventCodec<T> implements EventCodec<T> {
+
+    public static final byte MAGIC = (byte) 0xE7;
+    public static final int VERSION = 1;
+
+    private static final ThreadLocal<BinaryWriter> WRITERS = ThreadLocal.withInitial(BinaryWriter::new);
+
+    private final int eventType;
+
+    protected BinaryEventCodec(int eventType) {
+        this.eventType = eventType;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    @Override
+    public byte[] encode(T event) {
+        BinaryWriter writer = WRITERS.get().reset();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeByte(eventType);
+        writeFields(event, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public T decode(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new SerializationException("Not a binary event");
+        }
+        int type = data[2] & 0xFF;
+        if (type != eventType) {
+            throw new SerializationException("Unexpected event type " + type + ", expected " + eventType);
+        }
+        int version = data[1] & 0xFF;
+        if (version == 0) {
+            throw new SerializationException("Invalid binary event version 0");
+        }
+        BinaryReader reader = new BinaryReader(data, 3);
+        T event = readFields(version, reader);
+        // En la versión actual o anteriores todo el payload es conocido: lo que sobre es un payload corrupto
+        if (version <= VERSION && reader.hasRemaining()) {
+            throw new SerializationException("Unexpected trailing bytes in binary event version " + version);
+        }
+        return event;
+    }
+
+    abstract void writeFields(T event, BinaryWriter writer);
+
+    abstract T readFields(int version, BinaryReader reader);
+}
@@ -0,0 +1,66 @@
+package com.example.events.codec;
+
+final class BinaryFields {
+
+    static final int NULL = 0;
+
+    static final int ID_UUID = 1;
+    static final int ID_STRING = 2;
+
+    static final int NAME_DICTIONARY = 1;
+    static final int NAME_INTEGER = 2;
+    static final int NAME_STRING = 3;
+
+    static final int DECIMAL_LONG = 1;
+    static final int DECIMAL_BIG = 2;
+
+    static final int DATE_TIME = 1;
+
+    private BinaryFields() {
+    }
+
+    // Solo UUID en minúsculas: al decodificar se reconstruye con UUID.toString()
+    static boolean isCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            result = (result << 4) | (c <= '9' ? c - '0' : c - 'a' + 10);
+        }
+        return result;
+    }
+
+    // Enteros sin signo ni ceros a la izquierda, para que el texto se reconstruya idéntico
+    static boolean isPlainInteger(String value) {
+        int length = value.length();
+        if (length == 0 || length > 18 || (length > 1 && value.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+final class BinaryReader {
+
+    private final byte[] data;
+    private int position;
+
+    BinaryReader(byte[] data, int position) {
+        this.data = data;
+        this.position = position;
+    }
+
+    boolean hasRemaining() {
+        return position < data.length;
+    }
+
+    int readByte() {
+        if (position >= data.length) {
+            throw new SerializationException("Truncated binary event at byte " + position);
+        }
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint at byte " + position);
+    }
+
+    long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    byte[] readBytes() {
+        int length = (int) readVarLong();
+        if (length < 0 || position + length > data.length) {
+            throw new SerializationException("Invalid length " + length + " at byte " + position);
+        }
+        byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    String readString() {
+        int length = (int) readVarLong();
+        if (length < 0 || position + length > data.length) {
+            throw new SerializationException("Invalid length " + length + " at byte " + position);
+        }
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    String readId() {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryFields.NULL -> null;
+            case BinaryFields.ID_UUID -> new UUID(readLong(), readLong()).toString();
+            case BinaryFields.ID_STRING -> readString();
+            default -> throw unknownTag(tag);
+        };
+    }
+
+    String readName(String[] dictionary) {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryFields.NULL -> null;
+            case BinaryFields.NAME_DICTIONARY -> {
+                int index = (int) readVarLong();
+                if (index < 0 || index >= dictionary.length) {
+                    throw new SerializationException("Unknown dictionary entry " + index);
+                }
+                yield dictionary[index];
+            }
+            case BinaryFields.NAME_INTEGER -> Long.toString(readVarLong());
+            case BinaryFields.NAME_STRING -> readString();
+            default -> throw unknownTag(tag);
+        };
+    }
+
+    BigDecimal readDecimal() {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryFields.NULL -> null;
+            case BinaryFields.DECIMAL_LONG -> {
+                int scale = (int) readZigZag();
+                yield BigDecimal.valueOf(readZigZag(), scale);
+            }
+            case BinaryFields.DECIMAL_BIG -> {
+                int scale = (int) readZigZag();
+                yield new BigDecimal(new BigInteger(readBytes()), scale);
+            }
+            default -> throw unknownTag(tag);
+        };
+    }
+
+    LocalDateTime readDateTime() {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryFields.NULL -> null;
+            case BinaryFields.DATE_TIME -> {
+                int start = position - 1;
+                long epochSecond = readZigZag();
+                long nanos = readVarLong();
+                // Fuera del rango de LocalDateTime es un payload corrupto, no un error del consumidor
+                if (nanos < 0 || nanos > 999_999_999) {
+                    throw new SerializationException("Invalid date-time nanos " + nanos + " at byte " + start);
+                }
+                try {
+                    yield LocalDateTime.ofEpochSecond(epochSecond, (int) nanos, ZoneOffset.UTC);
+                } catch (DateTimeException e) {
+                    throw new SerializationException("Invalid date-time at byte " + start, e);
+                }
+            }
+            default -> throw unknownTag(tag);
+        };
+    }
+
+    private SerializationException unknownTag(int tag) {
+        return new SerializationException("Unknown field tag " + tag + " at byte " + (position - 1));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.events.codec;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionType;
+
+public class BinaryTransactionCreatedCodec extends BinaryEventCodec<TransactionCreatedEvent> {
+
+    static final int EVENT_TYPE = 1;
+
+    public BinaryTransactionCreatedCodec() {
+        super(EVENT_TYPE);
+    }
+
+    @Override
+    void writeFields(TransactionCreatedEvent event, BinaryWriter writer) {
+        writer.writeId(event.getTransactionId());
+        writer.writeName(event.getTransactionType() != null ? event.getTransactionType().getName() : null,
+            Dictionaries.NONE);
+        writer.writeName(event.getTransactionStatus() != null ? event.getTransactionStatus().getName() : null,
+            Dictionaries.STATUSES);
+        writer.writeDecimal(event.getValue());
+        writer.writeId(event.getAccountExternalIdDebit());
+        writer.writeId(event.getAccountExternalIdCredit());
+        writer.writeDateTime(event.getCreatedAt());
+        writer.writeId(event.getEventId());
+        writer.writeDateTime(event.getEventTimestamp());
+    }
+
+    @Override
+    TransactionCreatedEvent readFields(int version, BinaryReader reader) {
+        String transactionId = reader.readId();
+        String type = reader.readName(Dictionaries.NONE);
+        String status = reader.readName(Dictionaries.STATUSES);
+        return TransactionCreatedEvent.builder()
+            .transactionId(transactionId)
+            .transactionType(type != null ? new TransactionType(type) : null)
+            .transactionStatus(status != null ? new TransactionStatus(status) : null)
+            .value(reader.readDecimal())
+            .accountExternalIdDebit(reader.readId())
+            .accountExternalIdCredit(reader.readId())
+            .createdAt(reader.readDateTime())
+            .eventId(reader.readId())
+            .eventTimestamp(reader.readDateTime())
+            .build();
+    }
+}
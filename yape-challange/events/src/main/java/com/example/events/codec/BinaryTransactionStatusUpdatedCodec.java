@@ -0,0 +1,38 @@
+package com.example.events.codec;
+
+import com.example.events.TransactionStatusUpdatedEvent;
+
+public class BinaryTransactionStatusUpdatedCodec extends BinaryEventCodec<TransactionStatusUpdatedEvent> {
+
+    static final int EVENT_TYPE = 2;
+
+    public BinaryTransactionStatusUpdatedCodec() {
+        super(EVENT_TYPE);
+    }
+
+    @Override
+    void writeFields(TransactionStatusUpdatedEvent event, BinaryWriter writer) {
+        writer.writeId(event.getTransactionId());
+        writer.writeName(event.getOldStatus(), Dictionaries.STATUSES);
+        writer.writeName(event.getNewStatus(), Dictionaries.STATUSES);
+        writer.writeName(event.getReason(), Dictionaries.REASONS);
+        writer.writeName(event.getUpdatedBy(), Dictionaries.UPDATED_BY);
+        writer.writeDateTime(event.getUpdatedAt());
+        writer.writeId(event.getEventId());
+        writer.writeDateTime(event.getEventTimestamp());
+    }
+
+    @Override
+    TransactionStatusUpdatedEvent readFields(int version, BinaryReader reader) {
+        return TransactionStatusUpdatedEvent.builder()
+            .transactionId(reader.readId())
+            .oldStatus(reader.readName(Dictionaries.STATUSES))
+            .newStatus(reader.readName(Dictionaries.STATUSES))
+            .reason(reader.readName(Dictionaries.REASONS))
+            .updatedBy(reader.readName(Dictionaries.UPDATED_BY))
+            .updatedAt(reader.readDateTime())
+            .eventId(reader.readId())
+            .eventTimestamp(reader.readDateTime())
+            .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.events.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Buffer creciente reutilizado por hilo; todas las longitudes y enteros van como varint
+final class BinaryWriter {
+
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    BinaryWriter reset() {
+        position = 0;
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Identificadores: los UUID canónicos ocupan 16 bytes en lugar de 36
+    void writeId(String id) {
+        if (id == null) {
+            writeByte(BinaryFields.NULL);
+        } else if (BinaryFields.isCanonicalUuid(id)) {
+            writeByte(BinaryFields.ID_UUID);
+            writeLong(BinaryFields.parseHex(id, 0, 8) << 32
+                | BinaryFields.parseHex(id, 9, 13) << 16
+                | BinaryFields.parseHex(id, 14, 18));
+            writeLong(BinaryFields.parseHex(id, 19, 23) << 48
+                | BinaryFields.parseHex(id, 24, 36));
+        } else {
+            writeByte(BinaryFields.ID_STRING);
+            writeString(id);
+        }
+    }
+
+    // Nombres cortos: diccionario conocido, entero o texto
+    void writeName(String name, String[] dictionary) {
+        if (name == null) {
+            writeByte(BinaryFields.NULL);
+            return;
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(name)) {
+                writeByte(BinaryFields.NAME_DICTIONARY);
+                writeVarLong(i);
+                return;
+            }
+        }
+        if (BinaryFields.isPlainInteger(name)) {
+            writeByte(BinaryFields.NAME_INTEGER);
+            writeVarLong(Long.parseLong(name));
+        } else {
+            writeByte(BinaryFields.NAME_STRING);
+            writeString(name);
+        }
+    }
+
+    void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(BinaryFields.NULL);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            writeByte(BinaryFields.DECIMAL_LONG);
+            writeZigZag(value.scale());
+            writeZigZag(unscaled.longValue());
+        } else {
+            writeByte(BinaryFields.DECIMAL_BIG);
+            writeZigZag(value.scale());
+            writeBytes(unscaled.toByteArray());
+        }
+    }
+
+    void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeByte(BinaryFields.NULL);
+            return;
+        }
+        writeByte(BinaryFields.DATE_TIME);
+        writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(value.getNano());
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
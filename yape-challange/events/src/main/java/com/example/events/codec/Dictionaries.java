@@ -0,0 +1,13 @@
+package com.example.events.codec;
+
+// Los diccionarios forman parte del formato: solo se pueden añadir entradas al final
+final class Dictionaries {
+
+    static final String[] NONE = {};
+    static final String[] STATUSES = {"PENDING", "ACCEPTED", "REJECTED"};
+    static final String[] REASONS = {"amount-limit", "deny-list", "velocity"};
+    static final String[] UPDATED_BY = {"status-service"};
+
+    private Dictionaries() {
+    }
+}
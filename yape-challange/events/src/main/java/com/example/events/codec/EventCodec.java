@@ -0,0 +1,8 @@
+package com.example.events.codec;
+
+public interface EventCodec<T> {
+
+    byte[] encode(T event);
+
+    T decode(byte[] data);
+}
@@ -0,0 +1,24 @@
+package com.example.events.codec;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public final class EventCodecs {
+
+    private EventCodecs() {
+    }
+
+    public static EventCodec<TransactionCreatedEvent> transactionCreated(EventFormat format, ObjectMapper objectMapper) {
+        return new FormatDetectingCodec<>(format,
+            new BinaryTransactionCreatedCodec(),
+            new JsonEventCodec<>(objectMapper, TransactionCreatedEvent.class));
+    }
+
+    public static EventCodec<TransactionStatusUpdatedEvent> transactionStatusUpdated(EventFormat format,
+                                                                                    ObjectMapper objectMapper) {
+        return new FormatDetectingCodec<>(format,
+            new BinaryTransactionStatusUpdatedCodec(),
+            new JsonEventCodec<>(objectMapper, TransactionStatusUpdatedEvent.class));
+    }
+}
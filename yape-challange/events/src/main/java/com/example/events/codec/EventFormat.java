@@ -0,0 +1,6 @@
+package com.example.events.codec;
+
+public enum EventFormat {
+    BINARY,
+    JSON
+}
@@ -0,0 +1,26 @@
+package com.example.events.codec;
+
+// Escribe en el formato configurado y lee cualquiera de los dos, para poder
+// desplegar productores y consumidores por separado
+public class FormatDetectingCodec<T> implements EventCodec<T> {
+
+    private final EventFormat format;
+    private final BinaryEventCodec<T> binaryCodec;
+    private final JsonEventCodec<T> jsonCodec;
+
+    public FormatDetectingCodec(EventFormat format, BinaryEventCodec<T> binaryCodec, JsonEventCodec<T> jsonCodec) {
+        this.format = format;
+        this.binaryCodec = binaryCodec;
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public byte[] encode(T event) {
+        return format == EventFormat.BINARY ? binaryCodec.encode(event) : jsonCodec.encode(event);
+    }
+
+    @Override
+    public T decode(byte[] data) {
+        return BinaryEventCodec.isBinary(data) ? binaryCodec.decode(data) : jsonCodec.decode(data);
+    }
+}
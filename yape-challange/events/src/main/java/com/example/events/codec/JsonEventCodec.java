@@ -0,0 +1,36 @@
+package com.example.events.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+
+// Formato JSON original, se mantiene como alternativa seleccionable y para compatibilidad
+public class JsonEventCodec<T> implements EventCodec<T> {
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+
+    public JsonEventCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    @Override
+    public byte[] encode(T event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new SerializationException("Error serializing " + type.getSimpleName() + " as JSON", e);
+        }
+    }
+
+    @Override
+    public T decode(byte[] data) {
+        try {
+            return objectMapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new SerializationException("Error deserializing " + type.getSimpleName() + " from JSON", e);
+        }
+    }
+}
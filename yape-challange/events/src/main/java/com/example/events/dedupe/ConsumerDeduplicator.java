@@ -0,0 +1,64 @@
+package com.example.events.dedupe;
+
+import com.example.events.kafka.PartitionStateListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+
+// Etapa de deduplicación de los consumidores; cada servicio la registra como bean con su configuración
+@Slf4j
+public class ConsumerDeduplicator implements PartitionStateListener {
+
+    // null cuando la deduplicación está deshabilitada
+    private final EventDeduplicator deduplicator;
+    private final Counter droppedCounter;
+
+    public ConsumerDeduplicator(boolean enabled, int capacity, Duration revokedRetention, MeterRegistry meterRegistry) {
+        this.deduplicator = enabled ? new EventDeduplicator(capacity, revokedRetention) : null;
+        this.droppedCounter = meterRegistry.counter("kafka.consumer.duplicates.dropped");
+        if (deduplicator != null) {
+            Gauge.builder("kafka.consumer.dedupe.tracked", deduplicator, EventDeduplicator::trackedEvents)
+                .description("eventIds recordados en las particiones asignadas")
+                .register(meterRegistry);
+            Gauge.builder("kafka.consumer.dedupe.partition.capacity", deduplicator, EventDeduplicator::partitionCapacity)
+                .description("eventIds que recuerda cada partición asignada: capacity repartido entre ellas")
+                .register(meterRegistry);
+        }
+        log.info("Consumer deduplication: enabled={}, capacity per instance={} (~{} MB), revokedRetention={}",
+            enabled, capacity, capacity * 24L / (1024 * 1024), revokedRetention);
+    }
+
+    // true si el evento ya se procesó en esta instancia y debe descartarse
+    public boolean isDuplicate(int partition, long offset, String eventId) {
+        if (deduplicator == null || !deduplicator.isDuplicate(partition, eventId)) {
+            return false;
+        }
+        droppedCounter.increment();
+        log.debug("Duplicate event dropped: eventId={}, partition={}, offset={}", eventId, partition, offset);
+        return true;
+    }
+
+    public void markProcessed(int partition, String eventId) {
+        if (deduplicator != null) {
+            deduplicator.record(partition, eventId);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<Integer> partitions) {
+        if (deduplicator != null) {
+            deduplicator.onPartitionsAssigned(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<Integer> partitions) {
+        if (deduplicator != null) {
+            deduplicator.onPartitionsRevoked(partitions);
+        }
+    }
+}
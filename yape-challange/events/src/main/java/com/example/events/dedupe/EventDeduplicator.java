@@ -0,0 +1,164 @@
+package com.example.events.dedupe;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/*
+ * Memoria de eventIds recientes por partición, como hashes de 128 bits en arrays primitivos
+ * (RecentEventIds, ~24 bytes por eventId). capacity es el presupuesto de la instancia: se reparte
+ * a partes iguales entre las particiones asignadas y se vuelve a repartir en cada asignación, así
+ * la memoria no crece con el número de particiones. Los eventIds recordados por partición son la
+ * ventana real de la deduplicación; un duplicado más antiguo, o uno que llega tras moverse la
+ * partición a otra instancia, se procesa otra vez y depende de la idempotencia de quien lo consume.
+ * Las particiones revocadas conservan su parte durante revokedRetention, fuera del presupuesto.
+ *
+ * Varios receptores de la misma instancia comparten el deduplicador y cada uno notifica solo sus
+ * particiones: el estado de una partición revocada se guarda revokedRetention por si otro receptor
+ * la reclama en el mismo rebalanceo, en lugar de descartarlo en la primera asignación.
+ *
+ * Uso: isDuplicate() antes de procesar y record() solo si el procesamiento terminó bien, para que
+ * un reintento de un mensaje fallido no se tome como duplicado.
+ */
+public final class EventDeduplicator {
+
+    private final int capacity;
+    // Parte del presupuesto de cada partición asignada
+    private volatile int partitionCapacity;
+    private final long revokedRetentionNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Integer, PartitionState> partitions = new ConcurrentHashMap<>();
+    // Estado de particiones revocadas, a la espera de saber si algún receptor de esta instancia las reclama
+    private final Map<Integer, RevokedState> revoked = new ConcurrentHashMap<>();
+
+    public EventDeduplicator(int capacity, Duration revokedRetention) {
+        this(capacity, revokedRetention, System::nanoTime);
+    }
+
+    EventDeduplicator(int capacity, Duration revokedRetention, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.partitionCapacity = capacity;
+        this.revokedRetentionNanos = revokedRetention.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // Solo consulta: un registro tardío de una partición revocada no vuelve a crear su estado
+    public boolean isDuplicate(int partition, String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        PartitionState state = find(partition);
+        return state != null && state.contains(eventId);
+    }
+
+    public void record(int partition, String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        PartitionState state = find(partition);
+        if (state == null) {
+            state = partitions.computeIfAbsent(partition, p -> new PartitionState(partitionCapacity));
+        }
+        state.record(eventId);
+    }
+
+    // Con rebalanceo eager se revocan todas las particiones y se reasignan casi las mismas;
+    // conservar su estado es justo lo que permite reconocer el tramo sin confirmar que se relee
+    public synchronized void onPartitionsRevoked(Collection<Integer> revokedPartitions) {
+        long now = nanoClock.getAsLong();
+        for (Integer partition : revokedPartitions) {
+            PartitionState state = partitions.remove(partition);
+            if (state != null) {
+                revoked.put(partition, new RevokedState(state, now));
+            }
+        }
+        redistribute();
+        expireRevoked(now);
+    }
+
+    public synchronized void onPartitionsAssigned(Collection<Integer> assignedPartitions) {
+        for (Integer partition : assignedPartitions) {
+            RevokedState previous = revoked.remove(partition);
+            partitions.put(partition, previous != null ? previous.state : new PartitionState(partitionCapacity));
+        }
+        redistribute();
+        expireRevoked(nanoClock.getAsLong());
+    }
+
+    public int trackedPartitions() {
+        return partitions.size();
+    }
+
+    public long trackedEvents() {
+        return partitions.values().stream().mapToLong(PartitionState::size).sum();
+    }
+
+    public int partitionCapacity() {
+        return partitionCapacity;
+    }
+
+    public int retainedPartitions() {
+        return revoked.size();
+    }
+
+    // Al crecer la asignación cada partición cede sus eventIds más antiguos; al reducirse, gana espacio
+    private void redistribute() {
+        partitionCapacity = Math.max(1, capacity / Math.max(1, partitions.size()));
+        for (PartitionState state : partitions.values()) {
+            state.resize(partitionCapacity);
+        }
+    }
+
+    // Lo que ningún receptor reclamó dentro de la retención pertenece ahora a otra instancia
+    private void expireRevoked(long now) {
+        revoked.values().removeIf(entry -> now - entry.revokedAtNanos >= revokedRetentionNanos);
+    }
+
+    // Un registro que termina de procesarse durante la revocación se anota en el estado retenido
+    private PartitionState find(int partition) {
+        PartitionState state = partitions.get(partition);
+        if (state != null) {
+            return state;
+        }
+        RevokedState retained = revoked.get(partition);
+        return retained != null ? retained.state : null;
+    }
+
+    private static final class RevokedState {
+
+        private final PartitionState state;
+        private final long revokedAtNanos;
+
+        RevokedState(PartitionState state, long revokedAtNanos) {
+            this.state = state;
+            this.revokedAtNanos = revokedAtNanos;
+        }
+    }
+
+    private static final class PartitionState {
+
+        private final RecentEventIds recent;
+
+        PartitionState(int capacity) {
+            this.recent = new RecentEventIds(capacity);
+        }
+
+        synchronized boolean contains(String eventId) {
+            return recent.contains(eventId);
+        }
+
+        synchronized void record(String eventId) {
+            recent.add(eventId);
+        }
+
+        synchronized int size() {
+            return recent.size();
+        }
+
+        synchronized void resize(int capacity) {
+            recent.resize(capacity);
+        }
+    }
+}
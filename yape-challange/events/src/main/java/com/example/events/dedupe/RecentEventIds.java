@@ -0,0 +1,186 @@
+package com.example.events.dedupe;
+
+/*
+ * Los últimos capacity eventIds de una partición, guardados como un hash de 128 bits: un anillo en
+ * orden de llegada (dos long[]) y una tabla de direccionamiento abierto (int[]) con la posición de
+ * cada hash en el anillo. Son unos 24 bytes por eventId, sin objetos por entrada, así la ventana
+ * puede llegar a millones de eventIds. Con 128 bits un falso duplicado es, en la práctica, imposible.
+ *
+ * Los arrays crecen al doble según se llenan, hasta capacity; a partir de ahí cada eventId nuevo
+ * reemplaza al más antiguo. resize cambia capacity conservando los más recientes que quepan.
+ * No es seguro entre hilos: EventDeduplicator sincroniza el acceso.
+ */
+final class RecentEventIds {
+
+    private static final int INITIAL_SIZE = 1024;
+    private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_HIGH = 0x100000001B3L;
+    private static final long PRIME_LOW = 0xC6A4A7935BD1E995L;
+
+    private int capacity;
+    private long[] highs;
+    private long[] lows;
+    // Posición en el anillo + 1; 0 es una casilla libre
+    private int[] table;
+    private int mask;
+    private int size;
+    // Siguiente posición a escribir; con el anillo lleno es también la entrada más antigua
+    private int next;
+
+    RecentEventIds(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        allocate(Math.min(capacity, INITIAL_SIZE));
+    }
+
+    boolean contains(String eventId) {
+        return find(hashHigh(eventId), hashLow(eventId)) >= 0;
+    }
+
+    // false si ya estaba
+    boolean add(String eventId) {
+        long high = hashHigh(eventId);
+        long low = hashLow(eventId);
+        if (find(high, low) >= 0) {
+            return false;
+        }
+        if (size < capacity) {
+            if (size == highs.length) {
+                grow();
+            }
+            size++;
+        } else {
+            remove(find(highs[next], lows[next]));
+        }
+        highs[next] = high;
+        lows[next] = low;
+        insert(next, low);
+        next = next + 1 == capacity ? 0 : next + 1;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Copia los más recientes en orden a arrays nuevos: tras esto ocupan 0..size-1, como antes de llenarse
+    void resize(int newCapacity) {
+        if (newCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (newCapacity == capacity) {
+            return;
+        }
+        int kept = Math.min(size, newCapacity);
+        // Con el anillo lleno la entrada más antigua está en next; si no, en 0
+        int start = size == capacity ? next : 0;
+        int first = (int) ((start + (long) size - kept) % capacity);
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        capacity = newCapacity;
+        allocate(Math.min(newCapacity, Math.max(kept, INITIAL_SIZE)));
+        for (int index = 0; index < kept; index++) {
+            int from = (first + index) % oldHighs.length;
+            highs[index] = oldHighs[from];
+            lows[index] = oldLows[from];
+            insert(index, lows[index]);
+        }
+        size = kept;
+        next = kept == newCapacity ? 0 : kept;
+    }
+
+    private int find(long high, long low) {
+        for (int i = slot(low); table[i] != 0; i = (i + 1) & mask) {
+            int index = table[i] - 1;
+            if (lows[index] == low && highs[index] == high) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(int index, long low) {
+        int i = slot(low);
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = index + 1;
+    }
+
+    // Borrado con desplazamiento hacia atrás: la tabla nunca acumula marcas de borrado
+    private void remove(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == 0) {
+                break;
+            }
+            int home = slot(lows[table[j] - 1]);
+            boolean stays = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!stays) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+    }
+
+    // Solo crece con el anillo aún sin completar: sus entradas ocupan 0..size-1 en orden
+    private void grow() {
+        int length = (int) Math.min(capacity, 2L * highs.length);
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        allocate(length);
+        System.arraycopy(oldHighs, 0, highs, 0, size);
+        System.arraycopy(oldLows, 0, lows, 0, size);
+        for (int index = 0; index < size; index++) {
+            insert(index, lows[index]);
+        }
+    }
+
+    // Tabla a como mucho la mitad de ocupación
+    private void allocate(int length) {
+        highs = new long[length];
+        lows = new long[length];
+        int tableSize = Integer.highestOneBit(Math.max(2, length) * 2 - 1) << 1;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private int slot(long low) {
+        return (int) (low ^ (low >>> 32)) & mask;
+    }
+
+    // Dos hashes de 64 bits independientes sobre los caracteres, sin asignar memoria
+    static long hashHigh(String value) {
+        long hash = SEED_HIGH ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME_HIGH;
+        }
+        return mix(hash);
+    }
+
+    static long hashLow(String value) {
+        long hash = SEED_LOW ^ ((long) value.length() << 32);
+        for (int i = 0; i < value.length(); i++) {
+            hash = Long.rotateLeft(hash + value.charAt(i), 27) * PRIME_LOW;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Métricas del recorrido de un evento: antigüedad al consumirlo, duración de cada etapa,
+// registros en vuelo y lag por partición del tópico principal. Cada servicio la registra como
+// bean o la extiende con sus propias métricas
+@Slf4j
+public class ConsumerPipelineMetrics implements PartitionStateListener {
+
+    protected final MeterRegistry meterRegistry;
+    private final String topic;
+    private final Duration lagInterval;
+    private final Timer eventAgeTimer;
+    private final Timer queueTimer;
+    // Cada receptor informa sus registros sin confirmar; se reemplaza al volver a suscribirse
+    private final Map<String, IntSupplier> inFlightByReceiver = new ConcurrentHashMap<>();
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+    private final Map<Integer, Gauge> lagGauges = new ConcurrentHashMap<>();
+
+    public ConsumerPipelineMetrics(String topic, Duration lagInterval, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+        this.lagInterval = lagInterval;
+        this.eventAgeTimer = Timer.builder("kafka.consumer.event.age")
+            .description("Desde el eventTimestamp del productor hasta que el consumidor toma el evento")
+            .tag("topic", topic)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.queueTimer = Timer.builder("kafka.consumer.queue.latency")
+            .description("Desde el timestamp del registro en Kafka hasta que el consumidor lo toma")
+            .tag("topic", topic)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("kafka.consumer.in.flight", inFlightByReceiver,
+                sources -> sources.values().stream().mapToInt(IntSupplier::getAsInt).sum())
+            .description("Registros recibidos aún sin confirmar")
+            .tag("topic", topic)
+            .register(meterRegistry);
+    }
+
+    public void recordConsumed(ConsumerRecord<?, ?> record, LocalDateTime eventTimestamp) {
+        long now = System.currentTimeMillis();
+        if (record.timestamp() >= 0) {
+            queueTimer.record(Math.max(0, now - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+        if (eventTimestamp != null) {
+            Duration age = Duration.between(eventTimestamp, LocalDateTime.now());
+            eventAgeTimer.record(age.isNegative() ? Duration.ZERO : age);
+        }
+    }
+
+    // El receptor lleva la cuenta exacta de lo que recibió y no confirmó; contar aquí altas y bajas
+    // por separado deriva con cada registro descartado por una revocación o un fallo del receptor
+    public void trackInFlight(String receiver, IntSupplier inFlight) {
+        inFlightByReceiver.put(receiver, inFlight);
+    }
+
+    public <T> Mono<T> timeStage(String stage, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                .doOnSuccess(value -> recordStage(stage, "success", start))
+                .doOnError(error -> recordStage(stage, "error", start));
+        });
+    }
+
+    public void recordStage(String stage, String outcome, long startNanos) {
+        stageTimers.computeIfAbsent(stage + ':' + outcome, key -> Timer.builder("pipeline.stage.duration")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Lag = offset final de la partición - offset confirmado por el grupo, muestreado en el hilo del consumidor
+    public Disposable monitorLag(KafkaReceiver<?, ?> receiver) {
+        return Flux.interval(lagInterval)
+            .concatMap(tick -> receiver.doOnConsumer(this::sampleLag)
+                .onErrorResume(error -> {
+                    log.debug("Could not sample consumer lag: {}", error.getMessage());
+                    return Mono.empty();
+                }))
+            .subscribe();
+    }
+
+    private Void sampleLag(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return null;
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assignment);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(assignment);
+        endOffsets.forEach((partition, endOffset) -> {
+            OffsetAndMetadata offset = committed.get(partition);
+            long lag = endOffset - (offset == null ? 0 : offset.offset());
+            lagOf(partition.partition()).set(Math.max(0, lag));
+        });
+        return null;
+    }
+
+    private AtomicLong lagOf(int partition) {
+        return lagByPartition.computeIfAbsent(partition, p -> {
+            AtomicLong lag = new AtomicLong();
+            lagGauges.put(p, Gauge.builder("kafka.consumer.lag", lag, AtomicLong::get)
+                .description("Registros pendientes de confirmar en la partición")
+                .tag("topic", topic)
+                .tag("partition", String.valueOf(p))
+                .register(meterRegistry));
+            return lag;
+        });
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<Integer> partitions) {
+        partitions.forEach(this::lagOf);
+    }
+
+    // Una partición revocada deja de reportarse aquí: la publica la instancia que la recibe
+    @Override
+    public void onPartitionsRevoked(Collection<Integer> partitions) {
+        partitions.forEach(partition -> {
+            lagByPartition.remove(partition);
+            Gauge gauge = lagGauges.remove(partition);
+            if (gauge != null) {
+                meterRegistry.remove(gauge);
+            }
+        });
+    }
+}
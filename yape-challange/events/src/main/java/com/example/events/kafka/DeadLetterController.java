@@ -0,0 +1,47 @@
+package com.example.events.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// Endpoints del replay del DLT, comunes a los servicios; cada uno lo registra como bean en su KafkaConfig
+@RestController
+@RequestMapping("/api/v1/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterController {
+    
+    private static final URI STATUS_LOCATION = URI.create("/api/v1/dead-letters/replay");
+    
+    private final DeadLetterReplayService deadLetterReplayService;
+    
+    // El replay sigue en segundo plano; se responde 202 con su estado inicial
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayStatus> replay(
+            @RequestParam(required = false) Integer maxRecords,
+            @RequestParam(required = false) Integer ratePerSecond) {
+        log.info("POST /api/v1/dead-letters/replay - maxRecords={}, ratePerSecond={}", maxRecords, ratePerSecond);
+        
+        try {
+            DeadLetterReplayStatus status = deadLetterReplayService.start(maxRecords, ratePerSecond);
+            return ResponseEntity.accepted().location(STATUS_LOCATION).body(status);
+        } catch (IllegalArgumentException error) {
+            log.warn("Invalid replay request: {}", error.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (DeadLetterReplayInProgressException error) {
+            log.warn("Dead letter replay rejected: {}", error.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @GetMapping("/replay")
+    public ResponseEntity<DeadLetterReplayStatus> status() {
+        return deadLetterReplayService.status()
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
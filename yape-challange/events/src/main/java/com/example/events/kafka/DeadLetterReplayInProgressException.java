@@ -0,0 +1,8 @@
+package com.example.events.kafka;
+
+public class DeadLetterReplayInProgressException extends RuntimeException {
+
+    public DeadLetterReplayInProgressException(String topic) {
+        super("A replay of " + topic + " is already running");
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Replay del DLT de un tópico, uno a la vez y fuera de la petición HTTP que lo lanza; cada servicio lo
+// registra como bean con su tópico de origen y lo expone con DeadLetterController
+@Slf4j
+public class DeadLetterReplayService {
+
+    private final ReceiverOptions<String, byte[]> deadLetterReceiverOptions;
+    private final KafkaPublisher kafkaPublisher;
+    private final RetryTopicPolicy retryTopicPolicy;
+    private final Settings settings;
+    private final String deadLetterTopic;
+    private final Counter replayedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run lastRun;
+
+    public DeadLetterReplayService(ReceiverOptions<String, byte[]> deadLetterReceiverOptions,
+                                   KafkaPublisher kafkaPublisher,
+                                   RetryTopicPolicy retryTopicPolicy,
+                                   String sourceTopic,
+                                   Settings settings,
+                                   MeterRegistry meterRegistry) {
+        this.deadLetterReceiverOptions = deadLetterReceiverOptions;
+        this.kafkaPublisher = kafkaPublisher;
+        this.retryTopicPolicy = retryTopicPolicy;
+        this.settings = settings;
+        this.deadLetterTopic = retryTopicPolicy.deadLetterTopic(sourceTopic);
+        this.replayedCounter = meterRegistry.counter("kafka.consumer.dlt.replayed");
+    }
+
+    // Arranca en segundo plano la reinyección del DLT en el tópico original, a ratePerSecond como
+    // máximo, hasta maxRecords o hasta que el DLT quede vacío; solo se confirma lo que ya se reenvió.
+    // Devuelve el estado inicial; el progreso se consulta con status()
+    public DeadLetterReplayStatus start(Integer maxRecords, Integer ratePerSecond) {
+        int rate = ratePerSecond == null ? settings.getDefaultRatePerSecond() : ratePerSecond;
+        if (rate <= 0 || rate > settings.getMaxRatePerSecond()) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + settings.getMaxRatePerSecond());
+        }
+        if (maxRecords != null && maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new DeadLetterReplayInProgressException(deadLetterTopic);
+        }
+        log.info("Replaying dead letters: topic={}, maxRecords={}, ratePerSecond={}", deadLetterTopic, maxRecords, rate);
+
+        Run run = new Run(maxRecords, rate);
+        lastRun = run;
+        run.subscription = replay(run)
+            .doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    run.finish(DeadLetterReplayStatus.State.FAILED, "cancelled");
+                }
+                running.set(false);
+            })
+            .subscribe(null,
+                error -> {
+                    log.error("Dead letter replay failed: topic={}, replayed={}", deadLetterTopic, run.replayed.get(), error);
+                    run.finish(DeadLetterReplayStatus.State.FAILED, error.getMessage());
+                },
+                () -> {
+                    log.info("Dead letter replay finished: topic={}, replayed={}", deadLetterTopic, run.replayed.get());
+                    run.finish(DeadLetterReplayStatus.State.COMPLETED, null);
+                });
+        return run.status(deadLetterTopic);
+    }
+
+    // Replay en curso o el último que terminó; vacío si no se lanzó ninguno desde el arranque
+    public Optional<DeadLetterReplayStatus> status() {
+        Run run = lastRun;
+        return run == null ? Optional.empty() : Optional.of(run.status(deadLetterTopic));
+    }
+
+    // Al parar el servicio se cancela el replay en curso; lo ya reenviado está confirmado
+    public void stop() {
+        Run run = lastRun;
+        if (run != null && run.subscription != null) {
+            run.subscription.dispose();
+        }
+    }
+
+    private Mono<Void> replay(Run run) {
+        Duration period = Duration.ofNanos(1_000_000_000L / run.ratePerSecond);
+        // El DLT se da por vaciado tras idleTimeout esperando un registro con las particiones ya
+        // asignadas: ni la unión al grupo ni el reenvío de cada registro cuentan como inactividad
+        IdleTracker idle = new IdleTracker(settings.getIdleTimeout().toNanos());
+        Duration idleCheck = Duration.ofMillis(Math.max(10, settings.getIdleTimeout().toMillis() / 10));
+        Flux<ReceiverRecord<String, byte[]>> records = KafkaReceiver.create(deadLetterReceiverOptions
+                .addAssignListener(partitions -> idle.assigned(System.nanoTime())))
+            .receive()
+            .doOnRequest(requested -> idle.waiting(System.nanoTime()))
+            .doOnNext(record -> idle.received())
+            .takeUntilOther(Flux.interval(idleCheck).filter(tick -> idle.isIdle(System.nanoTime())).next());
+        if (run.maxRecords != null) {
+            records = records.take(run.maxRecords);
+        }
+
+        // prefetch 0: no se lee el siguiente registro hasta reenviar el anterior
+        return records
+            .concatMap(record -> Mono.delay(period).then(replayOne(record, run)), 0)
+            .then();
+    }
+
+    private Mono<Long> replayOne(ReceiverRecord<String, byte[]> record, Run run) {
+        return kafkaPublisher.send(retryTopicPolicy.replayRecord(record))
+            .doOnNext(metadata -> {
+                record.receiverOffset().acknowledge();
+                run.replayed.incrementAndGet();
+                replayedCounter.increment();
+                log.debug("Dead letter replayed: key={}, offset={}, to={}-{}@{}", record.key(), record.offset(),
+                    metadata.topic(), metadata.partition(), metadata.offset());
+            })
+            .map(metadata -> record.offset());
+    }
+
+    // Un replay lanzado: su progreso se lee mientras corre
+    private static final class Run {
+
+        private final Integer maxRecords;
+        private final int ratePerSecond;
+        private final Instant startedAt = Instant.now();
+        private final long startedAtNanos = System.nanoTime();
+        private final AtomicLong replayed = new AtomicLong();
+        private DeadLetterReplayStatus.State state = DeadLetterReplayStatus.State.RUNNING;
+        private long durationMs;
+        private String error;
+        private volatile Disposable subscription;
+
+        private Run(Integer maxRecords, int ratePerSecond) {
+            this.maxRecords = maxRecords;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        synchronized void finish(DeadLetterReplayStatus.State finalState, String finalError) {
+            if (state == DeadLetterReplayStatus.State.RUNNING) {
+                state = finalState;
+                error = finalError;
+                durationMs = Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis();
+            }
+        }
+
+        synchronized DeadLetterReplayStatus status(String deadLetterTopic) {
+            return DeadLetterReplayStatus.builder()
+                .deadLetterTopic(deadLetterTopic)
+                .state(state)
+                .replayed(replayed.get())
+                .maxRecords(maxRecords)
+                .ratePerSecond(ratePerSecond)
+                .startedAt(startedAt)
+                .durationMs(state == DeadLetterReplayStatus.State.RUNNING
+                    ? Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis() : durationMs)
+                .error(error)
+                .build();
+        }
+    }
+
+    // Tiempo esperando el siguiente registro, contado solo con particiones asignadas
+    static final class IdleTracker {
+
+        private final long idleTimeoutNanos;
+        private boolean assigned;
+        private boolean waiting;
+        private long waitingSinceNanos;
+
+        IdleTracker(long idleTimeoutNanos) {
+            this.idleTimeoutNanos = idleTimeoutNanos;
+        }
+
+        synchronized void assigned(long now) {
+            assigned = true;
+            waitingSinceNanos = now;
+        }
+
+        synchronized void waiting(long now) {
+            waiting = true;
+            waitingSinceNanos = now;
+        }
+
+        synchronized void received() {
+            waiting = false;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return assigned && waiting && now - waitingSinceNanos >= idleTimeoutNanos;
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Settings {
+        int defaultRatePerSecond;
+        int maxRatePerSecond;
+        // Esperando un registro durante este tiempo, con las particiones ya asignadas, se da el DLT por vaciado
+        Duration idleTimeout;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.events.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Estado del replay en curso o del último que terminó
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayStatus {
+
+    private String deadLetterTopic;
+    private State state;
+    private long replayed;
+    private Integer maxRecords;
+    private int ratePerSecond;
+    private Instant startedAt;
+    private long durationMs;
+    // Solo con state FAILED
+    private String error;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
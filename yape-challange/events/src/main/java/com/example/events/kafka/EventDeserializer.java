@@ -0,0 +1,18 @@
+package com.example.events.kafka;
+
+import com.example.events.codec.EventCodec;
+import org.apache.kafka.common.serialization.Deserializer;
+
+public class EventDeserializer<T> implements Deserializer<T> {
+
+    private final EventCodec<T> codec;
+
+    public EventDeserializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return data == null ? null : codec.decode(data);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.events.kafka;
+
+import com.example.events.codec.EventCodec;
+import org.apache.kafka.common.serialization.Serializer;
+
+public class EventSerializer<T> implements Serializer<T> {
+
+    private final EventCodec<T> codec;
+
+    public EventSerializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T event) {
+        return event == null ? null : codec.encode(event);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.events.kafka;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Perfiles de batching del productor; cada servicio lo enlaza a kafka.producer con un bean en su KafkaConfig
+@Getter
+@Setter
+public class KafkaProducerConfig {
+
+    // Perfil de batching del productor; spring.kafka.producer.properties tiene prioridad sobre él.
+    // Cada servicio elige el suyo en application.yml
+    private String profile = "throughput";
+    // Registros esperando entrar al pipeline de envío; por encima se rechaza el envío
+    private int queueCapacity = 4096;
+    private Map<String, Profile> profiles = new HashMap<>(Map.of(
+        "throughput", Profile.of(Duration.ofMillis(20), 128 * 1024, "lz4", 1024),
+        "latency", Profile.of(Duration.ZERO, 16 * 1024, "none", 256)));
+
+    public Profile activeProfile() {
+        Profile active = profiles.get(profile);
+        if (active == null) {
+            throw new IllegalStateException("Unknown Kafka producer profile: " + profile + ", available: " + profiles.keySet());
+        }
+        return active;
+    }
+
+    @Getter
+    @Setter
+    public static class Profile {
+        // linger.ms: espera para completar un lote antes de enviarlo
+        private Duration linger;
+        // batch.size en bytes por partición
+        private int batchSize;
+        // compression.type: none, gzip, snappy, lz4 o zstd
+        private String compression;
+        // Registros enviados al productor pendientes de confirmación
+        private int maxInFlight;
+
+        static Profile of(Duration linger, int batchSize, String compression, int maxInFlight) {
+            Profile profile = new Profile();
+            profile.setLinger(linger);
+            profile.setBatchSize(batchSize);
+            profile.setCompression(compression);
+            profile.setMaxInFlight(maxInFlight);
+            return profile;
+        }
+    }
+}
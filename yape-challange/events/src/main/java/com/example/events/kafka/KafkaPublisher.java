@@ -0,0 +1,230 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Pipeline de publicación único y de larga duración: un solo kafkaSender.send(...) se abre al
+ * arrancar y se alimenta desde una cola acotada. Cada registro lleva como correlación el sink de
+ * quien lo envió, que recibe su RecordMetadata o su error. El productor agrupa los registros de
+ * todos los llamadores según el perfil activo en lugar de abrir un pipeline por evento.
+ * Cada servicio lo registra como bean con startPipeline y stopPipeline como métodos de ciclo de vida.
+ *
+ * Si el pipeline termina sin que se haya pedido (un error fatal del productor), todos los envíos
+ * encolados o sin confirmar fallan en ese momento y se abre uno nuevo, con un KafkaSender nuevo,
+ * tras un backoff exponencial. Mientras tanto send falla de inmediato.
+ */
+@Slf4j
+public class KafkaPublisher {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MIN_RESTART_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RESTART_BACKOFF = Duration.ofSeconds(30);
+
+    private final Supplier<KafkaSender<String, byte[]>> senderFactory;
+    private final int queueCapacity;
+    private final Duration minRestartBackoff;
+    private final Duration maxRestartBackoff;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final Counter restartCounter;
+    private volatile Generation current;
+    private volatile boolean stopping;
+    private volatile Duration restartBackoff;
+
+    public KafkaPublisher(Supplier<KafkaSender<String, byte[]>> senderFactory, int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        this(senderFactory, queueCapacity, meterRegistry, MIN_RESTART_BACKOFF, MAX_RESTART_BACKOFF);
+    }
+
+    KafkaPublisher(Supplier<KafkaSender<String, byte[]>> senderFactory, int queueCapacity, MeterRegistry meterRegistry,
+                   Duration minRestartBackoff, Duration maxRestartBackoff) {
+        this.senderFactory = senderFactory;
+        this.queueCapacity = queueCapacity;
+        this.minRestartBackoff = minRestartBackoff;
+        this.maxRestartBackoff = maxRestartBackoff;
+        this.restartBackoff = minRestartBackoff;
+        this.rejectedCounter = meterRegistry.counter("kafka.publisher.rejected");
+        this.restartCounter = meterRegistry.counter("kafka.publisher.restarts");
+        Gauge.builder("kafka.publisher.pending", pending, AtomicInteger::get)
+            .description("Registros encolados o enviados sin confirmación del broker")
+            .register(meterRegistry);
+    }
+
+    public synchronized void startPipeline() {
+        if (stopping) {
+            return;
+        }
+        KafkaSender<String, byte[]> sender;
+        try {
+            sender = senderFactory.get();
+        } catch (RuntimeException e) {
+            log.error("Could not create Kafka sender", e);
+            scheduleRestart(null);
+            return;
+        }
+        Generation generation = new Generation(sender, queueCapacity);
+        current = generation;
+        generation.pipeline = sender.send(generation.queue.asFlux())
+            .doFinally(signal -> terminate(generation))
+            .subscribe(result -> complete(generation, result), error -> log.error("Kafka publishing pipeline terminated", error));
+    }
+
+    // Deja de aceptar envíos y espera a los encolados antes de cerrar el productor
+    public void stopPipeline() throws InterruptedException {
+        Generation generation;
+        synchronized (this) {
+            stopping = true;
+            generation = current;
+        }
+        if (generation == null) {
+            return;
+        }
+        synchronized (generation.queue) {
+            generation.queue.tryEmitComplete();
+        }
+        if (!generation.terminated.await(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Kafka publishing pipeline not drained after {}: {} records pending", SHUTDOWN_TIMEOUT, pending.get());
+            // doFinally hace fallar a los que siguen esperando
+            generation.pipeline.dispose();
+        }
+        generation.sender.close();
+    }
+
+    public Mono<RecordMetadata> send(ProducerRecord<String, byte[]> record) {
+        return Mono.defer(() -> {
+            Generation generation = current;
+            if (generation == null || generation.closed) {
+                rejectedCounter.increment();
+                return Mono.error(new IllegalStateException(stopping
+                    ? "Kafka publisher closed" : "Kafka publisher restarting"));
+            }
+            Sinks.One<RecordMetadata> result = Sinks.one();
+            generation.pending.add(result);
+            pending.incrementAndGet();
+            Sinks.EmitResult emitted;
+            // La cola admite un solo emisor a la vez
+            synchronized (generation.queue) {
+                emitted = generation.queue.tryEmitNext(SenderRecord.create(record, result));
+            }
+            if (emitted.isSuccess()) {
+                // Encolado justo cuando el pipeline terminaba: nadie lo va a enviar
+                if (generation.closed && forget(generation, result)) {
+                    rejectedCounter.increment();
+                    return Mono.error(new IllegalStateException("Kafka publishing pipeline terminated"));
+                }
+            } else {
+                if (!forget(generation, result)) {
+                    // El cierre del pipeline ya lo hizo fallar
+                    return result.asMono();
+                }
+                rejectedCounter.increment();
+                return Mono.error(new IllegalStateException(emitted == Sinks.EmitResult.FAIL_OVERFLOW
+                    ? "Kafka publisher queue full" : "Kafka publisher closed: " + emitted));
+            }
+            return result.asMono();
+        });
+    }
+
+    private void complete(Generation generation, SenderResult<Sinks.One<RecordMetadata>> result) {
+        Sinks.One<RecordMetadata> sink = result.correlationMetadata();
+        if (!forget(generation, sink)) {
+            return;
+        }
+        if (result.exception() != null) {
+            sink.tryEmitError(result.exception());
+        } else {
+            // Un envío confirmado vuelve a dejar el backoff de reinicio en su mínimo
+            if (restartBackoff != minRestartBackoff) {
+                restartBackoff = minRestartBackoff;
+            }
+            sink.tryEmitValue(result.recordMetadata());
+        }
+    }
+
+    private boolean forget(Generation generation, Sinks.One<RecordMetadata> sink) {
+        if (generation.pending.remove(sink)) {
+            pending.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    // Fin del pipeline, pedido o no: nadie se queda esperando un resultado que ya no llegará
+    private void terminate(Generation generation) {
+        generation.closed = true;
+        IllegalStateException error = new IllegalStateException("Kafka publishing pipeline terminated");
+        for (Sinks.One<RecordMetadata> sink : generation.pending) {
+            if (forget(generation, sink)) {
+                sink.tryEmitError(error);
+            }
+        }
+        generation.terminated.countDown();
+        synchronized (this) {
+            if (!stopping && current == generation) {
+                scheduleRestart(generation.sender);
+            }
+        }
+    }
+
+    private void scheduleRestart(KafkaSender<String, byte[]> failed) {
+        Duration delay = restartBackoff;
+        restartBackoff = restartBackoff.multipliedBy(2).compareTo(maxRestartBackoff) > 0
+            ? maxRestartBackoff : restartBackoff.multipliedBy(2);
+        restartCounter.increment();
+        log.warn("Restarting Kafka publishing pipeline in {}", delay);
+        // close() bloquea hasta cerrar el productor: fuera del hilo del pipeline
+        Mono.delay(delay, Schedulers.boundedElastic())
+            .subscribe(tick -> {
+                synchronized (this) {
+                    // Si se está parando, stopPipeline cierra el productor
+                    if (stopping) {
+                        return;
+                    }
+                    if (failed != null) {
+                        try {
+                            failed.close();
+                        } catch (RuntimeException e) {
+                            log.warn("Could not close failed Kafka sender", e);
+                        }
+                    }
+                    startPipeline();
+                }
+            });
+    }
+
+    private static final class Generation {
+        private final KafkaSender<String, byte[]> sender;
+        private final Sinks.Many<SenderRecord<String, byte[], Sinks.One<RecordMetadata>>> queue;
+        // Encolados o enviados sin confirmación en este pipeline
+        private final Set<Sinks.One<RecordMetadata>> pending = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile boolean closed;
+        private Disposable pipeline;
+
+        private Generation(KafkaSender<String, byte[]> sender, int queueCapacity) {
+            this.sender = sender;
+            this.queue = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.events.kafka;
+
+// Fallo que se repetiría igual en cada intento: el registro va directo al DLT
+public class NonRetryableException extends RuntimeException {
+
+    public NonRetryableException(String message) {
+        super(message);
+    }
+
+    public NonRetryableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.events.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Watermark de offsets por partición: los registros de una partición terminan en cualquier
+ * orden (carriles distintos), pero solo se confirma el prefijo contiguo de offsets terminados.
+ */
+public class OffsetWatermarkTracker {
+
+    private final Map<TopicPartition, PartitionWatermark> partitions = new ConcurrentHashMap<>();
+
+    // Solo se siguen las particiones asignadas: un registro que llega tras revocar su partición
+    // no debe confirmarse, lo procesa el nuevo dueño
+    public boolean register(ReceiverRecord<?, ?> record) {
+        PartitionWatermark watermark = partitions.get(record.receiverOffset().topicPartition());
+        if (watermark == null) {
+            return false;
+        }
+        watermark.register(record.receiverOffset());
+        return true;
+    }
+
+    public void complete(ReceiverRecord<?, ?> record) {
+        PartitionWatermark watermark = partitions.get(record.receiverOffset().topicPartition());
+        if (watermark != null) {
+            watermark.complete(record.offset());
+        }
+    }
+
+    public void assign(Collection<TopicPartition> assigned) {
+        assigned.forEach(partition -> partitions.put(partition, new PartitionWatermark()));
+    }
+
+    // Lo que siga en proceso al revocar lo vuelve a recibir el nuevo dueño; lo que termine después se ignora
+    public void revoke(Collection<TopicPartition> revoked) {
+        revoked.forEach(partitions::remove);
+    }
+
+    // Tras un fallo el consumer se recrea y retoma desde lo confirmado: no queda nada que seguir
+    public void reset() {
+        partitions.clear();
+    }
+
+    public int inFlight() {
+        return partitions.values().stream().mapToInt(PartitionWatermark::pending).sum();
+    }
+
+    private static class PartitionWatermark {
+
+        // Offsets recibidos en orden de llegada y aún no confirmados
+        private final ArrayDeque<ReceiverOffset> pending = new ArrayDeque<>();
+        private final Set<Long> completed = new HashSet<>();
+
+        synchronized void register(ReceiverOffset offset) {
+            pending.addLast(offset);
+        }
+
+        // Se confirma cada offset que el watermark deja atrás, en orden: el offset que se commitea es el
+        // mismo, y reactor-kafka sabe con exactitud cuántos registros quedan sin terminar al rebalancear
+        synchronized void complete(long offset) {
+            // Un offset anterior al pendiente más antiguo no pertenece a esta asignación
+            if (pending.isEmpty() || offset < pending.peekFirst().offset()) {
+                return;
+            }
+            completed.add(offset);
+            while (!pending.isEmpty() && completed.remove(pending.peekFirst().offset())) {
+                pending.pollFirst().acknowledge();
+            }
+        }
+
+        synchronized int pending() {
+            return pending.size();
+        }
+    }
+}
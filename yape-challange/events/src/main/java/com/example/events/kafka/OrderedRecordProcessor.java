@@ -0,0 +1,70 @@
+package com.example.events.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverPartition;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+@Slf4j
+public class OrderedRecordProcessor<K, V> {
+
+    private final int lanes;
+    private final int maxInFlight;
+    private final OffsetWatermarkTracker tracker = new OffsetWatermarkTracker();
+
+    public OrderedRecordProcessor(int lanes, int maxInFlight) {
+        this.lanes = Math.max(1, lanes);
+        this.maxInFlight = Math.max(this.lanes, maxInFlight);
+    }
+
+    // Una misma clave de una misma partición cae siempre en el mismo carril y cada
+    // carril procesa en serie; maxInFlight acota lo recibido pendiente de procesar.
+    // Un error del handler termina el flujo: el watermark de su partición no podría avanzar,
+    // así que quien se suscribe debe volver a suscribirse y el consumer retoma desde lo confirmado
+    public Flux<Void> process(Flux<ReceiverRecord<K, V>> records,
+                              Function<ReceiverRecord<K, V>, Mono<Void>> handler) {
+        return records
+            .filter(this::register)
+            .groupBy(this::laneOf, maxInFlight)
+            .flatMap(lane -> lane.concatMap(record -> handle(record, handler), 0), lanes)
+            .doOnError(error -> tracker.reset());
+    }
+
+    // Se conecta a los listeners de asignación y revocación del receptor que alimenta el procesador
+    public void assign(Collection<ReceiverPartition> partitions) {
+        tracker.assign(partitions.stream().map(ReceiverPartition::topicPartition).toList());
+    }
+
+    // Los registros de particiones revocadas que sigan en proceso ya no se confirman
+    public void revoke(Collection<ReceiverPartition> partitions) {
+        tracker.revoke(partitions.stream().map(ReceiverPartition::topicPartition).toList());
+    }
+
+    public int inFlight() {
+        return tracker.inFlight();
+    }
+
+    private boolean register(ReceiverRecord<K, V> record) {
+        if (tracker.register(record)) {
+            return true;
+        }
+        log.debug("Skipping record of revoked partition: partition={}, offset={}", record.partition(), record.offset());
+        return false;
+    }
+
+    private Mono<Void> handle(ReceiverRecord<K, V> record, Function<ReceiverRecord<K, V>, Mono<Void>> handler) {
+        return Mono.defer(() -> handler.apply(record))
+            .doOnSuccess(v -> tracker.complete(record))
+            .doOnError(error -> log.error("Unhandled error processing record, failing the receiver: partition={}, offset={}, error={}",
+                record.partition(), record.offset(), error.getMessage(), error));
+    }
+
+    private int laneOf(ReceiverRecord<K, V> record) {
+        return Math.floorMod(Objects.hash(record.partition(), record.key()), lanes);
+    }
+}
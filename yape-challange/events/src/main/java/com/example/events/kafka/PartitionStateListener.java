@@ -0,0 +1,13 @@
+package com.example.events.kafka;
+
+import java.util.Collection;
+
+// Componentes con estado por partición que deben reaccionar al rebalanceo del consumidor
+public interface PartitionStateListener {
+
+    default void onPartitionsAssigned(Collection<Integer> partitions) {
+    }
+
+    default void onPartitionsRevoked(Collection<Integer> partitions) {
+    }
+}
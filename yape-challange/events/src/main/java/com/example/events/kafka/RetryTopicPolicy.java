@@ -0,0 +1,184 @@
+package com.example.events.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/*
+ * Reintentos no bloqueantes por tópicos: un registro que falla en <topic> pasa a
+ * <topic>-retry-1 .. <topic>-retry-N, cada uno con su propio retardo, y tras el último
+ * intento a <topic>-dlt. Los metadatos del fallo viajan en cabeceras; el registro conserva
+ * su clave, así el orden por clave se mantiene dentro de cada tópico de reintento.
+ */
+public final class RetryTopicPolicy {
+
+    public static final String ATTEMPT = "x-retry-attempt";
+    public static final String NOT_BEFORE = "x-retry-not-before";
+    public static final String ORIGINAL_TOPIC = "x-original-topic";
+    public static final String ORIGINAL_PARTITION = "x-original-partition";
+    public static final String ORIGINAL_OFFSET = "x-original-offset";
+    public static final String EXCEPTION_CLASS = "x-exception-class";
+    public static final String EXCEPTION_MESSAGE = "x-exception-message";
+    public static final String FAILED_AT = "x-failed-at";
+
+    private static final Set<String> RETRY_HEADERS = Set.of(ATTEMPT, NOT_BEFORE, ORIGINAL_TOPIC,
+        ORIGINAL_PARTITION, ORIGINAL_OFFSET, EXCEPTION_CLASS, EXCEPTION_MESSAGE, FAILED_AT);
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private final List<Duration> backoffs;
+    private final String retrySuffix;
+    private final String deadLetterSuffix;
+
+    public RetryTopicPolicy(List<Duration> backoffs, String retrySuffix, String deadLetterSuffix) {
+        this.backoffs = List.copyOf(backoffs);
+        this.retrySuffix = retrySuffix;
+        this.deadLetterSuffix = deadLetterSuffix;
+    }
+
+    // initial, initial*multiplier, initial*multiplier^2 ... acotado por maxInterval
+    public static RetryTopicPolicy exponential(int attempts, Duration initialInterval, double multiplier,
+                                               Duration maxInterval, String retrySuffix, String deadLetterSuffix) {
+        List<Duration> backoffs = new ArrayList<>(attempts);
+        double millis = initialInterval.toMillis();
+        for (int i = 0; i < attempts; i++) {
+            backoffs.add(Duration.ofMillis((long) Math.min(millis, maxInterval.toMillis())));
+            millis *= multiplier;
+        }
+        return new RetryTopicPolicy(backoffs, retrySuffix, deadLetterSuffix);
+    }
+
+    public int attempts() {
+        return backoffs.size();
+    }
+
+    public List<Duration> backoffs() {
+        return backoffs;
+    }
+
+    public String retryTopic(String sourceTopic, int attempt) {
+        return sourceTopic + retrySuffix + "-" + attempt;
+    }
+
+    public List<String> retryTopics(String sourceTopic) {
+        return IntStream.rangeClosed(1, attempts())
+            .mapToObj(attempt -> retryTopic(sourceTopic, attempt))
+            .toList();
+    }
+
+    public String deadLetterTopic(String sourceTopic) {
+        return sourceTopic + deadLetterSuffix;
+    }
+
+    // Un payload que no se puede decodificar, o un evento que el consumidor marca como inválido,
+    // fallará igual en cada intento
+    public boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SerializationException || cause instanceof NonRetryableException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Siguiente destino de un registro fallido: el próximo tópico de reintento o el DLT
+    public <K, V> ProducerRecord<K, V> nextRecord(ConsumerRecord<K, V> failed, Throwable error, long nowMillis) {
+        int attempt = attempt(failed.headers());
+        String originalTopic = originalTopic(failed);
+        boolean retry = attempt < attempts() && isRetryable(error);
+
+        Headers headers = copyWithoutRetryHeaders(failed.headers());
+        putString(headers, ORIGINAL_TOPIC, originalTopic);
+        putString(headers, ORIGINAL_PARTITION, String.valueOf(originalPartition(failed)));
+        putString(headers, ORIGINAL_OFFSET, String.valueOf(originalOffset(failed)));
+        putString(headers, EXCEPTION_CLASS, rootCause(error).getClass().getName());
+        putString(headers, EXCEPTION_MESSAGE, truncate(String.valueOf(rootCause(error).getMessage())));
+        putString(headers, FAILED_AT, String.valueOf(nowMillis));
+
+        String topic;
+        if (retry) {
+            topic = retryTopic(originalTopic, attempt + 1);
+            putString(headers, ATTEMPT, String.valueOf(attempt + 1));
+            putString(headers, NOT_BEFORE, String.valueOf(nowMillis + backoffs.get(attempt).toMillis()));
+        } else {
+            topic = deadLetterTopic(originalTopic);
+            putString(headers, ATTEMPT, String.valueOf(attempt));
+        }
+        return new ProducerRecord<>(topic, null, failed.key(), failed.value(), headers);
+    }
+
+    // Reinyección desde el DLT al tópico original como si fuera un registro nuevo
+    public <K, V> ProducerRecord<K, V> replayRecord(ConsumerRecord<K, V> deadLetter) {
+        return new ProducerRecord<>(originalTopic(deadLetter), null, deadLetter.key(), deadLetter.value(),
+            copyWithoutRetryHeaders(deadLetter.headers()));
+    }
+
+    public boolean isDeadLetter(ProducerRecord<?, ?> record) {
+        return record.topic().endsWith(deadLetterSuffix);
+    }
+
+    public static int attempt(Headers headers) {
+        String value = stringHeader(headers, ATTEMPT);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+
+    public static long notBefore(Headers headers) {
+        String value = stringHeader(headers, NOT_BEFORE);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    public static String originalTopic(ConsumerRecord<?, ?> record) {
+        String value = stringHeader(record.headers(), ORIGINAL_TOPIC);
+        return value == null ? record.topic() : value;
+    }
+
+    public static int originalPartition(ConsumerRecord<?, ?> record) {
+        String value = stringHeader(record.headers(), ORIGINAL_PARTITION);
+        return value == null ? record.partition() : Integer.parseInt(value);
+    }
+
+    public static long originalOffset(ConsumerRecord<?, ?> record) {
+        String value = stringHeader(record.headers(), ORIGINAL_OFFSET);
+        return value == null ? record.offset() : Long.parseLong(value);
+    }
+
+    public static String stringHeader(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Headers copyWithoutRetryHeaders(Headers source) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : source) {
+            if (!RETRY_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private static void putString(Headers headers, String name, String value) {
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
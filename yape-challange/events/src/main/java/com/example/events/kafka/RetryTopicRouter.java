@@ -0,0 +1,67 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Desvío de los registros fallidos de un consumidor; cada servicio lo registra como bean
+@Slf4j
+public class RetryTopicRouter {
+
+    private final KafkaPublisher kafkaPublisher;
+    private final RetryTopicPolicy policy;
+    private final boolean enabled;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter discardedCounter;
+
+    public RetryTopicRouter(KafkaPublisher kafkaPublisher, RetryTopicPolicy policy, boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this.kafkaPublisher = kafkaPublisher;
+        this.policy = policy;
+        this.enabled = enabled;
+        this.retriedCounter = meterRegistry.counter("kafka.consumer.failures", "destination", "retry");
+        this.deadLetteredCounter = meterRegistry.counter("kafka.consumer.failures", "destination", "dlt");
+        this.discardedCounter = meterRegistry.counter("kafka.consumer.failures", "destination", "discarded");
+        log.info("Consumer retry topics: enabled={}, backoffs={}", enabled, policy.backoffs());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completa cuando el registro quedó a salvo en el siguiente tópico y ya puede confirmarse;
+    // si el envío falla el error se propaga para que el offset no avance
+    public Mono<Void> route(ConsumerRecord<String, byte[]> record, Throwable error) {
+        if (!enabled) {
+            discardedCounter.increment();
+            log.error("Discarding failed record: topic={}, partition={}, offset={}, error={}",
+                record.topic(), record.partition(), record.offset(), error.getMessage());
+            return Mono.empty();
+        }
+
+        ProducerRecord<String, byte[]> next = policy.nextRecord(record, error, System.currentTimeMillis());
+        boolean deadLetter = policy.isDeadLetter(next);
+        return kafkaPublisher.send(next)
+            .doOnSuccess(metadata -> {
+                (deadLetter ? deadLetteredCounter : retriedCounter).increment();
+                log.warn("Failed record routed: key={}, from={}-{}@{}, to={}, attempt={}, error={}",
+                    record.key(), record.topic(), record.partition(), record.offset(), next.topic(),
+                    RetryTopicPolicy.attempt(next.headers()), error.getMessage());
+            })
+            .doOnError(sendError -> log.error("Could not route failed record: topic={}, partition={}, offset={}",
+                record.topic(), record.partition(), record.offset(), sendError))
+            .then();
+    }
+
+    // Espera hasta que venza el retardo del intento; el registro sigue sin confirmar mientras tanto
+    public Mono<Void> awaitDue(ConsumerRecord<String, byte[]> record) {
+        long remaining = RetryTopicPolicy.notBefore(record.headers()) - System.currentTimeMillis();
+        return remaining > 0 ? Mono.delay(Duration.ofMillis(remaining)).then() : Mono.empty();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.events.codec;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 10, 18, 10, 15, 30, 123_456_789);
+
+    private final BinaryTransactionCreatedCodec createdCodec = new BinaryTransactionCreatedCodec();
+    private final BinaryTransactionStatusUpdatedCodec statusCodec = new BinaryTransactionStatusUpdatedCodec();
+
+    @Test
+    void roundTripsTransactionCreated() {
+        TransactionCreatedEvent event = created();
+
+        byte[] data = createdCodec.encode(event);
+
+        assertThat(BinaryEventCodec.isBinary(data)).isTrue();
+        assertThat(createdCodec.decode(data)).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsNonUuidIdsLargeAmountsAndNulls() {
+        TransactionCreatedEvent event = created();
+        event.setAccountExternalIdDebit("account-42");
+        event.setAccountExternalIdCredit(null);
+        event.setTransactionType(new TransactionType("wire"));
+        event.setTransactionStatus(null);
+        event.setValue(new BigDecimal("123456789012345678901234.5678"));
+        event.setEventTimestamp(null);
+
+        assertThat(createdCodec.decode(createdCodec.encode(event))).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsStatusUpdatedWithAndWithoutDictionaryEntries() {
+        TransactionStatusUpdatedEvent known = status("velocity", "status-service");
+        TransactionStatusUpdatedEvent unknown = status("manual-review", "operator-7");
+
+        assertThat(statusCodec.decode(statusCodec.encode(known))).isEqualTo(known);
+        assertThat(statusCodec.decode(statusCodec.encode(unknown))).isEqualTo(unknown);
+    }
+
+    @Test
+    void readsTheKnownPrefixOfANewerVersion() {
+        TransactionCreatedEvent event = created();
+        byte[] data = withTrailingField(createdCodec.encode(event));
+        data[1] = (byte) (BinaryEventCodec.VERSION + 1);
+
+        assertThat(createdCodec.decode(data)).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void rejectsTrailingBytesInTheCurrentVersion() {
+        byte[] data = withTrailingField(createdCodec.encode(created()));
+
+        assertThatThrownBy(() -> createdCodec.decode(data)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsInvalidHeadersAndTruncatedPayloads() {
+        byte[] data = createdCodec.encode(created());
+
+        byte[] versionZero = data.clone();
+        versionZero[1] = 0;
+        assertThatThrownBy(() -> createdCodec.decode(versionZero)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> statusCodec.decode(data.clone())).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> createdCodec.decode(Arrays.copyOf(data, data.length - 4)))
+            .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> createdCodec.decode("{}".getBytes())).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsDateTimesOutOfRange() {
+        BinaryWriter outOfRange = new BinaryWriter();
+        outOfRange.writeByte(BinaryFields.DATE_TIME);
+        outOfRange.writeZigZag(Long.MAX_VALUE);
+        outOfRange.writeVarLong(0);
+        BinaryWriter invalidNanos = new BinaryWriter();
+        invalidNanos.writeByte(BinaryFields.DATE_TIME);
+        invalidNanos.writeZigZag(0);
+        invalidNanos.writeVarLong(1_000_000_000L);
+
+        assertThatThrownBy(() -> new BinaryReader(outOfRange.toByteArray(), 0).readDateTime())
+            .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> new BinaryReader(invalidNanos.toByteArray(), 0).readDateTime())
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void formatDetectingCodecReadsJsonAndBinary() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        EventCodec<TransactionStatusUpdatedEvent> jsonWriter =
+            EventCodecs.transactionStatusUpdated(EventFormat.JSON, objectMapper);
+        EventCodec<TransactionStatusUpdatedEvent> binaryWriter =
+            EventCodecs.transactionStatusUpdated(EventFormat.BINARY, objectMapper);
+        // El JSON serializa las fechas con precisión de segundos
+        TransactionStatusUpdatedEvent event = status("velocity", "status-service");
+        event.setUpdatedAt(TIME.withNano(0));
+        event.setEventTimestamp(TIME.withNano(0));
+
+        assertThat(binaryWriter.decode(jsonWriter.encode(event))).isEqualTo(event);
+        assertThat(jsonWriter.decode(binaryWriter.encode(event))).isEqualTo(event);
+    }
+
+    private static TransactionCreatedEvent created() {
+        return TransactionCreatedEvent.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .transactionType(new TransactionType("1"))
+            .transactionStatus(new TransactionStatus("PENDING"))
+            .value(new BigDecimal("120.5000"))
+            .accountExternalIdDebit(UUID.randomUUID().toString())
+            .accountExternalIdCredit(UUID.randomUUID().toString())
+            .createdAt(TIME)
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(TIME.plusNanos(1))
+            .build();
+    }
+
+    private static TransactionStatusUpdatedEvent status(String reason, String updatedBy) {
+        return TransactionStatusUpdatedEvent.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .oldStatus("PENDING")
+            .newStatus("REJECTED")
+            .reason(reason)
+            .updatedBy(updatedBy)
+            .updatedAt(TIME)
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(TIME)
+            .build();
+    }
+
+    // Un campo que añadiría una versión posterior: un string al final del payload
+    private static byte[] withTrailingField(byte[] data) {
+        byte[] extended = Arrays.copyOf(data, data.length + 3);
+        extended[data.length] = 2;
+        extended[data.length + 1] = 'o';
+        extended[data.length + 2] = 'k';
+        return extended;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.events.dedupe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDeduplicatorTest {
+
+    private static final Duration RETENTION = Duration.ofMinutes(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private EventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        // Presupuesto de 6 eventIds: 3 por cada una de las dos particiones
+        deduplicator = new EventDeduplicator(6, RETENTION, clock::get);
+        deduplicator.onPartitionsAssigned(List.of(0, 1));
+    }
+
+    @Test
+    void onlyRecordedEventsAreDuplicates() {
+        assertThat(deduplicator.isDuplicate(0, "a")).isFalse();
+
+        deduplicator.record(0, "a");
+
+        assertThat(deduplicator.isDuplicate(0, "a")).isTrue();
+        assertThat(deduplicator.isDuplicate(1, "a")).isFalse();
+        assertThat(deduplicator.isDuplicate(0, null)).isFalse();
+    }
+
+    @Test
+    void lookupsDoNotCreatePartitionState() {
+        deduplicator.record(0, "a");
+        deduplicator.onPartitionsRevoked(List.of(0));
+
+        // Un registro tardío de la partición revocada se compara con el estado retenido
+        assertThat(deduplicator.isDuplicate(0, "a")).isTrue();
+        assertThat(deduplicator.isDuplicate(5, "a")).isFalse();
+        assertThat(deduplicator.trackedPartitions()).isEqualTo(1);
+        assertThat(deduplicator.retainedPartitions()).isEqualTo(1);
+
+        deduplicator.record(0, "b");
+        assertThat(deduplicator.trackedPartitions()).isEqualTo(1);
+        deduplicator.onPartitionsAssigned(List.of(0));
+        assertThat(deduplicator.isDuplicate(0, "b")).isTrue();
+    }
+
+    @Test
+    void remembersOnlyTheLastCapacityEvents() {
+        List.of("a", "b", "c", "d").forEach(eventId -> deduplicator.record(0, eventId));
+
+        assertThat(deduplicator.isDuplicate(0, "a")).isFalse();
+        assertThat(deduplicator.isDuplicate(0, "d")).isTrue();
+        assertThat(deduplicator.trackedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    void theBudgetIsSplitAcrossTheAssignedPartitions() {
+        List.of("a", "b", "c").forEach(eventId -> deduplicator.record(0, eventId));
+
+        // Cuatro particiones: 1 eventId cada una; la 0 conserva el más reciente
+        deduplicator.onPartitionsAssigned(List.of(2, 3));
+        assertThat(deduplicator.partitionCapacity()).isEqualTo(1);
+        assertThat(deduplicator.isDuplicate(0, "b")).isFalse();
+        assertThat(deduplicator.isDuplicate(0, "c")).isTrue();
+
+        // Se van tres: la que queda vuelve a disponer de todo el presupuesto
+        deduplicator.onPartitionsRevoked(List.of(1, 2, 3));
+        assertThat(deduplicator.partitionCapacity()).isEqualTo(6);
+        List.of("d", "e", "f", "g", "h").forEach(eventId -> deduplicator.record(0, eventId));
+        assertThat(deduplicator.isDuplicate(0, "c")).isTrue();
+        assertThat(deduplicator.trackedEvents()).isEqualTo(6);
+    }
+
+    @Test
+    void keepsStateOfPartitionsThatComeBack() {
+        deduplicator.record(0, "a");
+        deduplicator.record(1, "b");
+
+        deduplicator.onPartitionsRevoked(List.of(0, 1));
+        deduplicator.onPartitionsAssigned(List.of(0));
+
+        assertThat(deduplicator.isDuplicate(0, "a")).isTrue();
+        assertThat(deduplicator.trackedPartitions()).isEqualTo(1);
+
+        deduplicator.onPartitionsAssigned(List.of(1));
+        assertThat(deduplicator.isDuplicate(1, "b")).isTrue();
+    }
+
+    @Test
+    void receiversSharingTheInstanceKeepEachOthersPartitions() {
+        deduplicator.onPartitionsAssigned(List.of(2, 3));
+        deduplicator.record(1, "b");
+        deduplicator.record(3, "d");
+
+        // Dos receptores revocan sus particiones; el primero en reasignarse no borra las del otro
+        deduplicator.onPartitionsRevoked(List.of(0, 1));
+        deduplicator.onPartitionsRevoked(List.of(2, 3));
+        deduplicator.onPartitionsAssigned(List.of(0, 2));
+        deduplicator.onPartitionsAssigned(List.of(1, 3));
+
+        assertThat(deduplicator.isDuplicate(1, "b")).isTrue();
+        assertThat(deduplicator.isDuplicate(3, "d")).isTrue();
+        assertThat(deduplicator.retainedPartitions()).isZero();
+    }
+
+    @Test
+    void dropsRevokedStateNobodyReclaimsWithinTheRetention() {
+        deduplicator.record(1, "b");
+        deduplicator.onPartitionsRevoked(List.of(0, 1));
+        deduplicator.onPartitionsAssigned(List.of(0));
+        assertThat(deduplicator.retainedPartitions()).isEqualTo(1);
+
+        clock.addAndGet(RETENTION.toNanos());
+        deduplicator.onPartitionsAssigned(List.of(0));
+
+        assertThat(deduplicator.retainedPartitions()).isZero();
+        deduplicator.onPartitionsAssigned(List.of(1));
+        assertThat(deduplicator.isDuplicate(1, "b")).isFalse();
+    }
+}
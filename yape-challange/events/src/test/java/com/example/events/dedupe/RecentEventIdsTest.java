@@ -0,0 +1,112 @@
+package com.example.events.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentEventIdsTest {
+
+    @Test
+    void remembersAddedEventIds() {
+        RecentEventIds ids = new RecentEventIds(10);
+
+        assertThat(ids.add("a")).isTrue();
+        assertThat(ids.add("a")).isFalse();
+
+        assertThat(ids.contains("a")).isTrue();
+        assertThat(ids.contains("b")).isFalse();
+        assertThat(ids.size()).isEqualTo(1);
+    }
+
+    @Test
+    void theOldestEventIdsLeaveOnceFull() {
+        RecentEventIds ids = new RecentEventIds(3);
+        for (String eventId : new String[] {"a", "b", "c", "d", "e"}) {
+            ids.add(eventId);
+        }
+
+        assertThat(ids.contains("a")).isFalse();
+        assertThat(ids.contains("b")).isFalse();
+        assertThat(ids.contains("c")).isTrue();
+        assertThat(ids.contains("e")).isTrue();
+        assertThat(ids.size()).isEqualTo(3);
+    }
+
+    @Test
+    void growsAndEvictsWithoutLosingEntries() {
+        int capacity = 5_000;
+        RecentEventIds ids = new RecentEventIds(capacity);
+        String[] eventIds = new String[3 * capacity];
+        for (int i = 0; i < eventIds.length; i++) {
+            eventIds[i] = UUID.randomUUID().toString();
+            assertThat(ids.add(eventIds[i])).isTrue();
+        }
+
+        assertThat(ids.size()).isEqualTo(capacity);
+        for (int i = 0; i < eventIds.length; i++) {
+            assertThat(ids.contains(eventIds[i])).isEqualTo(i >= eventIds.length - capacity);
+        }
+    }
+
+    @Test
+    void resizingKeepsTheMostRecentEventIds() {
+        RecentEventIds ids = new RecentEventIds(4);
+        for (String eventId : new String[] {"a", "b", "c", "d", "e", "f"}) {
+            ids.add(eventId);
+        }
+
+        // Anillo lleno y dado la vuelta: quedan c, d, e, f
+        ids.resize(2);
+        assertThat(ids.size()).isEqualTo(2);
+        assertThat(ids.contains("d")).isFalse();
+        assertThat(ids.contains("e")).isTrue();
+        assertThat(ids.contains("f")).isTrue();
+
+        ids.resize(3);
+        ids.add("g");
+        ids.add("h");
+        assertThat(ids.size()).isEqualTo(3);
+        assertThat(ids.contains("e")).isFalse();
+        assertThat(ids.contains("f")).isTrue();
+        assertThat(ids.contains("h")).isTrue();
+    }
+
+    @Test
+    void resizingMatchesAFreshWindowOfTheNewCapacity() {
+        Random random = new Random(7);
+        RecentEventIds ids = new RecentEventIds(1 + random.nextInt(3_000));
+        Deque<String> expected = new ArrayDeque<>();
+        for (int round = 0; round < 50; round++) {
+            int added = random.nextInt(5_000);
+            for (int i = 0; i < added; i++) {
+                String eventId = UUID.randomUUID().toString();
+                ids.add(eventId);
+                expected.addLast(eventId);
+                if (expected.size() > ids.capacity()) {
+                    expected.removeFirst();
+                }
+            }
+            int capacity = 1 + random.nextInt(3_000);
+            ids.resize(capacity);
+            while (expected.size() > capacity) {
+                expected.removeFirst();
+            }
+
+            assertThat(ids.size()).isEqualTo(expected.size());
+            expected.forEach(eventId -> assertThat(ids.contains(eventId)).isTrue());
+        }
+    }
+
+    @Test
+    void bothHalvesOfTheHashDependOnEveryCharacter() {
+        assertThat(RecentEventIds.hashHigh("ab")).isNotEqualTo(RecentEventIds.hashHigh("ba"));
+        assertThat(RecentEventIds.hashLow("ab")).isNotEqualTo(RecentEventIds.hashLow("ba"));
+        assertThat(RecentEventIds.hashHigh("")).isNotEqualTo(RecentEventIds.hashHigh("\0"));
+        assertThat(RecentEventIds.hashLow("")).isNotEqualTo(RecentEventIds.hashLow("\0"));
+    }
+}
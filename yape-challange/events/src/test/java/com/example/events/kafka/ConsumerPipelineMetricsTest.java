@@ -0,0 +1,38 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerPipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConsumerPipelineMetrics metrics = new ConsumerPipelineMetrics("orders", Duration.ofSeconds(10), meterRegistry);
+
+    @Test
+    void inFlightSumsEveryReceiver() {
+        metrics.trackInFlight("orders-0", () -> 3);
+        metrics.trackInFlight("orders-1", () -> 4);
+
+        assertThat(inFlight()).isEqualTo(7);
+    }
+
+    @Test
+    void resubscribedReceiverReplacesItsPreviousCount() {
+        AtomicInteger abandoned = new AtomicInteger(5);
+        metrics.trackInFlight("orders-0", abandoned::get);
+
+        metrics.trackInFlight("orders-0", () -> 1);
+        abandoned.addAndGet(-2);
+
+        assertThat(inFlight()).isEqualTo(1);
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("kafka.consumer.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DeadLetterReplayServiceTest {
+
+    private static final long IDLE_TIMEOUT = 5_000;
+
+    private final DeadLetterReplayService.IdleTracker idle = new DeadLetterReplayService.IdleTracker(IDLE_TIMEOUT);
+
+    @Test
+    void joiningTheGroupIsNotIdleTime() {
+        idle.waiting(0);
+
+        assertThat(idle.isIdle(60_000)).isFalse();
+
+        idle.assigned(60_000);
+        assertThat(idle.isIdle(60_000 + IDLE_TIMEOUT - 1)).isFalse();
+        assertThat(idle.isIdle(60_000 + IDLE_TIMEOUT)).isTrue();
+    }
+
+    @Test
+    void replayingARecordIsNotIdleTime() {
+        idle.waiting(0);
+        idle.assigned(0);
+        idle.received();
+
+        assertThat(idle.isIdle(60_000)).isFalse();
+
+        idle.waiting(60_000);
+        assertThat(idle.isIdle(60_000 + IDLE_TIMEOUT - 1)).isFalse();
+        assertThat(idle.isIdle(60_000 + IDLE_TIMEOUT)).isTrue();
+    }
+
+    @Test
+    void invalidParametersAreRejectedBeforeStarting() {
+        DeadLetterReplayService service = new DeadLetterReplayService(ReceiverOptions.create(), mock(KafkaPublisher.class),
+            new RetryTopicPolicy(List.of(Duration.ofSeconds(1)), ".retry", ".dlt"), "transactions",
+            DeadLetterReplayService.Settings.builder()
+                .defaultRatePerSecond(10)
+                .maxRatePerSecond(100)
+                .idleTimeout(Duration.ofSeconds(5))
+                .build(),
+            new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> service.start(null, 101)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(0, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.status()).isEmpty();
+    }
+}
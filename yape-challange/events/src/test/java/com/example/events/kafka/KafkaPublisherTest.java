@@ -0,0 +1,153 @@
+package com.example.events.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaPublisherTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(10);
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProducerRecord<String, byte[]> record = new ProducerRecord<>("transactions", "key", new byte[0]);
+
+    @Test
+    void deliversEachCallerItsOwnMetadata() {
+        KafkaPublisher publisher = publisher(4, sender(KafkaPublisherTest::acknowledge));
+        publisher.startPipeline();
+
+        StepVerifier.create(publisher.send(record))
+            .assertNext(metadata -> assertThat(metadata.topic()).isEqualTo("transactions"))
+            .verifyComplete();
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        // Un productor suscrito que no pide registros: la cola se llena
+        KafkaPublisher publisher = publisher(2, sender(records -> {
+            records.subscribe(new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                }
+            });
+            return Flux.never();
+        }));
+        publisher.startPipeline();
+        publisher.send(record).subscribe();
+        publisher.send(record).subscribe();
+
+        StepVerifier.create(publisher.send(record))
+            .expectErrorMessage("Kafka publisher queue full")
+            .verify(WAIT);
+        assertThat(pending()).isEqualTo(2);
+        assertThat(meterRegistry.get("kafka.publisher.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOnceStopped() throws InterruptedException {
+        KafkaSender<String, byte[]> sender = sender(KafkaPublisherTest::acknowledge);
+        KafkaPublisher publisher = publisher(4, sender);
+        publisher.startPipeline();
+
+        publisher.stopPipeline();
+
+        StepVerifier.create(publisher.send(record))
+            .expectErrorMessage("Kafka publisher closed")
+            .verify(WAIT);
+        verify(sender).close();
+    }
+
+    @Test
+    void failsPendingSendsWhenTheSenderFailsTerminallyAndRestarts() {
+        Sinks.Empty<Void> fatal = Sinks.empty();
+        // Retiene los registros sin confirmarlos hasta que el productor cae
+        KafkaSender<String, byte[]> failing = sender(records -> records
+            .flatMap(sent -> Mono.<SenderResult<Sinks.One<RecordMetadata>>>never())
+            .mergeWith(fatal.asMono().then(Mono.empty())));
+        KafkaSender<String, byte[]> healthy = sender(KafkaPublisherTest::acknowledge);
+        KafkaPublisher publisher = publisher(4, failing, healthy);
+        publisher.startPipeline();
+
+        StepVerifier.create(Flux.merge(publisher.send(record), publisher.send(record)))
+            .then(() -> fatal.tryEmitError(new KafkaException("Producer fenced")))
+            .expectErrorMessage("Kafka publishing pipeline terminated")
+            .verify(WAIT);
+        assertThat(pending()).isZero();
+
+        StepVerifier.create(publisher.send(record).retryWhen(Retry.fixedDelay(100, BACKOFF)))
+            .expectNextCount(1)
+            .verifyComplete();
+        verify(failing).close();
+        assertThat(meterRegistry.get("kafka.publisher.restarts").counter().count()).isEqualTo(1);
+    }
+
+    @SafeVarargs
+    private KafkaPublisher publisher(int queueCapacity, KafkaSender<String, byte[]>... senders) {
+        ArrayDeque<KafkaSender<String, byte[]>> next = new ArrayDeque<>(List.of(senders));
+        return new KafkaPublisher(next::poll, queueCapacity, meterRegistry, BACKOFF, BACKOFF);
+    }
+
+    private double pending() {
+        return meterRegistry.get("kafka.publisher.pending").gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaSender<String, byte[]> sender(
+            Function<Flux<SenderRecord<String, byte[], Sinks.One<RecordMetadata>>>,
+                     Flux<SenderResult<Sinks.One<RecordMetadata>>>> behaviour) {
+        KafkaSender<String, byte[]> sender = mock(KafkaSender.class);
+        when(sender.send(any())).thenAnswer(invocation -> behaviour.apply(Flux.from(invocation.getArgument(0))));
+        return sender;
+    }
+
+    private static Flux<SenderResult<Sinks.One<RecordMetadata>>> acknowledge(
+            Flux<SenderRecord<String, byte[], Sinks.One<RecordMetadata>>> records) {
+        return records.map(sent -> result(sent.correlationMetadata(),
+            new RecordMetadata(new TopicPartition(sent.topic(), 0), 0, 0, 0L, 0, 0)));
+    }
+
+    private static <T> SenderResult<T> result(T correlation, RecordMetadata metadata) {
+        return new SenderResult<>() {
+            @Override
+            public RecordMetadata recordMetadata() {
+                return metadata;
+            }
+
+            @Override
+            public Exception exception() {
+                return null;
+            }
+
+            @Override
+            public T correlationMetadata() {
+                return correlation;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.events.kafka;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffsetWatermarkTrackerTest {
+
+    private TestRecords records;
+    private OffsetWatermarkTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        records = new TestRecords();
+        tracker = new OffsetWatermarkTracker();
+        tracker.assign(TestRecords.topicPartitions(0, 1));
+    }
+
+    @Test
+    void acknowledgesOnlyTheContiguousPrefix() {
+        ReceiverRecord<String, String> first = register(0, 10);
+        ReceiverRecord<String, String> second = register(0, 11);
+        ReceiverRecord<String, String> third = register(0, 12);
+
+        tracker.complete(third);
+        tracker.complete(second);
+        assertThat(records.acknowledged(0)).isEmpty();
+        assertThat(tracker.inFlight()).isEqualTo(3);
+
+        tracker.complete(first);
+        assertThat(records.acknowledged(0)).containsExactly(10L, 11L, 12L);
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void partitionsAdvanceIndependently() {
+        ReceiverRecord<String, String> blocked = register(0, 1);
+        ReceiverRecord<String, String> done = register(0, 2);
+        ReceiverRecord<String, String> other = register(1, 7);
+
+        tracker.complete(done);
+        tracker.complete(other);
+
+        assertThat(records.acknowledged(0)).isEmpty();
+        assertThat(records.acknowledged(1)).containsExactly(7L);
+
+        tracker.complete(blocked);
+        assertThat(records.acknowledged(0)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void ignoresRecordsOfUnassignedPartitions() {
+        assertThat(tracker.register(records.record(5, 1, "k"))).isFalse();
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void dropsStateOnRevokeAndIgnoresLateCompletions() {
+        ReceiverRecord<String, String> inFlight = register(0, 3);
+        register(0, 4);
+
+        tracker.revoke(TestRecords.topicPartitions(0));
+        tracker.complete(inFlight);
+
+        assertThat(records.acknowledged(0)).isEmpty();
+        assertThat(tracker.inFlight()).isZero();
+        assertThat(tracker.register(records.record(0, 5, "k"))).isFalse();
+    }
+
+    @Test
+    void ignoresCompletionsFromAPreviousAssignment() {
+        ReceiverRecord<String, String> stale = register(0, 3);
+        tracker.assign(TestRecords.topicPartitions(0));
+        ReceiverRecord<String, String> current = register(0, 8);
+
+        tracker.complete(stale);
+        tracker.complete(current);
+
+        assertThat(records.acknowledged(0)).containsExactly(8L);
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void resetForgetsEveryPartition() {
+        register(0, 1);
+        register(1, 1);
+
+        tracker.reset();
+
+        assertThat(tracker.inFlight()).isZero();
+        assertThat(tracker.register(records.record(0, 2, "k"))).isFalse();
+    }
+
+    private ReceiverRecord<String, String> register(int partition, long offset) {
+        ReceiverRecord<String, String> record = records.record(partition, offset, "k" + offset);
+        assertThat(tracker.register(record)).isTrue();
+        return record;
+    }
+}
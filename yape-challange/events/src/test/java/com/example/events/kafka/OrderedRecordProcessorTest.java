@@ -0,0 +1,106 @@
+package com.example.events.kafka;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderedRecordProcessorTest {
+
+    private TestRecords records;
+    private OrderedRecordProcessor<String, String> processor;
+
+    @BeforeEach
+    void setUp() {
+        records = new TestRecords();
+        processor = new OrderedRecordProcessor<>(4, 64);
+        processor.assign(TestRecords.receiverPartitions(0, 1));
+    }
+
+    @Test
+    void keepsOrderPerPartitionAndKeyAndAcknowledgesEveryOffset() {
+        List<ReceiverRecord<String, String>> input = new ArrayList<>();
+        for (long offset = 0; offset < 200; offset++) {
+            input.add(records.record((int) (offset % 2), offset, "key-" + (offset % 7)));
+        }
+        Map<String, Queue<Long>> processed = new ConcurrentHashMap<>();
+
+        StepVerifier.create(processor.process(Flux.fromIterable(input), record -> Mono
+                .delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(3)), Schedulers.parallel())
+                .doOnNext(tick -> processed
+                    .computeIfAbsent(record.partition() + "/" + record.key(), key -> new ConcurrentLinkedQueue<>())
+                    .add(record.offset()))
+                .then()))
+            .verifyComplete();
+
+        processed.values().forEach(offsets -> assertThat(List.copyOf(offsets)).isSorted());
+        assertThat(processed.values().stream().mapToInt(Queue::size).sum()).isEqualTo(200);
+        assertThat(records.acknowledged(0)).isSorted().hasSize(100);
+        assertThat(records.acknowledged(1)).isSorted().hasSize(100);
+        assertThat(processor.inFlight()).isZero();
+    }
+
+    @Test
+    void runsDifferentKeysConcurrently() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ReceiverRecord<String, String>> input = new ArrayList<>();
+        for (long offset = 0; offset < 16; offset++) {
+            input.add(records.record(0, offset, "key-" + offset));
+        }
+
+        StepVerifier.create(processor.process(Flux.fromIterable(input), record -> Mono
+                .fromRunnable(() -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+                .then(Mono.delay(Duration.ofMillis(20)))
+                .doOnNext(tick -> running.decrementAndGet())
+                .then()))
+            .verifyComplete();
+
+        assertThat(maxRunning.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void failsTheFluxWhenAHandlerErrorsAndKeepsItsOffsetUnacknowledged() {
+        Flux<ReceiverRecord<String, String>> input = Flux.just(
+            records.record(0, 0, "a"), records.record(0, 1, "b"), records.record(0, 2, "a"));
+
+        StepVerifier.create(processor.process(input, record -> record.offset() == 1
+                ? Mono.error(new IllegalStateException("boom"))
+                : Mono.empty()))
+            .verifyErrorMessage("boom");
+
+        assertThat(records.acknowledged(0)).doesNotContain(1L, 2L);
+        assertThat(processor.inFlight()).isZero();
+    }
+
+    @Test
+    void skipsRecordsOfRevokedPartitions() {
+        processor.revoke(TestRecords.receiverPartitions(1));
+        List<Long> handled = new ArrayList<>();
+
+        StepVerifier.create(processor.process(
+                Flux.just(records.record(0, 0, "a"), records.record(1, 0, "a"), records.record(0, 1, "a")),
+                record -> Mono.fromRunnable(() -> handled.add(record.offset() * 10 + record.partition()))))
+            .verifyComplete();
+
+        assertThat(handled).containsExactly(0L, 10L);
+        assertThat(records.acknowledged(1)).isEmpty();
+        // Lo descartado nunca entró en la cuenta de registros en vuelo
+        assertThat(processor.inFlight()).isZero();
+    }
+}
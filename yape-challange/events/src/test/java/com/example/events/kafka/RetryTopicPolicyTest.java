@@ -0,0 +1,87 @@
+package com.example.events.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryTopicPolicyTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private final RetryTopicPolicy policy = RetryTopicPolicy.exponential(3, Duration.ofSeconds(1), 5.0,
+        Duration.ofSeconds(10), "-retry", "-dlt");
+
+    @Test
+    void backoffsGrowExponentiallyUpToTheMaximum() {
+        assertThat(policy.backoffs()).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(10));
+        assertThat(policy.retryTopics("orders")).containsExactly("orders-retry-1", "orders-retry-2", "orders-retry-3");
+    }
+
+    @Test
+    void decodingAndNonRetryableFailuresAreNotRetried() {
+        assertThat(policy.isRetryable(new IllegalStateException("db down"))).isTrue();
+        assertThat(policy.isRetryable(new SerializationException("corrupt"))).isFalse();
+        assertThat(policy.isRetryable(new NonRetryableException("unknown status"))).isFalse();
+        assertThat(policy.isRetryable(new RuntimeException("wrapped", new NonRetryableException("invalid id")))).isFalse();
+    }
+
+    @Test
+    void failedRecordMovesThroughTheRetryTopicsAndEndsInTheDeadLetterTopic() {
+        ConsumerRecord<String, String> failed = new ConsumerRecord<>("orders", 2, 40L, "key", "value");
+
+        ProducerRecord<String, String> first = policy.nextRecord(failed, new IllegalStateException("boom"), NOW);
+        assertThat(first.topic()).isEqualTo("orders-retry-1");
+        assertThat(first.key()).isEqualTo("key");
+        assertThat(RetryTopicPolicy.attempt(first.headers())).isEqualTo(1);
+        assertThat(RetryTopicPolicy.notBefore(first.headers())).isEqualTo(NOW + 1_000);
+
+        ProducerRecord<String, String> last = first;
+        for (int attempt = 2; attempt <= 4; attempt++) {
+            last = policy.nextRecord(redelivered(last), new IllegalStateException("boom"), NOW);
+        }
+        assertThat(last.topic()).isEqualTo("orders-dlt");
+        assertThat(policy.isDeadLetter(last)).isTrue();
+        assertThat(RetryTopicPolicy.attempt(last.headers())).isEqualTo(3);
+
+        ConsumerRecord<String, String> deadLetter = redelivered(last);
+        assertThat(RetryTopicPolicy.originalTopic(deadLetter)).isEqualTo("orders");
+        assertThat(RetryTopicPolicy.originalPartition(deadLetter)).isEqualTo(2);
+        assertThat(RetryTopicPolicy.originalOffset(deadLetter)).isEqualTo(40L);
+    }
+
+    @Test
+    void nonRetryableFailureGoesStraightToTheDeadLetterTopic() {
+        ConsumerRecord<String, String> failed = new ConsumerRecord<>("orders", 0, 7L, "key", "value");
+
+        ProducerRecord<String, String> next = policy.nextRecord(failed, new NonRetryableException("invalid id"), NOW);
+
+        assertThat(next.topic()).isEqualTo("orders-dlt");
+        assertThat(RetryTopicPolicy.stringHeader(next.headers(), RetryTopicPolicy.EXCEPTION_CLASS))
+            .isEqualTo(NonRetryableException.class.getName());
+    }
+
+    @Test
+    void replayRestoresTheOriginalTopicWithoutRetryHeaders() {
+        ConsumerRecord<String, String> failed = new ConsumerRecord<>("orders", 0, 7L, "key", "value");
+        failed.headers().add("trace", new byte[] {1});
+        ConsumerRecord<String, String> deadLetter = redelivered(
+            policy.nextRecord(failed, new SerializationException("corrupt"), NOW));
+
+        ProducerRecord<String, String> replay = policy.replayRecord(deadLetter);
+
+        assertThat(replay.topic()).isEqualTo("orders");
+        assertThat(RetryTopicPolicy.attempt(replay.headers())).isZero();
+        assertThat(replay.headers().lastHeader("trace")).isNotNull();
+    }
+
+    private static ConsumerRecord<String, String> redelivered(ProducerRecord<String, String> sent) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(sent.topic(), 0, 0L, sent.key(), sent.value());
+        sent.headers().forEach(header -> record.headers().add(header));
+        return record;
+    }
+}
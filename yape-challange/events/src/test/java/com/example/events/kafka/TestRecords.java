@@ -0,0 +1,95 @@
+package com.example.events.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverPartition;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Registros recibidos en memoria: cada acknowledge queda anotado en orden
+class TestRecords {
+
+    static final String TOPIC = "topic";
+
+    private final Queue<Map.Entry<Integer, Long>> acknowledged = new ConcurrentLinkedQueue<>();
+
+    ReceiverRecord<String, String> record(int partition, long offset, String key) {
+        TopicPartition topicPartition = new TopicPartition(TOPIC, partition);
+        ReceiverOffset receiverOffset = new ReceiverOffset() {
+            @Override
+            public TopicPartition topicPartition() {
+                return topicPartition;
+            }
+
+            @Override
+            public long offset() {
+                return offset;
+            }
+
+            @Override
+            public void acknowledge() {
+                acknowledged.add(Map.entry(partition, offset));
+            }
+
+            @Override
+            public Mono<Void> commit() {
+                acknowledge();
+                return Mono.empty();
+            }
+        };
+        return new ReceiverRecord<>(new ConsumerRecord<>(TOPIC, partition, offset, key, key + "@" + offset),
+            receiverOffset);
+    }
+
+    List<Long> acknowledged(int partition) {
+        return acknowledged.stream()
+            .filter(ack -> ack.getKey() == partition)
+            .map(Map.Entry::getValue)
+            .toList();
+    }
+
+    static List<TopicPartition> topicPartitions(int... partitions) {
+        return Arrays.stream(partitions).mapToObj(partition -> new TopicPartition(TOPIC, partition)).toList();
+    }
+
+    static List<ReceiverPartition> receiverPartitions(int... partitions) {
+        return topicPartitions(partitions).stream().map(TestRecords::receiverPartition).toList();
+    }
+
+    private static ReceiverPartition receiverPartition(TopicPartition topicPartition) {
+        return new ReceiverPartition() {
+            @Override
+            public TopicPartition topicPartition() {
+                return topicPartition;
+            }
+
+            @Override
+            public void seekToBeginning() {
+            }
+
+            @Override
+            public void seekToEnd() {
+            }
+
+            @Override
+            public void seek(long offset) {
+            }
+
+            @Override
+            public void seekToTimestamp(long timestamp) {
+            }
+
+            @Override
+            public long position() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loadharness;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Lag por grupo de consumo: offset final del tópico menos el offset confirmado por el grupo
+@Slf4j
+class ConsumerLagMonitor implements AutoCloseable {
+
+    private final AdminClient adminClient;
+    private final Map<String, String> topicByGroup;
+    private final int partitions;
+    private final Map<String, Long> maxLag = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastLag = new ConcurrentHashMap<>();
+
+    ConsumerLagMonitor(String bootstrapServers, Map<String, String> topicByGroup, int partitions) {
+        this.adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        this.topicByGroup = topicByGroup;
+        this.partitions = partitions;
+    }
+
+    void sample() {
+        topicByGroup.forEach((group, topic) -> {
+            try {
+                long lag = lag(group, topic);
+                lastLag.put(group, lag);
+                maxLag.merge(group, lag, Math::max);
+            } catch (Exception e) {
+                log.debug("Could not sample lag of {}: {}", group, e.getMessage());
+            }
+        });
+    }
+
+    Map<String, Long> lastLag() {
+        return new TreeMap<>(lastLag);
+    }
+
+    Map<String, LoadReport.Lag> summary() {
+        Map<String, LoadReport.Lag> summary = new LinkedHashMap<>();
+        topicByGroup.forEach((group, topic) -> summary.put(group, LoadReport.Lag.builder()
+            .topic(topic)
+            .max(maxLag.getOrDefault(group, 0L))
+            .last(lastLag.getOrDefault(group, 0L))
+            .build()));
+        return summary;
+    }
+
+    private long lag(String group, String topic) throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(group)
+            .partitionsToOffsetAndMetadata().get(5, TimeUnit.SECONDS);
+        Map<TopicPartition, OffsetSpec> latest = IntStream.range(0, partitions)
+            .mapToObj(partition -> new TopicPartition(topic, partition))
+            .collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+            .all().get(5, TimeUnit.SECONDS);
+
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            lag += entry.getValue().offset() - (offset == null ? 0 : offset.offset());
+        }
+        return lag;
+    }
+
+    @Override
+    public void close() {
+        adminClient.close();
+    }
+}
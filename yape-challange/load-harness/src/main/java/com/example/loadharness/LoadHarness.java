@@ -0,0 +1,225 @@
+package com.example.loadharness;
+
+import com.example.statusservice.StatusServiceApplication;
+import com.example.transactionservice.TransactionServiceApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Prueba de carga extremo a extremo en una sola JVM: Kafka KRaft y PostgreSQL embebidos,
+ * status-service y transaction-service arrancados con su configuración real, y un generador
+ * en lazo abierto que mide desde el POST hasta ver la decisión en GET /{id}.
+ *
+ *   mvn -pl load-harness -am install -DskipTests
+ *   mvn -pl load-harness exec:java -Dexec.args="--rate 500 --warmup 10s --duration 60s --max-p99 500"
+ *
+ * El informe JSON queda en --report y el proceso termina con código 1 si hubo fallos,
+ * timeouts o si el p99 supera --max-p99.
+ */
+@Slf4j
+public class LoadHarness {
+
+    private static final String TRANSACTION_CREATION_TOPIC = "transaction-creation-topic";
+    private static final String ANTI_FRAUD_VALIDATION_TOPIC = "anti-fraud-validation-topic";
+    private static final List<String> R2DBC_AUTO_CONFIGURATIONS = List.of(
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.r2dbc.ConnectionFactoryHealthContributorAutoConfiguration");
+
+    public static void main(String[] args) throws Exception {
+        LoadHarnessOptions options = LoadHarnessOptions.parse(args);
+        int exitCode;
+        try (Environment environment = Environment.start(options)) {
+            LoadReport report = run(options, environment);
+            write(report, options.getReport());
+            print(report, options.getReport());
+            exitCode = report.isPassed() ? 0 : 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static LoadReport run(LoadHarnessOptions options, Environment environment) throws InterruptedException {
+        OpenLoopDriver driver = new OpenLoopDriver(options, environment.port);
+        Map<String, String> topicByGroup = new LinkedHashMap<>();
+        topicByGroup.put("status-service-group", TRANSACTION_CREATION_TOPIC);
+        topicByGroup.put("transaction-service-group", ANTI_FRAUD_VALIDATION_TOPIC);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try (ConsumerLagMonitor lagMonitor = new ConsumerLagMonitor(
+                environment.kafka.getBrokersAsString(), topicByGroup, options.getPartitions())) {
+            long started = System.nanoTime();
+            sampler.scheduleAtFixedRate(() -> {
+                lagMonitor.sample();
+                System.out.printf("[%3ds] sent=%d completed=%d failed=%d timedOut=%d inFlight=%d lag=%s%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), driver.sent(), driver.completed(),
+                    driver.failed(), driver.timedOut(), driver.inFlight(), lagMonitor.lastLag());
+            }, 1, 1, TimeUnit.SECONDS);
+
+            driver.run();
+            sampler.shutdown();
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+            lagMonitor.sample();
+            return report(options, driver, lagMonitor);
+        } finally {
+            sampler.shutdownNow();
+            driver.close();
+        }
+    }
+
+    private static LoadReport report(LoadHarnessOptions options, OpenLoopDriver driver, ConsumerLagMonitor lagMonitor) {
+        LoadReport.Latency decision = LoadReport.Latency.of(driver.decisionLatency());
+        List<String> failures = new ArrayList<>();
+        if (driver.failed() > 0) {
+            failures.add(driver.failed() + " requests failed");
+        }
+        if (driver.timedOut() > 0) {
+            failures.add(driver.timedOut() + " requests timed out");
+        }
+        if (driver.completed() == 0) {
+            failures.add("no request completed");
+        }
+        if (options.getMaxP99Millis() != null && decision.getP99() > options.getMaxP99Millis()) {
+            failures.add(String.format("p99 %.1f ms exceeds %.1f ms", decision.getP99(), options.getMaxP99Millis()));
+        }
+
+        return LoadReport.builder()
+            .ratePerSecond(options.getRate())
+            .warmupSeconds(options.getWarmup().toMillis() / 1000.0)
+            .durationSeconds(options.getDuration().toMillis() / 1000.0)
+            .sent(driver.sent())
+            .completed(driver.completed())
+            .failed(driver.failed())
+            .timedOut(driver.timedOut())
+            .throughputPerSecond(driver.completed() / (options.getDuration().toMillis() / 1000.0))
+            .outcomes(driver.outcomes())
+            .decisionLatencyMs(decision)
+            .createLatencyMs(LoadReport.Latency.of(driver.createLatency()))
+            .consumerLag(lagMonitor.summary())
+            .passed(failures.isEmpty())
+            .failureReason(failures.isEmpty() ? null : String.join("; ", failures))
+            .build();
+    }
+
+    private static void write(LoadReport report, Path path) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(path.toFile(), report);
+    }
+
+    private static void print(LoadReport report, Path path) {
+        LoadReport.Latency decision = report.getDecisionLatencyMs();
+        LoadReport.Latency create = report.getCreateLatencyMs();
+        System.out.printf("%nrate=%.0f/s sent=%d completed=%d failed=%d timedOut=%d throughput=%.1f/s outcomes=%s%n",
+            report.getRatePerSecond(), report.getSent(), report.getCompleted(), report.getFailed(),
+            report.getTimedOut(), report.getThroughputPerSecond(), report.getOutcomes());
+        System.out.printf("create   ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+            create.getP50(), create.getP90(), create.getP99(), create.getP999(), create.getMax());
+        System.out.printf("decision ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+            decision.getP50(), decision.getP90(), decision.getP99(), decision.getP999(), decision.getMax());
+        System.out.printf("consumer lag: %s%n", report.getConsumerLag());
+        System.out.printf("%s -> %s%n", report.isPassed() ? "PASSED" : "FAILED: " + report.getFailureReason(), path);
+    }
+
+    // Infraestructura embebida y servicios; se cierra en orden inverso al arranque
+    private static final class Environment implements AutoCloseable {
+
+        private final EmbeddedPostgres postgres;
+        private final EmbeddedKafkaKraftBroker kafka;
+        private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        private int port;
+
+        private Environment(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka) {
+            this.postgres = postgres;
+            this.kafka = kafka;
+        }
+
+        static Environment start(LoadHarnessOptions options) throws Exception {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, options.getPartitions(),
+                TRANSACTION_CREATION_TOPIC, ANTI_FRAUD_VALIDATION_TOPIC);
+            kafka.brokerProperty("group.initial.rebalance.delay.ms", "0");
+            Environment environment = new Environment(postgres, kafka);
+            try {
+                kafka.afterPropertiesSet();
+                // status-service no usa base de datos, pero comparte el classpath con R2DBC
+                environment.boot(StatusServiceApplication.class, options,
+                    "--spring.autoconfigure.exclude=" + String.join(",", R2DBC_AUTO_CONFIGURATIONS));
+                ConfigurableApplicationContext transactionService = environment.boot(
+                    TransactionServiceApplication.class, options,
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                    "--spring.r2dbc.username=postgres",
+                    "--spring.r2dbc.password=postgres",
+                    "--spring.sql.init.mode=always");
+                environment.port = ((WebServerApplicationContext) transactionService).getWebServer().getPort();
+                return environment;
+            } catch (Exception | Error e) {
+                environment.close();
+                throw e;
+            }
+        }
+
+        // Los argumentos de línea de comandos tienen prioridad sobre application.yml
+        private ConfigurableApplicationContext boot(Class<?> application, LoadHarnessOptions options,
+                                                    String... extraArgs) throws URISyntaxException {
+            List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=" + configLocation(application),
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                "--logging.level.root=" + options.getLogLevel(),
+                "--logging.level.com.example=" + options.getLogLevel(),
+                "--logging.level.com.example.transactionservice=" + options.getLogLevel(),
+                "--logging.level.com.example.statusservice=" + options.getLogLevel(),
+                "--logging.level.org.springframework.r2dbc=" + options.getLogLevel(),
+                "--logging.level.reactor.kafka=" + options.getLogLevel()));
+            args.addAll(List.of(extraArgs));
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .run(args.toArray(String[]::new));
+            contexts.add(context);
+            return context;
+        }
+
+        // Ambos jars traen su propio application.yml; con los dos en el classpath hay que
+        // indicar explícitamente el de cada servicio
+        private static String configLocation(Class<?> application) throws URISyntaxException {
+            Path source = Path.of(application.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return Files.isDirectory(source)
+                ? source.resolve("application.yml").toUri().toString()
+                : "jar:" + source.toUri() + "!/application.yml";
+        }
+
+        @Override
+        public void close() {
+            for (int i = contexts.size() - 1; i >= 0; i--) {
+                contexts.get(i).close();
+            }
+            kafka.destroy();
+            try {
+                postgres.close();
+            } catch (Exception e) {
+                log.warn("Could not stop embedded PostgreSQL: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.loadharness;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Opciones de línea de comandos: --rate 500 --duration 60s --warmup 10s --max-p99 250 ...
+@Getter
+public class LoadHarnessOptions {
+
+    // Peticiones por segundo (lazo abierto: no depende de lo que tarden las respuestas)
+    private double rate = 200;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    // Cada cuánto se consulta GET /{id} hasta ver el estado final; acota la resolución de la latencia
+    private Duration pollInterval = Duration.ofMillis(10);
+    private Duration timeout = Duration.ofSeconds(30);
+    private int partitions = 3;
+    private int accounts = 1000;
+    private int connections = 1000;
+    private Path report = Path.of("load-report.json");
+    // Umbral de p99 (ms) para fallar la ejecución; sin definir solo se informa
+    private Double maxP99Millis;
+    private String logLevel = "WARN";
+
+    public static LoadHarnessOptions parse(String[] args) {
+        LoadHarnessOptions options = new LoadHarnessOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                case "--duration" -> options.duration = DurationStyle.detectAndParse(value);
+                case "--poll-interval" -> options.pollInterval = DurationStyle.detectAndParse(value);
+                case "--timeout" -> options.timeout = DurationStyle.detectAndParse(value);
+                case "--partitions" -> options.partitions = Integer.parseInt(value);
+                case "--accounts" -> options.accounts = Integer.parseInt(value);
+                case "--connections" -> options.connections = Integer.parseInt(value);
+                case "--report" -> options.report = Path.of(value);
+                case "--max-p99" -> options.maxP99Millis = Double.parseDouble(value);
+                case "--log-level" -> options.logLevel = value;
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return options;
+    }
+}
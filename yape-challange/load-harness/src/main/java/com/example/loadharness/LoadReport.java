@@ -0,0 +1,71 @@
+package com.example.loadharness;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadReport {
+
+    private double ratePerSecond;
+    private double warmupSeconds;
+    private double durationSeconds;
+    // Contadores de la fase medida (sin el calentamiento)
+    private long sent;
+    private long completed;
+    private long failed;
+    private long timedOut;
+    private double throughputPerSecond;
+    private Map<String, Long> outcomes;
+    // Desde el instante en que debía enviarse el POST hasta ver el estado final en GET /{id}
+    private Latency decisionLatencyMs;
+    // Desde el instante en que debía enviarse el POST hasta su respuesta
+    private Latency createLatencyMs;
+    private Map<String, Lag> consumerLag;
+    private boolean passed;
+    private String failureReason;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency {
+        private long count;
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double max;
+
+        // El histograma registra microsegundos
+        static Latency of(Histogram histogram) {
+            return Latency.builder()
+                .count(histogram.getTotalCount())
+                .mean(histogram.getMean() / 1000.0)
+                .p50(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90(histogram.getValueAtPercentile(90) / 1000.0)
+                .p99(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .max(histogram.getMaxValue() / 1000.0)
+                .build();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lag {
+        private String topic;
+        private long max;
+        private long last;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.loadharness;
+
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.CreateTransactionRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Generador en lazo abierto: la petición i se envía en start + i / rate sin esperar a las
+ * anteriores, y su latencia se mide desde ese instante previsto y no desde el envío real, así
+ * un servicio lento no reduce la carga ni oculta su propia cola (coordinated omission).
+ */
+@Slf4j
+class OpenLoopDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadHarnessOptions options;
+    private final WebClient webClient;
+    private final LoopResources loopResources;
+    private final Scheduler ticker = Schedulers.newSingle("load-driver");
+    private final Histogram decisionLatency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram createLatency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final String[] accounts;
+    private final Random random = new Random(42);
+
+    OpenLoopDriver(LoadHarnessOptions options, int port) {
+        this.options = options;
+        this.accounts = new String[options.getAccounts()];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = "load-account-" + i;
+        }
+        // Hilos y conexiones propios: el cliente no compite por el event loop de los servidores
+        this.loopResources = LoopResources.create("load-client");
+        ConnectionProvider connections = ConnectionProvider.builder("load-client")
+            .maxConnections(options.getConnections())
+            .pendingAcquireMaxCount(-1)
+            .build();
+        this.webClient = WebClient.builder()
+            .baseUrl("http://localhost:" + port)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections).runOn(loopResources)))
+            .build();
+    }
+
+    void run() throws InterruptedException {
+        long periodNanos = (long) (1_000_000_000L / options.getRate());
+        long total = (long) ((options.getWarmup().toNanos() + options.getDuration().toNanos()) / periodNanos);
+        long start = System.nanoTime();
+        long measureFrom = start + options.getWarmup().toNanos();
+        CountDownLatch finished = new CountDownLatch((int) total);
+
+        // Cada milisegundo se emite lo que ya debía haberse enviado
+        Disposable ticks = ticker.schedulePeriodically(() -> {
+            long due = Math.min(total, (System.nanoTime() - start) / periodNanos + 1);
+            for (long i = issued.get(); i < due; i = issued.incrementAndGet()) {
+                long intended = start + i * periodNanos;
+                send(intended, intended >= measureFrom, finished);
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        long deadline = options.getWarmup().plus(options.getDuration()).plus(options.getTimeout()).plusSeconds(5).toMillis();
+        boolean done = finished.await(deadline, TimeUnit.MILLISECONDS);
+        ticks.dispose();
+        if (!done) {
+            log.warn("Load run ended with {} requests still pending", finished.getCount());
+        }
+    }
+
+    long inFlight() {
+        return inFlight.sum();
+    }
+
+    long sent() {
+        return sent.sum();
+    }
+
+    long completed() {
+        return completed.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    long timedOut() {
+        return timedOut.sum();
+    }
+
+    Histogram decisionLatency() {
+        return decisionLatency;
+    }
+
+    Histogram createLatency() {
+        return createLatency;
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        outcomes.forEach((status, count) -> snapshot.put(status, count.sum()));
+        return snapshot;
+    }
+
+    void close() {
+        ticker.dispose();
+        loopResources.dispose();
+    }
+
+    private void send(long intendedNanos, boolean measured, CountDownLatch finished) {
+        if (measured) {
+            sent.increment();
+        }
+        inFlight.increment();
+        webClient.post()
+            .uri("/api/v1/transactions")
+            .bodyValue(nextRequest())
+            .retrieve()
+            .bodyToMono(Transaction.class)
+            .doOnNext(created -> {
+                if (measured) {
+                    createLatency.recordValue(micros(System.nanoTime() - intendedNanos));
+                }
+            })
+            .flatMap(created -> awaitDecision(created.getTransactionId()))
+            .timeout(options.getTimeout())
+            .doFinally(signal -> {
+                inFlight.decrement();
+                finished.countDown();
+            })
+            .subscribe(decided -> {
+                if (measured) {
+                    decisionLatency.recordValue(micros(System.nanoTime() - intendedNanos));
+                    completed.increment();
+                    outcomes.computeIfAbsent(decided.getStatus(), status -> new LongAdder()).increment();
+                }
+            }, error -> {
+                if (measured) {
+                    (error instanceof TimeoutException ? timedOut : failed).increment();
+                }
+                log.debug("Request failed: {}", error.toString());
+            });
+    }
+
+    // Estado final visible a través de la API, no solo escrito en la base
+    private Mono<Transaction> awaitDecision(String transactionId) {
+        return Mono.defer(() -> webClient.get()
+                .uri("/api/v1/transactions/{id}", transactionId)
+                .retrieve()
+                .bodyToMono(Transaction.class))
+            .filter(transaction -> !"PENDING".equals(transaction.getStatus()))
+            .repeatWhenEmpty(repeats -> repeats.delayElements(options.getPollInterval()));
+    }
+
+    private CreateTransactionRequest nextRequest() {
+        synchronized (random) {
+            // Montos hasta 1500: parte de las transacciones supera el límite y se rechaza
+            return CreateTransactionRequest.builder()
+                .accountExternalIdDebit(accounts[random.nextInt(accounts.length)])
+                .accountExternalIdCredit(accounts[random.nextInt(accounts.length)])
+                .transferTypeId(1 + random.nextInt(3))
+                .value(BigDecimal.valueOf(1 + random.nextInt(150_000), 2))
+                .build();
+        }
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+}
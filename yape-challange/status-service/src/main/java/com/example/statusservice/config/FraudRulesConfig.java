@@ -0,0 +1,21 @@
+package com.example.statusservice.config;
+
+import com.example.statusservice.dto.FraudRuleSetDefinition;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "anti-fraud")
+@Getter
+@Setter
+public class FraudRulesConfig {
+
+    // Si se define, el fichero JSON tiene prioridad sobre las reglas de configuración
+    private String rulesFile;
+    private Duration reloadInterval = Duration.ofSeconds(10);
+    private FraudRuleSetDefinition rules = new FraudRuleSetDefinition();
+}
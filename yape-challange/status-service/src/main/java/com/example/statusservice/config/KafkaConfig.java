@@ -1,9 +1,22 @@
 package com.example.statusservice.config;
 
+import com.example.events.dedupe.ConsumerDeduplicator;
+import com.example.events.kafka.ConsumerPipelineMetrics;
+import com.example.events.kafka.DeadLetterController;
+import com.example.events.kafka.DeadLetterReplayService;
+import com.example.events.kafka.KafkaProducerConfig;
+import com.example.events.kafka.KafkaPublisher;
+import com.example.events.kafka.PartitionStateListener;
+import com.example.events.kafka.RetryTopicPolicy;
+import com.example.events.kafka.RetryTopicRouter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -11,17 +24,21 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderOptions;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 @ConfigurationProperties(prefix = "spring.kafka")
 @Getter
 @Setter
+@Slf4j
 public class KafkaConfig {
     
     private String bootstrapServers;
@@ -35,6 +52,8 @@ public class KafkaConfig {
         private String valueSerializer;
         private String acks;
         private Integer retries;
+        // Propiedades nativas del productor; se aplican sobre las del perfil de batching
+        private Map<String, String> properties = new HashMap<>();
     }
     
     @Getter
@@ -48,35 +67,151 @@ public class KafkaConfig {
     }
     
     @Bean
-    public KafkaSender<String, String> kafkaSender() {
+    @ConfigurationProperties(prefix = "kafka.producer")
+    public KafkaProducerConfig kafkaProducerConfig() {
+        return new KafkaProducerConfig();
+    }
+    
+    @Bean
+    public SenderOptions<String, byte[]> kafkaSenderOptions(KafkaProducerConfig producerConfig) {
+        KafkaProducerConfig.Profile profile = producerConfig.activeProfile();
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         props.put(ProducerConfig.ACKS_CONFIG, producer.getAcks());
         props.put(ProducerConfig.RETRIES_CONFIG, producer.getRetries());
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) profile.getLinger().toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.getCompression());
+        props.putAll(producer.getProperties());
         
-        SenderOptions<String, String> senderOptions = SenderOptions.create(props);
-        return KafkaSender.create(senderOptions);
+        log.info("Kafka producer profile {}: linger.ms={}, batch.size={}, compression.type={}, max-in-flight={}",
+                producerConfig.getProfile(), props.get(ProducerConfig.LINGER_MS_CONFIG),
+                props.get(ProducerConfig.BATCH_SIZE_CONFIG), props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG),
+                profile.getMaxInFlight());
+        
+        // Un envío fallido se informa a quien lo hizo sin cerrar el pipeline compartido
+        return SenderOptions.<String, byte[]>create(props)
+                .maxInFlight(profile.getMaxInFlight())
+                .stopOnError(false);
+    }
+    
+    // El pipeline se abre al arrancar y se drena antes de cerrar el productor; si cae, se reabre
+    // con un KafkaSender nuevo
+    @Bean(initMethod = "startPipeline", destroyMethod = "stopPipeline")
+    public KafkaPublisher kafkaPublisher(SenderOptions<String, byte[]> kafkaSenderOptions,
+                                         KafkaProducerConfig producerConfig, MeterRegistry meterRegistry) {
+        return new KafkaPublisher(() -> KafkaSender.create(kafkaSenderOptions), producerConfig.getQueueCapacity(),
+                meterRegistry);
+    }
+    
+    // Plantilla de los receptores del tópico principal: KafkaConsumerService crea uno por cada
+    // kafka.consumer.receivers con su propio client.id
+    @Bean
+    public ReceiverOptions<String, byte[]> receiverOptions(KafkaTopicConfig topicConfig,
+                                                           KafkaConsumerConfig consumerConfig,
+                                                           List<PartitionStateListener> partitionListeners) {
+        return ReceiverOptions
+                .<String, byte[]>create(consumerProperties(consumer.getGroupId()))
+                .subscription(Collections.singleton(topicConfig.getTransactionCreation()))
+                // Al revocar, el poll espera a que se confirme lo que sigue en proceso antes de ceder las particiones
+                .maxDelayRebalance(consumerConfig.getRevokeDrainTimeout())
+                .commitIntervalDuringDelay(consumerConfig.getRevokeCommitInterval().toMillis())
+                .addAssignListener(partitions -> partitionListeners.forEach(
+                        listener -> listener.onPartitionsAssigned(partitionIds(partitions))))
+                .addRevokeListener(partitions -> partitionListeners.forEach(
+                        listener -> listener.onPartitionsRevoked(partitionIds(partitions))));
+    }
+    
+    @Bean
+    public ConsumerPipelineMetrics pipelineMetrics(KafkaTopicConfig topicConfig, KafkaConsumerConfig consumerConfig,
+                                                   MeterRegistry meterRegistry) {
+        return new ConsumerPipelineMetrics(topicConfig.getTransactionCreation(),
+                consumerConfig.getMetrics().getLagInterval(), meterRegistry);
+    }
+    
+    @Bean
+    public ConsumerDeduplicator consumerDeduplicator(KafkaConsumerConfig consumerConfig, MeterRegistry meterRegistry) {
+        KafkaConsumerConfig.Dedupe dedupe = consumerConfig.getDedupe();
+        return new ConsumerDeduplicator(dedupe.isEnabled(), dedupe.getCapacity(), dedupe.getRevokedRetention(), meterRegistry);
     }
     
     @Bean
-    public KafkaReceiver<String, String> kafkaReceiver(KafkaTopicConfig topicConfig) {
+    public RetryTopicPolicy retryTopicPolicy(KafkaConsumerConfig consumerConfig) {
+        KafkaConsumerConfig.Retry retry = consumerConfig.getRetry();
+        return RetryTopicPolicy.exponential(retry.getAttempts(), retry.getInitialInterval(), retry.getMultiplier(),
+                retry.getMaxInterval(), retry.getTopicSuffix(), retry.getDeadLetterSuffix());
+    }
+    
+    @Bean
+    public RetryTopicRouter retryTopicRouter(KafkaPublisher kafkaPublisher, RetryTopicPolicy retryTopicPolicy,
+                                             KafkaConsumerConfig consumerConfig, MeterRegistry meterRegistry) {
+        return new RetryTopicRouter(kafkaPublisher, retryTopicPolicy, consumerConfig.getRetry().isEnabled(), meterRegistry);
+    }
+    
+    // Grupo propio para los tópicos de reintento: la espera de un reintento no frena el tópico principal
+    @Bean
+    public KafkaReceiver<String, byte[]> retryKafkaReceiver(KafkaTopicConfig topicConfig, RetryTopicPolicy retryTopicPolicy) {
+        ReceiverOptions<String, byte[]> receiverOptions = ReceiverOptions
+                .<String, byte[]>create(consumerProperties(consumer.getGroupId() + "-retry"))
+                .subscription(retryTopicPolicy.retryTopics(topicConfig.getTransactionCreation()));
+        
+        return KafkaReceiver.create(receiverOptions);
+    }
+    
+    // El replay del DLT abre un receiver por ejecución; el grupo guarda hasta dónde se reinyectó
+    @Bean
+    public ReceiverOptions<String, byte[]> deadLetterReceiverOptions(KafkaTopicConfig topicConfig,
+                                                                     RetryTopicPolicy retryTopicPolicy) {
+        Map<String, Object> props = consumerProperties(consumer.getGroupId() + "-dlt-replay");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        
+        return ReceiverOptions.<String, byte[]>create(props)
+                .subscription(Collections.singleton(retryTopicPolicy.deadLetterTopic(topicConfig.getTransactionCreation())));
+    }
+    
+    @Bean(destroyMethod = "stop")
+    public DeadLetterReplayService deadLetterReplayService(ReceiverOptions<String, byte[]> deadLetterReceiverOptions,
+                                                           KafkaPublisher kafkaPublisher,
+                                                           RetryTopicPolicy retryTopicPolicy,
+                                                           KafkaTopicConfig topicConfig,
+                                                           KafkaConsumerConfig consumerConfig,
+                                                           MeterRegistry meterRegistry) {
+        KafkaConsumerConfig.Replay replay = consumerConfig.getRetry().getReplay();
+        DeadLetterReplayService.Settings settings = DeadLetterReplayService.Settings.builder()
+                .defaultRatePerSecond(replay.getDefaultRatePerSecond())
+                .maxRatePerSecond(replay.getMaxRatePerSecond())
+                .idleTimeout(replay.getIdleTimeout())
+                .build();
+        return new DeadLetterReplayService(deadLetterReceiverOptions, kafkaPublisher, retryTopicPolicy,
+                topicConfig.getTransactionCreation(), settings, meterRegistry);
+    }
+    
+    @Bean
+    public DeadLetterController deadLetterController(DeadLetterReplayService deadLetterReplayService) {
+        return new DeadLetterController(deadLetterReplayService);
+    }
+    
+    private Map<String, Object> consumerProperties(String groupId) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, consumer.getGroupId());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Los valores se decodifican por registro en el consumidor: un mensaje corrupto
+        // en el poll detendría el receiver completo
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, consumer.getAutoOffsetReset());
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, consumer.getEnableAutoCommit());
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
-        
-        ReceiverOptions<String, String> receiverOptions = ReceiverOptions
-                .<String, String>create(props)
-                .subscription(Collections.singleton(topicConfig.getTransactionCreation()));
-        
-        return KafkaReceiver.create(receiverOptions);
+        return props;
+    }
+    
+    private static List<Integer> partitionIds(Collection<ReceiverPartition> partitions) {
+        return partitions.stream()
+                .map(partition -> partition.topicPartition().partition())
+                .toList();
     }
 }
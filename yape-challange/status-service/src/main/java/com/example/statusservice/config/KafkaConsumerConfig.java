@@ -0,0 +1,70 @@
+package com.example.statusservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "kafka.consumer")
+@Getter
+@Setter
+public class KafkaConsumerConfig {
+
+    // Receptores del tópico principal por instancia, cada uno con su consumer y su hilo
+    private int receivers = 3;
+    private int concurrency = 16;
+    private int maxInFlight = 256;
+    private int maxPollRecords = 100;
+    // Espera máxima al revocar particiones para confirmar lo que está en proceso
+    private Duration revokeDrainTimeout = Duration.ofSeconds(10);
+    private Duration revokeCommitInterval = Duration.ofMillis(100);
+    private Dedupe dedupe = new Dedupe();
+    private Retry retry = new Retry();
+    private Metrics metrics = new Metrics();
+
+    @Getter
+    @Setter
+    public static class Dedupe {
+        private boolean enabled = true;
+        // eventIds procesados que recuerda la instancia, repartidos a partes iguales entre las particiones
+        // asignadas: la parte de cada una es la ventana de su deduplicación. Unos 24 bytes por eventId;
+        // la memoria crece según se llena, hasta este tope
+        private int capacity = 1_000_000;
+        // Los receptores de la instancia comparten el deduplicador: el estado de una partición revocada
+        // espera este tiempo por si otro receptor la reclama en el mismo rebalanceo
+        private Duration revokedRetention = Duration.ofMinutes(5);
+    }
+    @Getter
+    @Setter
+    public static class Retry {
+        private boolean enabled = true;
+        // Intentos en tópicos de reintento antes de enviar el registro al DLT
+        private int attempts = 3;
+        // Retardo exponencial: initialInterval * multiplier^(intento - 1), acotado por maxInterval
+        private Duration initialInterval = Duration.ofSeconds(1);
+        private double multiplier = 5.0;
+        private Duration maxInterval = Duration.ofMinutes(5);
+        private String topicSuffix = "-retry";
+        private String deadLetterSuffix = "-dlt";
+        private Replay replay = new Replay();
+    }
+
+    @Getter
+    @Setter
+    public static class Replay {
+        private int defaultRatePerSecond = 50;
+        private int maxRatePerSecond = 1000;
+        // Esperando un registro durante este tiempo, con las particiones ya asignadas, se da el DLT por vaciado
+        private Duration idleTimeout = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        // Cada cuánto se consulta el lag por partición para los gauges kafka.consumer.lag
+        private Duration lagInterval = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.statusservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "anti-fraud.velocity")
+@Getter
+@Setter
+public class VelocityConfig {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofMinutes(10);
+    private int buckets = 60;
+    private int maxAccountsPerPartition = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    // Las ventanas de una partición revocada esperan este tiempo por si vuelve a esta instancia
+    private Duration revokedRetention = Duration.ofMinutes(5);
+}
@@ -1,10 +1,12 @@
 package com.example.statusservice.controller;
 
+import com.example.statusservice.rules.FraudRuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/v1/status")
@@ -12,8 +14,23 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class StatusController {
     
+    private final FraudRuleEngine fraudRuleEngine;
+    
     @GetMapping("/health")
     public Mono<ResponseEntity<String>> health() {
         return Mono.just(ResponseEntity.ok("Status Service is running"));
     }
+    
+    @PostMapping("/rules/reload")
+    public Mono<ResponseEntity<String>> reloadRules() {
+        log.info("POST /api/v1/status/rules/reload - Reloading fraud rules");
+        
+        return Mono.fromCallable(fraudRuleEngine::reload)
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(rules -> ResponseEntity.ok("Fraud rules reloaded: " + rules))
+            .onErrorResume(error -> {
+                log.error("Error reloading fraud rules: {}", error.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(error.getMessage()));
+            });
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.statusservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FraudRuleSetDefinition {
+
+    @Builder.Default
+    private BigDecimal defaultAmountLimit = BigDecimal.valueOf(999);
+    
+    // Límite de monto por transactionType (nombre del tipo)
+    @Builder.Default
+    private Map<String, BigDecimal> amountLimits = new HashMap<>();
+    
+    @Builder.Default
+    private List<String> denyListedAccounts = new ArrayList<>();
+    
+    // Límites por cuenta débito dentro de la ventana de anti-fraud.velocity.window
+    private Integer velocityMaxCount;
+    private BigDecimal velocityMaxAmount;
+}
@@ -0,0 +1,243 @@
+package com.example.statusservice.rules;
+
+import com.example.events.kafka.PartitionStateListener;
+import com.example.statusservice.config.VelocityConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ventana deslizante por cuenta débito, con buckets de tiempo (del evento) en arrays primitivos.
+// El estado vive por partición: los eventos de alta van con la cuenta débito como clave, así cada
+// cuenta cae siempre en la misma partición y cada instancia solo guarda las cuentas de las suyas.
+// Con rebalanceo eager cualquier rebalanceo revoca todas las particiones: las ventanas de una
+// partición revocada se guardan revokedRetention por si vuelve a esta instancia, igual que el
+// estado del deduplicador, en lugar de reiniciar todos los límites de velocidad a cero.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountVelocityAggregator implements PartitionStateListener {
+
+    // Máximo de cuentas inactivas a desalojar por actualización (coste acotado)
+    private static final int MAX_EVICTIONS_PER_UPDATE = 8;
+
+    private final VelocityConfig velocityConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, PartitionWindows> partitions = new ConcurrentHashMap<>();
+    // Ventanas de particiones revocadas, a la espera de saber si algún receptor de esta instancia las reclama
+    private final Map<Integer, RevokedWindows> revoked = new ConcurrentHashMap<>();
+    private long bucketMillis;
+
+    @PostConstruct
+    public void init() {
+        bucketMillis = Math.max(1, velocityConfig.getWindow().toMillis() / velocityConfig.getBuckets());
+        Gauge.builder("anti.fraud.velocity.accounts", partitions,
+                p -> p.values().stream().mapToInt(PartitionWindows::size).sum())
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return velocityConfig.isEnabled();
+    }
+
+    // Deja en el contexto los totales de la ventana contando la transacción evaluada, sin registrarla:
+    // un evento que se vuelve a entregar o que llega por un tópico de reintento no cuenta dos veces
+    public void peek(FraudCheckContext context) {
+        String account = context.getAccountExternalIdDebit();
+        if (account == null) {
+            context.setWindowTotals(0, 0);
+            return;
+        }
+        PartitionWindows windows = find(context.getPartition());
+        if (windows == null) {
+            context.setWindowTotals(1, context.getAmountMinorUnits());
+            return;
+        }
+        long eventMillis = context.getEventTimeMillis();
+        windows.peek(account, eventMillis / bucketMillis, eventMillis, context);
+    }
+
+    // Registra la transacción una vez publicada su decisión. partition es la del tópico principal (para
+    // un reintento, la de origen): si no es de esta instancia sus ventanas viven en la instancia que la
+    // tiene asignada y aquí no se crean
+    public void record(int partition, String account, long amountMinorUnits, long eventMillis) {
+        if (account == null) {
+            return;
+        }
+        PartitionWindows windows = find(partition);
+        if (windows == null) {
+            log.debug("Velocity not recorded for unassigned partition: partition={}, account={}", partition, account);
+            return;
+        }
+        windows.record(account, eventMillis / bucketMillis, eventMillis, amountMinorUnits);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<Integer> assigned) {
+        for (Integer partition : assigned) {
+            RevokedWindows previous = revoked.remove(partition);
+            partitions.putIfAbsent(partition, previous != null ? previous.windows : new PartitionWindows());
+        }
+        expireRevoked(System.nanoTime());
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<Integer> revokedPartitions) {
+        long now = System.nanoTime();
+        for (Integer partition : revokedPartitions) {
+            PartitionWindows windows = partitions.remove(partition);
+            if (windows != null) {
+                revoked.put(partition, new RevokedWindows(windows, now));
+            }
+        }
+        expireRevoked(now);
+        log.info("Velocity windows retained for revoked partitions: {}", revokedPartitions);
+    }
+
+    int trackedPartitions() {
+        return partitions.size();
+    }
+
+    int retainedPartitions() {
+        return revoked.size();
+    }
+
+    // Un registro que termina de procesarse durante la revocación sigue contando en las ventanas retenidas
+    private PartitionWindows find(int partition) {
+        PartitionWindows windows = partitions.get(partition);
+        if (windows != null) {
+            return windows;
+        }
+        RevokedWindows retained = revoked.get(partition);
+        return retained != null ? retained.windows : null;
+    }
+
+    // Lo que ningún receptor reclamó dentro de la retención pertenece ahora a otra instancia
+    private void expireRevoked(long now) {
+        long retentionNanos = velocityConfig.getRevokedRetention().toNanos();
+        revoked.values().removeIf(entry -> now - entry.revokedAtNanos >= retentionNanos);
+    }
+
+    private static final class RevokedWindows {
+
+        private final PartitionWindows windows;
+        private final long revokedAtNanos;
+
+        RevokedWindows(PartitionWindows windows, long revokedAtNanos) {
+            this.windows = windows;
+            this.revokedAtNanos = revokedAtNanos;
+        }
+    }
+
+    private class PartitionWindows {
+
+        private final LinkedHashMap<String, AccountWindow> windows = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AccountWindow> eldest) {
+                return size() > velocityConfig.getMaxAccountsPerPartition();
+            }
+        };
+
+        synchronized void peek(String account, long bucket, long eventMillis, FraudCheckContext context) {
+            AccountWindow window = windows.get(account);
+            if (window == null) {
+                context.setWindowTotals(1, context.getAmountMinorUnits());
+                return;
+            }
+            window.advance(bucket);
+            boolean counted = window.covers(bucket);
+            context.setWindowTotals(window.totalCount + (counted ? 1 : 0),
+                window.totalAmount + (counted ? context.getAmountMinorUnits() : 0));
+        }
+
+        synchronized void record(String account, long bucket, long eventMillis, long amountMinorUnits) {
+            evictIdle(eventMillis);
+            AccountWindow window = windows.get(account);
+            if (window == null) {
+                window = new AccountWindow(velocityConfig.getBuckets(), bucket);
+                windows.put(account, window);
+            }
+            window.add(bucket, amountMinorUnits);
+            window.lastAccessMillis = Math.max(window.lastAccessMillis, eventMillis);
+        }
+
+        synchronized int size() {
+            return windows.size();
+        }
+
+        private void evictIdle(long eventMillis) {
+            long idleBefore = eventMillis - velocityConfig.getIdleTimeout().toMillis();
+            Iterator<AccountWindow> eldest = windows.values().iterator();
+            for (int i = 0; i < MAX_EVICTIONS_PER_UPDATE && eldest.hasNext(); i++) {
+                if (eldest.next().lastAccessMillis >= idleBefore) {
+                    return;
+                }
+                eldest.remove();
+            }
+        }
+    }
+
+    private static class AccountWindow {
+
+        private final int[] counts;
+        private final long[] amounts;
+        private long currentBucket;
+        private long totalCount;
+        private long totalAmount;
+        private long lastAccessMillis;
+
+        AccountWindow(int buckets, long bucket) {
+            this.counts = new int[buckets];
+            this.amounts = new long[buckets];
+            this.currentBucket = bucket;
+        }
+
+        // Un evento atrasado cuenta en su propio bucket si aún está dentro de la ventana
+        void add(long bucket, long amount) {
+            advance(bucket);
+            if (!covers(bucket)) {
+                return;
+            }
+            int slot = (int) Math.floorMod(bucket, (long) counts.length);
+            counts[slot]++;
+            amounts[slot] += amount;
+            totalCount++;
+            totalAmount += amount;
+        }
+
+        boolean covers(long bucket) {
+            return bucket > currentBucket - counts.length;
+        }
+
+        // Expira los buckets que salen de la ventana; como mucho recorre el anillo una vez
+        void advance(long bucket) {
+            if (bucket <= currentBucket) {
+                return;
+            }
+            if (bucket - currentBucket >= counts.length) {
+                Arrays.fill(counts, 0);
+                Arrays.fill(amounts, 0L);
+                totalCount = 0;
+                totalAmount = 0;
+            } else {
+                for (long b = currentBucket + 1; b <= bucket; b++) {
+                    int slot = (int) Math.floorMod(b, (long) counts.length);
+                    totalCount -= counts[slot];
+                    totalAmount -= amounts[slot];
+                    counts[slot] = 0;
+                    amounts[slot] = 0;
+                }
+            }
+            currentBucket = bucket;
+        }
+    }
+}
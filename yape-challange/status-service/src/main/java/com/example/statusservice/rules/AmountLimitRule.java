@@ -0,0 +1,60 @@
+package com.example.statusservice.rules;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Límites indexados por código de tipo; los tipos no numéricos caen al mapa
+public class AmountLimitRule implements FraudRule {
+
+    private final BigDecimal defaultLimit;
+    private final BigDecimal[] limitsByTypeCode;
+    private final Map<String, BigDecimal> limitsByTypeName;
+
+    public AmountLimitRule(BigDecimal defaultLimit, Map<String, BigDecimal> limits) {
+        this.defaultLimit = defaultLimit;
+        this.limitsByTypeName = Map.copyOf(limits);
+
+        int maxCode = -1;
+        for (String type : limits.keySet()) {
+            maxCode = Math.max(maxCode, codeOf(type));
+        }
+        this.limitsByTypeCode = new BigDecimal[maxCode + 1];
+        limits.forEach((type, limit) -> {
+            int code = codeOf(type);
+            if (code >= 0) {
+                limitsByTypeCode[code] = limit;
+            }
+        });
+    }
+
+    @Override
+    public String name() {
+        return "amount-limit";
+    }
+
+    @Override
+    public boolean violates(FraudCheckContext context) {
+        BigDecimal limit = limitFor(context);
+        return limit != null && context.getAmount().compareTo(limit) > 0;
+    }
+
+    private BigDecimal limitFor(FraudCheckContext context) {
+        int code = context.getTransactionTypeCode();
+        BigDecimal limit = null;
+        if (code >= 0 && code < limitsByTypeCode.length) {
+            limit = limitsByTypeCode[code];
+        } else if (context.getTransactionType() != null) {
+            limit = limitsByTypeName.get(context.getTransactionType());
+        }
+        return limit != null ? limit : defaultLimit;
+    }
+
+    private static int codeOf(String type) {
+        try {
+            int code = Integer.parseInt(type);
+            return code >= 0 && code <= 1024 ? code : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.statusservice.rules;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pipeline inmutable: arrays de reglas y timers resueltos una sola vez al compilar
+public class CompiledRuleSet {
+
+    private final FraudRule[] rules;
+    private final Timer[] timers;
+
+    public CompiledRuleSet(List<FraudRule> rules, MeterRegistry meterRegistry) {
+        this.rules = rules.toArray(FraudRule[]::new);
+        this.timers = new Timer[this.rules.length];
+        for (int i = 0; i < this.rules.length; i++) {
+            timers[i] = Timer.builder("anti.fraud.rule.evaluation")
+                .tag("rule", this.rules[i].name())
+                .register(meterRegistry);
+        }
+    }
+
+    // Devuelve la primera regla violada o null si la transacción es aceptada
+    public FraudRule evaluate(FraudCheckContext context) {
+        for (int i = 0; i < rules.length; i++) {
+            long start = System.nanoTime();
+            boolean violated = rules[i].violates(context);
+            timers[i].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (violated) {
+                return rules[i];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.statusservice.rules;
+
+import java.util.Collection;
+import java.util.Set;
+
+public class DenyListRule implements FraudRule {
+
+    private final Set<String> accounts;
+
+    public DenyListRule(Collection<String> accounts) {
+        this.accounts = Set.copyOf(accounts);
+    }
+
+    @Override
+    public String name() {
+        return "deny-list";
+    }
+
+    @Override
+    public boolean violates(FraudCheckContext context) {
+        return isDenied(context.getAccountExternalIdDebit()) || isDenied(context.getAccountExternalIdCredit());
+    }
+
+    private boolean isDenied(String account) {
+        return account != null && accounts.contains(account);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.kafka.NonRetryableException;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Contexto mutable reutilizado por hilo: evaluar un evento no asigna memoria salvo montos fuera de lo común
+@Getter
+public class FraudCheckContext {
+
+    public static final int UNKNOWN_TYPE = -1;
+
+    private static final int MINOR_UNIT_DIGITS = 2;
+    private static final int MAX_DOUBLE_EXACT_DIGITS = 15;
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    // Las horas de los eventos son locales de la zona del sistema; cada una con el offset de su fecha
+    private static final ZoneOffsetCache EVENT_ZONE = new ZoneOffsetCache(ZoneId.systemDefault());
+
+    private String transactionId;
+    private String transactionType;
+    private int transactionTypeCode;
+    private BigDecimal amount;
+    private long amountMinorUnits;
+    private String accountExternalIdDebit;
+    private String accountExternalIdCredit;
+    private int partition;
+    // Instante del evento: la ventana de velocidad avanza con el tiempo de los eventos, no del consumo
+    private long eventTimeMillis;
+    private long windowCount;
+    private long windowAmountMinorUnits;
+
+    public FraudCheckContext reset(TransactionCreatedEvent event, int partition) {
+        this.transactionId = event.getTransactionId();
+        this.transactionType = event.getTransactionType() != null ? event.getTransactionType().getName() : null;
+        this.transactionTypeCode = parseTypeCode(transactionType);
+        this.amount = event.getValue() != null ? event.getValue() : BigDecimal.ZERO;
+        try {
+            this.amountMinorUnits = toMinorUnits(amount);
+        } catch (ArithmeticException e) {
+            // Un monto fuera de rango fallaría igual en cada reintento
+            throw new NonRetryableException("Amount out of range: " + amount, e);
+        }
+        this.accountExternalIdDebit = event.getAccountExternalIdDebit();
+        this.accountExternalIdCredit = event.getAccountExternalIdCredit();
+        this.partition = partition;
+        this.eventTimeMillis = eventTimeMillis(event);
+        this.windowCount = 0;
+        this.windowAmountMinorUnits = 0;
+        return this;
+    }
+
+    void setWindowTotals(long count, long amountMinorUnits) {
+        this.windowCount = count;
+        this.windowAmountMinorUnits = amountMinorUnits;
+    }
+
+    public static long eventTimeMillis(TransactionCreatedEvent event) {
+        LocalDateTime time = event.getEventTimestamp() != null ? event.getEventTimestamp() : event.getCreatedAt();
+        if (time == null) {
+            return System.currentTimeMillis();
+        }
+        return EVENT_ZONE.toEpochMillis(time);
+    }
+
+    // Hasta 15 cifras en céntimos el double de un BigDecimal compacto (unscaled / 10^scale, sin
+    // asignar memoria) está a menos de medio céntimo del valor exacto, así que redondearlo es exacto.
+    // El resto, poco frecuente, sale del valor sin escala, que sí asigna un BigInteger;
+    // ArithmeticException si no cabe en un long
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount.scale() <= MINOR_UNIT_DIGITS
+                && amount.precision() - amount.scale() + MINOR_UNIT_DIGITS <= MAX_DOUBLE_EXACT_DIGITS) {
+            return Math.round(amount.doubleValue() * POWERS_OF_TEN[MINOR_UNIT_DIGITS]);
+        }
+        if (amount.scale() > MINOR_UNIT_DIGITS) {
+            amount = amount.setScale(MINOR_UNIT_DIGITS, RoundingMode.HALF_UP);
+        }
+        int shift = MINOR_UNIT_DIGITS - amount.scale();
+        if (shift >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return Math.multiplyExact(amount.unscaledValue().longValueExact(), POWERS_OF_TEN[shift]);
+    }
+
+    private static int parseTypeCode(String type) {
+        if (type == null || type.isEmpty() || type.length() > 9) {
+            return UNKNOWN_TYPE;
+        }
+        int code = 0;
+        for (int i = 0; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNKNOWN_TYPE;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.statusservice.rules;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Resultado de evaluar una transacción: la regla violada, o null si se acepta, y los valores ya
+// calculados con los que se registra después en la ventana de su cuenta
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class FraudEvaluation {
+
+    private final FraudRule violatedRule;
+    private final int partition;
+    private final String accountExternalIdDebit;
+    private final long amountMinorUnits;
+    private final long eventTimeMillis;
+
+    public boolean isRejected() {
+        return violatedRule != null;
+    }
+}
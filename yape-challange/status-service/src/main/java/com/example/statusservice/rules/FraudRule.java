@@ -0,0 +1,8 @@
+package com.example.statusservice.rules;
+
+public interface FraudRule {
+
+    String name();
+
+    boolean violates(FraudCheckContext context);
+}
@@ -0,0 +1,132 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.statusservice.config.FraudRulesConfig;
+import com.example.statusservice.dto.FraudRuleSetDefinition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudRuleEngine {
+
+    private final FraudRulesConfig rulesConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AccountVelocityAggregator velocityAggregator;
+    private final ThreadLocal<FraudCheckContext> contexts = ThreadLocal.withInitial(FraudCheckContext::new);
+    private volatile CompiledRuleSet ruleSet;
+    private volatile long rulesFileLastModified = -1;
+    private Disposable disposable;
+
+    @PostConstruct
+    public void start() {
+        reload();
+
+        if (rulesConfig.getRulesFile() != null) {
+            disposable = Flux.interval(rulesConfig.getReloadInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::reloadIfChanged)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .onErrorResume(error -> {
+                        log.error("Error reloading fraud rules: {}", error.getMessage());
+                        return Mono.empty();
+                    }))
+                .subscribe();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (disposable != null && !disposable.isDisposed()) {
+            disposable.dispose();
+        }
+    }
+
+    public FraudEvaluation evaluate(TransactionCreatedEvent event, int partition) {
+        FraudCheckContext context = contexts.get().reset(event, partition);
+        if (velocityAggregator.isEnabled()) {
+            velocityAggregator.peek(context);
+        }
+        return new FraudEvaluation(ruleSet.evaluate(context), partition, context.getAccountExternalIdDebit(),
+            context.getAmountMinorUnits(), context.getEventTimeMillis());
+    }
+
+    // La transacción entra en la ventana de su cuenta solo cuando su decisión ya se publicó
+    public void recordEvaluated(FraudEvaluation evaluation) {
+        if (velocityAggregator.isEnabled()) {
+            velocityAggregator.record(evaluation.getPartition(), evaluation.getAccountExternalIdDebit(),
+                evaluation.getAmountMinorUnits(), evaluation.getEventTimeMillis());
+        }
+    }
+
+    public synchronized int reload() {
+        FraudRuleSetDefinition definition = loadDefinition();
+        ruleSet = compile(definition);
+        log.info("Fraud rules loaded: rules={}, source={}", ruleSet.size(),
+            rulesConfig.getRulesFile() != null ? rulesConfig.getRulesFile() : "configuration");
+        return ruleSet.size();
+    }
+
+    void reloadIfChanged() {
+        Path path = Path.of(rulesConfig.getRulesFile());
+        try {
+            if (Files.exists(path) && Files.getLastModifiedTime(path).toMillis() != rulesFileLastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read rules file: " + path, e);
+        }
+    }
+
+    private FraudRuleSetDefinition loadDefinition() {
+        if (rulesConfig.getRulesFile() == null) {
+            return rulesConfig.getRules();
+        }
+
+        Path path = Path.of(rulesConfig.getRulesFile());
+        if (!Files.exists(path)) {
+            log.warn("Rules file not found, using configured rules: {}", path);
+            return rulesConfig.getRules();
+        }
+
+        try {
+            rulesFileLastModified = Files.getLastModifiedTime(path).toMillis();
+            return objectMapper.readValue(path.toFile(), FraudRuleSetDefinition.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid rules file: " + path, e);
+        }
+    }
+
+    private CompiledRuleSet compile(FraudRuleSetDefinition definition) {
+        List<FraudRule> rules = new ArrayList<>();
+        // Primero las reglas más baratas
+        if (!definition.getDenyListedAccounts().isEmpty()) {
+            rules.add(new DenyListRule(definition.getDenyListedAccounts()));
+        }
+        if (velocityAggregator.isEnabled()
+                && (definition.getVelocityMaxCount() != null || definition.getVelocityMaxAmount() != null)) {
+            rules.add(new VelocityRule(definition.getVelocityMaxCount(), definition.getVelocityMaxAmount()));
+        }
+        if (definition.getDefaultAmountLimit() != null || !definition.getAmountLimits().isEmpty()) {
+            rules.add(new AmountLimitRule(definition.getDefaultAmountLimit(), definition.getAmountLimits()));
+        }
+        return new CompiledRuleSet(rules, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.statusservice.rules;
+
+import java.math.BigDecimal;
+
+// Evalúa los totales de la ventana que AccountVelocityAggregator deja en el contexto
+public class VelocityRule implements FraudRule {
+
+    private final long maxCount;
+    private final long maxAmountMinorUnits;
+
+    public VelocityRule(Integer maxCount, BigDecimal maxAmount) {
+        this.maxCount = maxCount != null ? maxCount : Long.MAX_VALUE;
+        this.maxAmountMinorUnits = maxAmount != null ? FraudCheckContext.toMinorUnits(maxAmount) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public String name() {
+        return "velocity";
+    }
+
+    @Override
+    public boolean violates(FraudCheckContext context) {
+        return context.getWindowCount() > maxCount || context.getWindowAmountMinorUnits() > maxAmountMinorUnits;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.statusservice.rules;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/*
+ * Pasa horas locales de una zona a epoch millis con el offset vigente en cada una, como
+ * atZone(zone).toInstant(). Guarda el tramo entre dos cambios de hora del último evento: mientras los
+ * eventos caigan en él no se consultan las reglas de la zona ni se asigna memoria. Las horas locales
+ * ambiguas o inexistentes de un cambio de hora quedan fuera de todo tramo y se resuelven cada vez.
+ */
+final class ZoneOffsetCache {
+
+    private final ZoneRules rules;
+    private volatile Period period = new Period(0, 0, ZoneOffset.UTC);
+
+    ZoneOffsetCache(ZoneId zone) {
+        this.rules = zone.getRules();
+    }
+
+    long toEpochMillis(LocalDateTime time) {
+        long localSecond = time.toEpochSecond(ZoneOffset.UTC);
+        Period current = period;
+        ZoneOffset offset;
+        if (localSecond >= current.fromLocalSecond && localSecond < current.untilLocalSecond) {
+            offset = current.offset;
+        } else {
+            offset = rules.getOffset(time);
+            Period resolved = periodOf(localSecond, offset);
+            if (localSecond >= resolved.fromLocalSecond && localSecond < resolved.untilLocalSecond) {
+                period = resolved;
+            }
+        }
+        return (localSecond - offset.getTotalSeconds()) * 1000 + time.getNano() / 1_000_000;
+    }
+
+    // Horas locales con un único offset posible entre el cambio de hora anterior y el siguiente
+    private Period periodOf(long localSecond, ZoneOffset offset) {
+        Instant instant = Instant.ofEpochSecond(localSecond - offset.getTotalSeconds());
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long from = previous == null ? Long.MIN_VALUE : Math.max(localSecond(previous.getDateTimeBefore()),
+            localSecond(previous.getDateTimeAfter()));
+        long until = next == null ? Long.MAX_VALUE : Math.min(localSecond(next.getDateTimeBefore()),
+            localSecond(next.getDateTimeAfter()));
+        return new Period(from, until, offset);
+    }
+
+    private static long localSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Period {
+        private final long fromLocalSecond;
+        private final long untilLocalSecond;
+        private final ZoneOffset offset;
+
+        private Period(long fromLocalSecond, long untilLocalSecond, ZoneOffset offset) {
+            this.fromLocalSecond = fromLocalSecond;
+            this.untilLocalSecond = untilLocalSecond;
+            this.offset = offset;
+        }
+    }
+}
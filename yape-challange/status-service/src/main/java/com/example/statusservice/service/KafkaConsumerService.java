@@ -1,98 +1,180 @@
 package com.example.statusservice.service;
 
-import com.example.statusservice.dto.TransactionCreatedEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.dedupe.ConsumerDeduplicator;
+import com.example.events.kafka.ConsumerPipelineMetrics;
+import com.example.events.kafka.EventDeserializer;
+import com.example.events.kafka.OrderedRecordProcessor;
+import com.example.events.kafka.RetryTopicPolicy;
+import com.example.events.kafka.RetryTopicRouter;
+import com.example.statusservice.config.KafkaConsumerConfig;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.errors.SerializationException;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
 import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumerService {
     
-    private final KafkaReceiver<String, String> kafkaReceiver;
-    private final ObjectMapper objectMapper;
+    private final ReceiverOptions<String, byte[]> receiverOptions;
+    private final EventDeserializer<TransactionCreatedEvent> eventDeserializer;
     private final StatusService statusService;
-    private final Random random = new Random();
-    private Disposable disposable;
+    private final KafkaConsumerConfig consumerConfig;
+    private final ConsumerDeduplicator deduplicator;
+    private final KafkaReceiver<String, byte[]> retryKafkaReceiver;
+    private final RetryTopicRouter retryRouter;
+    private final ConsumerPipelineMetrics pipelineMetrics;
+    private final Disposable.Composite receivers = Disposables.composite();
+    private Disposable retryDisposable;
     
     @PostConstruct
     public void startConsuming() {
-        log.info("Starting Kafka consumer for transaction created events...");
+        int count = Math.max(1, consumerConfig.getReceivers());
+        log.info("Starting {} Kafka consumers for transaction created events: concurrency={}, maxInFlight={}",
+            count, consumerConfig.getConcurrency(), consumerConfig.getMaxInFlight());
         
-        disposable = kafkaReceiver.receive()
-            .flatMap(this::processMessage)
-            .subscribe();
+        for (int i = 0; i < count; i++) {
+            startReceiver(i);
+        }
+        
+        if (retryRouter.isEnabled()) {
+            retryDisposable = consumeRetries(retryKafkaReceiver.receive()).subscribe();
+        }
     }
     
     @PreDestroy
     public void stopConsuming() {
-        if (disposable != null && !disposable.isDisposed()) {
-            log.info("Stopping Kafka consumer...");
-            disposable.dispose();
+        if (!receivers.isDisposed()) {
+            log.info("Stopping Kafka consumers...");
+            receivers.dispose();
+        }
+        if (retryDisposable != null && !retryDisposable.isDisposed()) {
+            retryDisposable.dispose();
         }
     }
     
-    private Mono<Void> processMessage(ReceiverRecord<String, String> record) {
+    // Cada receptor es un consumer del grupo con sus particiones, su hilo (deserialización y reglas
+    // fuera del hilo de poll) y sus propios carriles; los receptores no comparten estado de offsets
+    private void startReceiver(int index) {
+        String clientId = receiverOptions.groupId() + "-" + index;
+        Scheduler scheduler = Schedulers.newSingle("kafka-consumer-" + index);
+        OrderedRecordProcessor<String, byte[]> processor = new OrderedRecordProcessor<>(
+            consumerConfig.getConcurrency(), consumerConfig.getMaxInFlight());
+        KafkaReceiver<String, byte[]> receiver = KafkaReceiver.create(receiverOptions
+            .consumerProperty(ConsumerConfig.CLIENT_ID_CONFIG, clientId)
+            .addAssignListener(processor::assign)
+            .addRevokeListener(processor::revoke));
+        
+        Flux<ReceiverRecord<String, byte[]>> records = receiver.receive()
+            .publishOn(scheduler, consumerConfig.getMaxPollRecords());
+        
+        log.info("Kafka consumer {} started", clientId);
+        pipelineMetrics.trackInFlight(clientId, processor::inFlight);
+        receivers.add(processor.process(records, this::processMessage)
+            .retryWhen(resubscribe(clientId))
+            .subscribe());
+        receivers.add(pipelineMetrics.monitorLag(receiver));
+        receivers.add(scheduler);
+    }
+    
+    // Un registro que no se pudo procesar ni desviar hace fallar el receptor: se recrea el consumer,
+    // que vuelve a leer desde el último offset confirmado de sus particiones
+    private Retry resubscribe(String clientId) {
+        return Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+            .maxBackoff(Duration.ofSeconds(30))
+            .transientErrors(true)
+            .doBeforeRetry(signal -> log.warn("Kafka consumer {} failed, resubscribing: {}",
+                clientId, signal.failure().getMessage()));
+    }
+    
+    // Un fallo se desvía al tópico de reintento y el registro se confirma; solo queda sin
+    // confirmar si el desvío mismo falla
+    private Mono<Void> processMessage(ReceiverRecord<String, byte[]> record) {
+        return pipelineMetrics.timeStage("process", handle(record, record.partition()))
+            .onErrorResume(error -> {
+                log.error("Error processing message: key={}, partition={}, offset={}, error: {}",
+                    record.key(), record.partition(), record.offset(), error.getMessage(), error);
+                return retryRouter.route(record, error);
+            });
+    }
+    
+    // Cada partición de reintento se procesa en serie: sus registros vencen en el mismo orden en que llegaron
+    private Flux<Void> consumeRetries(Flux<ReceiverRecord<String, byte[]>> records) {
+        log.info("Retry consumer enabled");
+        
+        return records
+            .groupBy(record -> record.receiverOffset().topicPartition(), consumerConfig.getMaxInFlight())
+            .flatMap(partition -> partition.concatMap(this::processRetry), Integer.MAX_VALUE);
+    }
+    
+    private Mono<Void> processRetry(ReceiverRecord<String, byte[]> record) {
+        return retryRouter.awaitDue(record)
+            .then(Mono.defer(() -> handle(record, RetryTopicPolicy.originalPartition(record))))
+            .onErrorResume(error -> {
+                log.error("Retry attempt {} failed for key: {}, error: {}",
+                    RetryTopicPolicy.attempt(record.headers()), record.key(), error.getMessage());
+                // Si no se puede desviar, se insiste: confirmar aquí perdería el registro
+                return retryRouter.route(record, error)
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)));
+            })
+            .doOnSuccess(v -> record.receiverOffset().acknowledge());
+    }
+    
+    // partition es la del tópico principal: para un reintento, la de origen
+    private Mono<Void> handle(ReceiverRecord<String, byte[]> record, int partition) {
         return Mono.fromCallable(() -> {
-            log.info("Received transaction created event: key={}, partition={}, offset={}",
-                record.key(), record.partition(), record.offset());
+            log.info("Received transaction created event: topic={}, key={}, partition={}, offset={}",
+                record.topic(), record.key(), record.partition(), record.offset());
             
             try {
-                return objectMapper.readValue(
-                    record.value(),
-                    TransactionCreatedEvent.class
+                return eventDeserializer.deserialize(
+                    record.topic(),
+                    record.value()
                 );
             } catch (Exception e) {
                 log.error("Error deserializing message: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to deserialize message", e);
+                throw new SerializationException("Failed to deserialize message", e);
             }
         })
         .flatMap(event -> {
+            // Los reintentos esperaron su backoff a propósito: no cuentan como latencia del flujo
+            if (RetryTopicPolicy.attempt(record.headers()) == 0) {
+                pipelineMetrics.recordConsumed(record, event.getEventTimestamp());
+            }
+            if (deduplicator.isDuplicate(partition, record.offset(), event.getEventId())) {
+                return Mono.empty();
+            }
             log.info("Processing transaction: transactionId={}, amount={}",
                 event.getTransactionId(), event.getValue());
             
-            // Simular procesamiento de la transacción
-            return processTransaction(event);
-        })
-        .doOnSuccess(result -> {
-            log.info("Successfully processed transaction: {}", record.key());
-            record.receiverOffset().acknowledge();
-        })
-        .doOnError(error -> {
-            log.error("Error processing message for transaction: {}, error: {}",
-                record.key(), error.getMessage(), error);
-            record.receiverOffset().acknowledge();
-        })
-        .onErrorResume(error -> Mono.empty())
-        .then();
+            // Validar la transacción contra las reglas antifraude
+            return processTransaction(event, partition)
+                .doOnSuccess(v -> {
+                    deduplicator.markProcessed(partition, event.getEventId());
+                    log.info("Successfully processed transaction: {}", event.getTransactionId());
+                });
+        });
     }
     
-    private Mono<Void> processTransaction(TransactionCreatedEvent event) {
-        // Simular el procesamiento asíncrono de la transacción
-        return Mono.delay(Duration.ofSeconds(2))
-            .flatMap(delay -> {
-                
-                log.info("Transaction processed: transactionId={}",
-                    event.getTransactionId());
-                
-                // Actualizar el estado
-                return statusService.validateTransactionStatus(
-                    event.getTransactionId(),
-                    event.getTransactionStatus().getName(),
-                    "status-service",
-                    event.getValue()
-                );
-            });
+    private Mono<Void> processTransaction(TransactionCreatedEvent event, int partition) {
+        // Evaluar reglas antifraude y publicar el nuevo estado
+        return statusService.validateTransactionStatus(event, partition, "status-service");
     }
 }
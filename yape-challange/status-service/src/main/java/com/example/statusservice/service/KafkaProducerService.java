@@ -1,16 +1,14 @@
 package com.example.statusservice.service;
 
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.kafka.EventSerializer;
+import com.example.events.kafka.KafkaPublisher;
 import com.example.statusservice.config.KafkaTopicConfig;
-import com.example.statusservice.dto.TransactionStatusUpdatedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.kafka.sender.KafkaSender;
-import reactor.kafka.sender.SenderRecord;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -20,9 +18,9 @@ import java.util.UUID;
 @Slf4j
 public class KafkaProducerService {
     
-    private final KafkaSender<String, String> kafkaSender;
+    private final KafkaPublisher kafkaPublisher;
     private final KafkaTopicConfig topicConfig;
-    private final ObjectMapper objectMapper;
+    private final EventSerializer<TransactionStatusUpdatedEvent> eventSerializer;
     
     public Mono<Void> publishStatusUpdated(TransactionStatusUpdatedEvent event) {
         return Mono.fromCallable(() -> {
@@ -34,31 +32,21 @@ public class KafkaProducerService {
                 event.setEventTimestamp(LocalDateTime.now());
             }
             
-            try {
-                return objectMapper.writeValueAsString(event);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Error serializing event", e);
-            }
+            return eventSerializer.serialize(topicConfig.getAntiFraudValidation(), event);
         })
-        .flatMap(eventJson -> {
-            ProducerRecord<String, String> producerRecord = new ProducerRecord<>(
+        .flatMap(eventBytes -> {
+            ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(
                 topicConfig.getAntiFraudValidation(),
                 event.getTransactionId(),
-                eventJson
-            );
-            
-            SenderRecord<String, String, String> senderRecord = SenderRecord.create(
-                producerRecord,
-                event.getTransactionId()
+                eventBytes
             );
             
-            return kafkaSender.send(Mono.just(senderRecord))
-                .next()
-                .doOnSuccess(result -> {
+            return kafkaPublisher.send(producerRecord)
+                .doOnSuccess(metadata -> {
                     log.info("Successfully published status update event: transactionId={}, partition={}, offset={}",
                         event.getTransactionId(),
-                        result.recordMetadata().partition(),
-                        result.recordMetadata().offset());
+                        metadata.partition(),
+                        metadata.offset());
                 })
                 .doOnError(error -> {
                     log.error("Error publishing status update event: transactionId={}, error={}",
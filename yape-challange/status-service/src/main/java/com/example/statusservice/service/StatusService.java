@@ -1,13 +1,19 @@
 package com.example.statusservice.service;
 
-import com.example.statusservice.dto.TransactionStatusUpdatedEvent;
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.kafka.ConsumerPipelineMetrics;
+import com.example.statusservice.rules.FraudEvaluation;
+import com.example.statusservice.rules.FraudRule;
+import com.example.statusservice.rules.FraudRuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -15,25 +21,46 @@ import java.time.LocalDateTime;
 public class StatusService {
 
     private final KafkaProducerService kafkaProducerService;
+    private final FraudRuleEngine fraudRuleEngine;
+    private final ConsumerPipelineMetrics pipelineMetrics;
 
-    public Mono<Void> validateTransactionStatus(
-            String transactionId,
-            String oldStatus,
-            String updatedBy,
-            BigDecimal amount) {
+    public Mono<Void> validateTransactionStatus(TransactionCreatedEvent transaction, int partition, String updatedBy) {
 
+        return pipelineMetrics.timeStage("validate", Mono.defer(() -> {
+                    // Crear evento
+                    long start = System.nanoTime();
+                    FraudEvaluation evaluation = fraudRuleEngine.evaluate(transaction, partition);
+                    TransactionStatusUpdatedEvent event = decide(transaction, evaluation, updatedBy);
+                    pipelineMetrics.recordStage("decide", "success", start);
 
-        // Crear evento
-        TransactionStatusUpdatedEvent event = TransactionStatusUpdatedEvent.builder()
-                .transactionId(transactionId)
-                .oldStatus(oldStatus)
-                .newStatus(amount.compareTo(BigDecimal.valueOf(999))>0 ? "REJECTED":"ACCEPTED")
+                    // Publicar evento y después contar la transacción en la ventana de su cuenta
+                    return pipelineMetrics.timeStage("publish", kafkaProducerService.publishStatusUpdated(event))
+                            .doOnSuccess(v -> fraudRuleEngine.recordEvaluated(evaluation));
+                }))
+                .doOnSuccess(v -> log.info("Status update event published for transaction: {}",
+                        transaction.getTransactionId()));
+    }
+
+    public TransactionStatusUpdatedEvent decide(TransactionCreatedEvent transaction, FraudEvaluation evaluation,
+                                                String updatedBy) {
+        FraudRule violatedRule = evaluation.getViolatedRule();
+
+        return TransactionStatusUpdatedEvent.builder()
+                .transactionId(transaction.getTransactionId())
+                .oldStatus(transaction.getTransactionStatus().getName())
+                .newStatus(violatedRule != null ? "REJECTED" : "ACCEPTED")
+                .reason(violatedRule != null ? violatedRule.name() : null)
                 .updatedBy(updatedBy)
                 .updatedAt(LocalDateTime.now())
+                .eventId(statusEventId(transaction))
                 .build();
+    }
 
-        // Publicar evento
-        return kafkaProducerService.publishStatusUpdated(event)
-                .doOnSuccess(v -> log.info("Status update event published for transaction: {}", transactionId));
+    // Reprocesar el mismo evento de entrada produce el mismo eventId de salida, así el consumidor aguas abajo lo deduplica
+    private String statusEventId(TransactionCreatedEvent transaction) {
+        if (transaction.getEventId() == null) {
+            return null;
+        }
+        return UUID.nameUUIDFromBytes((transaction.getEventId() + ":status").getBytes(StandardCharsets.UTF_8)).toString();
     }
 }
@@ -0,0 +1,174 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.statusservice.config.VelocityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountVelocityAggregatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final VelocityConfig velocityConfig = new VelocityConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountVelocityAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana de 10s en buckets de 1s
+        velocityConfig.setWindow(Duration.ofSeconds(10));
+        velocityConfig.setBuckets(10);
+        aggregator = new AccountVelocityAggregator(velocityConfig, meterRegistry);
+        aggregator.init();
+        aggregator.onPartitionsAssigned(List.of(0));
+    }
+
+    @Test
+    void peekCountsTheEvaluatedTransactionWithoutRecordingIt() {
+        assertThat(peek(0, "a", "5", 0).getWindowCount()).isEqualTo(1);
+        assertThat(peek(0, "a", "5", 0).getWindowCount()).isEqualTo(1);
+
+        record(0, "a", "5", 0);
+        FraudCheckContext context = peek(0, "a", "2.50", 1);
+
+        assertThat(context.getWindowCount()).isEqualTo(2);
+        assertThat(context.getWindowAmountMinorUnits()).isEqualTo(750);
+    }
+
+    @Test
+    void bucketsLeaveTheWindowAsEventTimeAdvances() {
+        record(0, "a", "1", 0);
+        record(0, "a", "2", 5);
+
+        assertThat(peek(0, "a", "0", 9).getWindowCount()).isEqualTo(3);
+        FraudCheckContext afterFirst = peek(0, "a", "0", 10);
+        assertThat(afterFirst.getWindowCount()).isEqualTo(2);
+        assertThat(afterFirst.getWindowAmountMinorUnits()).isEqualTo(200);
+        assertThat(peek(0, "a", "0", 15).getWindowCount()).isEqualTo(1);
+
+        record(0, "a", "3", 16);
+        assertThat(peek(0, "a", "0", 100).getWindowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lateEventsCountOnlyInsideTheWindow() {
+        record(0, "a", "1", 10);
+        record(0, "a", "1", 3);
+        record(0, "a", "1", 0);
+
+        assertThat(peek(0, "a", "1", 10).getWindowCount()).isEqualTo(3);
+    }
+
+    @Test
+    void accountsWithoutDebitAccountAreNotCounted() {
+        record(0, null, "1", 0);
+        FraudCheckContext context = peek(0, null, "1", 0);
+
+        assertThat(context.getWindowCount()).isZero();
+        assertThat(accounts()).isZero();
+    }
+
+    @Test
+    void partitionsKeepSeparateWindows() {
+        aggregator.onPartitionsAssigned(List.of(1));
+        record(0, "a", "1", 0);
+
+        assertThat(peek(1, "a", "1", 0).getWindowCount()).isEqualTo(1);
+        assertThat(peek(0, "a", "1", 0).getWindowCount()).isEqualTo(2);
+    }
+
+    @Test
+    void aRetryForAPartitionOfAnotherInstanceIsNotRecorded() {
+        record(3, "a", "1", 0);
+
+        assertThat(aggregator.trackedPartitions()).isEqualTo(1);
+        assertThat(accounts()).isZero();
+        assertThat(peek(3, "a", "1", 0).getWindowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void theLeastRecentlyUsedAccountIsEvictedAtCapacity() {
+        velocityConfig.setMaxAccountsPerPartition(2);
+        record(0, "a", "1", 0);
+        record(0, "b", "1", 0);
+        record(0, "a", "1", 1);
+        record(0, "c", "1", 2);
+
+        assertThat(accounts()).isEqualTo(2);
+        assertThat(peek(0, "a", "1", 2).getWindowCount()).isEqualTo(3);
+        assertThat(peek(0, "b", "1", 2).getWindowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void idleAccountsAreEvictedABoundedNumberAtATime() {
+        velocityConfig.setIdleTimeout(Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            record(0, "idle-" + i, "1", 0);
+        }
+
+        record(0, "active", "1", 120);
+        assertThat(accounts()).isEqualTo(3);
+
+        record(0, "active", "1", 121);
+        assertThat(accounts()).isEqualTo(1);
+    }
+
+    @Test
+    void aPartitionThatComesBackKeepsItsWindows() {
+        record(0, "a", "1", 0);
+
+        aggregator.onPartitionsRevoked(List.of(0));
+        assertThat(aggregator.trackedPartitions()).isZero();
+        assertThat(aggregator.retainedPartitions()).isEqualTo(1);
+        // Un registro que termina durante la revocación sigue contando
+        record(0, "a", "1", 1);
+        assertThat(peek(0, "a", "1", 1).getWindowCount()).isEqualTo(3);
+
+        aggregator.onPartitionsAssigned(List.of(0));
+        assertThat(aggregator.retainedPartitions()).isZero();
+        assertThat(peek(0, "a", "1", 2).getWindowCount()).isEqualTo(3);
+    }
+
+    @Test
+    void unclaimedWindowsExpireAfterTheRetention() {
+        velocityConfig.setRevokedRetention(Duration.ZERO);
+        record(0, "a", "1", 0);
+
+        aggregator.onPartitionsRevoked(List.of(0));
+        assertThat(aggregator.retainedPartitions()).isZero();
+
+        aggregator.onPartitionsAssigned(List.of(0));
+        assertThat(peek(0, "a", "1", 1).getWindowCount()).isEqualTo(1);
+    }
+
+    private double accounts() {
+        return meterRegistry.get("anti.fraud.velocity.accounts").gauge().value();
+    }
+
+    private FraudCheckContext peek(int partition, String account, String value, long atSeconds) {
+        FraudCheckContext context = new FraudCheckContext().reset(event(account, value, atSeconds), partition);
+        aggregator.peek(context);
+        return context;
+    }
+
+    private void record(int partition, String account, String value, long atSeconds) {
+        FraudCheckContext context = new FraudCheckContext().reset(event(account, value, atSeconds), partition);
+        aggregator.record(partition, account, context.getAmountMinorUnits(), context.getEventTimeMillis());
+    }
+
+    private static TransactionCreatedEvent event(String account, String value, long atSeconds) {
+        return TransactionCreatedEvent.builder()
+            .value(new BigDecimal(value))
+            .accountExternalIdDebit(account)
+            .eventTimestamp(START.plusSeconds(atSeconds))
+            .build();
+    }
+}
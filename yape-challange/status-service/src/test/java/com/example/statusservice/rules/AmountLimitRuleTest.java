@@ -0,0 +1,55 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmountLimitRuleTest {
+
+    private final AmountLimitRule rule = new AmountLimitRule(new BigDecimal("1000"), Map.of(
+        "1", new BigDecimal("500"),
+        "2000", new BigDecimal("50"),
+        "transfer", new BigDecimal("100")));
+
+    @Test
+    void theLimitOfTheTypeApplies() {
+        assertThat(rule.violates(context("1", "500.00"))).isFalse();
+        assertThat(rule.violates(context("1", "500.01"))).isTrue();
+        assertThat(rule.violates(context("transfer", "100.01"))).isTrue();
+    }
+
+    @Test
+    void typeCodesOutsideTheIndexAreLookedUpByName() {
+        assertThat(rule.violates(context("2000", "50.01"))).isTrue();
+        assertThat(rule.violates(context("2000", "50"))).isFalse();
+    }
+
+    @Test
+    void typesWithoutALimitUseTheDefault() {
+        assertThat(rule.violates(context("2", "1000"))).isFalse();
+        assertThat(rule.violates(context("2", "1000.01"))).isTrue();
+        assertThat(rule.violates(context("unknown", "1000.01"))).isTrue();
+        assertThat(rule.violates(context(null, "1000.01"))).isTrue();
+    }
+
+    @Test
+    void withoutADefaultOnlyTheConfiguredTypesAreLimited() {
+        AmountLimitRule typesOnly = new AmountLimitRule(null, Map.of("1", new BigDecimal("500")));
+
+        assertThat(typesOnly.violates(context("1", "501"))).isTrue();
+        assertThat(typesOnly.violates(context("2", "1000000"))).isFalse();
+    }
+
+    private static FraudCheckContext context(String type, String value) {
+        TransactionCreatedEvent event = TransactionCreatedEvent.builder()
+            .transactionType(type != null ? new TransactionType(type) : null)
+            .value(new BigDecimal(value))
+            .build();
+        return new FraudCheckContext().reset(event, 0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledRuleSetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FraudCheckContext context = new FraudCheckContext()
+        .reset(TransactionCreatedEvent.builder().value(BigDecimal.ONE).build(), 0);
+
+    @Test
+    void returnsTheFirstViolatedRuleAndStopsThere() {
+        CountingRule passes = new CountingRule("passes", false);
+        CountingRule first = new CountingRule("first", true);
+        CountingRule second = new CountingRule("second", true);
+        CompiledRuleSet ruleSet = new CompiledRuleSet(List.of(passes, first, second), meterRegistry);
+
+        assertThat(ruleSet.evaluate(context)).isSameAs(first);
+        assertThat(passes.evaluations.get()).isEqualTo(1);
+        assertThat(second.evaluations.get()).isZero();
+    }
+
+    @Test
+    void acceptsWhenNoRuleIsViolated() {
+        CompiledRuleSet ruleSet = new CompiledRuleSet(List.of(new CountingRule("passes", false)), meterRegistry);
+
+        assertThat(ruleSet.evaluate(context)).isNull();
+        assertThat(new CompiledRuleSet(List.of(), meterRegistry).evaluate(context)).isNull();
+    }
+
+    @Test
+    void eachRuleIsTimedUnderItsName() {
+        CompiledRuleSet ruleSet = new CompiledRuleSet(
+            List.of(new CountingRule("passes", false), new CountingRule("violated", true)), meterRegistry);
+
+        ruleSet.evaluate(context);
+        ruleSet.evaluate(context);
+
+        assertThat(ruleSet.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("anti.fraud.rule.evaluation").tag("rule", "passes").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("anti.fraud.rule.evaluation").tag("rule", "violated").timer().count()).isEqualTo(2);
+    }
+
+    private static final class CountingRule implements FraudRule {
+
+        private final String name;
+        private final boolean violated;
+        private final AtomicInteger evaluations = new AtomicInteger();
+
+        CountingRule(String name, boolean violated) {
+            this.name = name;
+            this.violated = violated;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean violates(FraudCheckContext context) {
+            evaluations.incrementAndGet();
+            return violated;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DenyListRuleTest {
+
+    private final DenyListRule rule = new DenyListRule(List.of("blocked"));
+
+    @Test
+    void eitherSideOfTheTransactionIsChecked() {
+        assertThat(rule.violates(context("blocked", "other"))).isTrue();
+        assertThat(rule.violates(context("other", "blocked"))).isTrue();
+        assertThat(rule.violates(context("other", "another"))).isFalse();
+    }
+
+    @Test
+    void missingAccountsAreNotDenied() {
+        assertThat(rule.violates(context(null, null))).isFalse();
+    }
+
+    private static FraudCheckContext context(String debit, String credit) {
+        TransactionCreatedEvent event = TransactionCreatedEvent.builder()
+            .value(BigDecimal.ONE)
+            .accountExternalIdDebit(debit)
+            .accountExternalIdCredit(credit)
+            .build();
+        return new FraudCheckContext().reset(event, 0);
+    }
+}
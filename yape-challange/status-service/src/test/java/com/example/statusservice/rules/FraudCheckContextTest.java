@@ -0,0 +1,105 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionType;
+import com.example.events.kafka.NonRetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FraudCheckContextTest {
+
+    @Test
+    void minorUnitsAreExactForAnyScale() {
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("12.34"))).isEqualTo(1234);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("1.5"))).isEqualTo(150);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("5"))).isEqualTo(500);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("1E+3"))).isEqualTo(100_000);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("-7.25"))).isEqualTo(-725);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("0.005"))).isEqualTo(1);
+    }
+
+    @Test
+    void minorUnitsMatchTheExactConversionAroundTheFastPathLimit() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long unscaled = random.nextLong() % (i % 2 == 0 ? 1_000_000_000_000_000L : 100_000L);
+            BigDecimal amount = BigDecimal.valueOf(unscaled, random.nextInt(5) - 1);
+            BigDecimal exact = amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2);
+
+            if (exact.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+                assertThat(FraudCheckContext.toMinorUnits(amount)).as(amount.toPlainString())
+                    .isEqualTo(exact.longValueExact());
+            }
+        }
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("9999999999999.99"))).isEqualTo(999_999_999_999_999L);
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("10000000000000.01"))).isEqualTo(1_000_000_000_000_001L);
+    }
+
+    @Test
+    void amountsThatDoNotFitInALongAreRejected() {
+        assertThat(FraudCheckContext.toMinorUnits(new BigDecimal("92233720368547758.07"))).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> FraudCheckContext.toMinorUnits(new BigDecimal("92233720368547758.08")))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FraudCheckContext.toMinorUnits(new BigDecimal("1E+17")))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FraudCheckContext.toMinorUnits(new BigDecimal("1E+30")))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void anOutOfRangeAmountIsNotRetried() {
+        TransactionCreatedEvent event = event("1", new BigDecimal("1E+30"));
+
+        assertThatThrownBy(() -> new FraudCheckContext().reset(event, 0))
+            .isInstanceOf(NonRetryableException.class);
+    }
+
+    @Test
+    void resetReadsTheEvent() {
+        TransactionCreatedEvent event = event("3", new BigDecimal("10.50"));
+
+        FraudCheckContext context = new FraudCheckContext().reset(event, 4);
+        context.setWindowTotals(2, 100);
+        context.reset(event, 4);
+
+        assertThat(context.getTransactionTypeCode()).isEqualTo(3);
+        assertThat(context.getAmountMinorUnits()).isEqualTo(1050);
+        assertThat(context.getPartition()).isEqualTo(4);
+        assertThat(context.getWindowCount()).isZero();
+        assertThat(context.getWindowAmountMinorUnits()).isZero();
+        assertThat(new FraudCheckContext().reset(event("transfer", null), 0).getTransactionTypeCode())
+            .isEqualTo(FraudCheckContext.UNKNOWN_TYPE);
+    }
+
+    @Test
+    void eventTimeIsTheEpochMillisOfTheEventTimestamp() {
+        LocalDateTime time = LocalDateTime.now().withNano(123_000_000);
+        TransactionCreatedEvent event = event("1", BigDecimal.ONE);
+        event.setEventTimestamp(time);
+
+        assertThat(FraudCheckContext.eventTimeMillis(event))
+            .isEqualTo(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        event.setEventTimestamp(null);
+        event.setCreatedAt(time.minusSeconds(1));
+        assertThat(FraudCheckContext.eventTimeMillis(event))
+            .isEqualTo(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - 1000);
+    }
+
+    private static TransactionCreatedEvent event(String type, BigDecimal value) {
+        return TransactionCreatedEvent.builder()
+            .transactionType(new TransactionType(type))
+            .value(value)
+            .accountExternalIdDebit("debit")
+            .accountExternalIdCredit("credit")
+            .build();
+    }
+}
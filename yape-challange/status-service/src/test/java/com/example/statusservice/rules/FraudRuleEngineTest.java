@@ -0,0 +1,151 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionType;
+import com.example.statusservice.config.FraudRulesConfig;
+import com.example.statusservice.config.VelocityConfig;
+import com.example.statusservice.dto.FraudRuleSetDefinition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FraudRuleEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FraudRulesConfig rulesConfig = new FraudRulesConfig();
+    private final VelocityConfig velocityConfig = new VelocityConfig();
+    private FraudRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccountVelocityAggregator velocityAggregator = new AccountVelocityAggregator(velocityConfig, meterRegistry);
+        velocityAggregator.init();
+        velocityAggregator.onPartitionsAssigned(List.of(0));
+        engine = new FraudRuleEngine(rulesConfig, new ObjectMapper(), meterRegistry, velocityAggregator);
+    }
+
+    @Test
+    void compilesOnlyTheConfiguredRules() {
+        assertThat(engine.reload()).isEqualTo(1);
+        assertThat(engine.evaluate(event("a", "999"), 0).isRejected()).isFalse();
+        assertThat(engine.evaluate(event("a", "999.01"), 0).getViolatedRule().name()).isEqualTo("amount-limit");
+
+        rulesConfig.setRules(FraudRuleSetDefinition.builder()
+            .defaultAmountLimit(null)
+            .denyListedAccounts(List.of("blocked"))
+            .velocityMaxCount(5)
+            .build());
+        assertThat(engine.reload()).isEqualTo(2);
+        assertThat(engine.evaluate(event("blocked", "1"), 0).getViolatedRule().name()).isEqualTo("deny-list");
+        assertThat(engine.evaluate(event("a", "1000000"), 0).isRejected()).isFalse();
+    }
+
+    @Test
+    void velocityLimitsAreIgnoredWhenTheAggregatorIsDisabled() {
+        velocityConfig.setEnabled(false);
+        rulesConfig.setRules(FraudRuleSetDefinition.builder().defaultAmountLimit(null).velocityMaxCount(1).build());
+
+        assertThat(engine.reload()).isZero();
+    }
+
+    @Test
+    void theVelocityWindowCountsOnlyRecordedTransactions() {
+        rulesConfig.setRules(FraudRuleSetDefinition.builder().defaultAmountLimit(null).velocityMaxCount(2).build());
+        engine.reload();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(engine.evaluate(event("a", "1"), 0).isRejected()).isFalse();
+            // Evaluar otra vez el mismo evento (reentrega) no cuenta
+            FraudEvaluation evaluation = engine.evaluate(event("a", "1"), 0);
+            assertThat(evaluation.isRejected()).isFalse();
+            assertThat(evaluation.getAmountMinorUnits()).isEqualTo(100);
+            engine.recordEvaluated(evaluation);
+        }
+
+        assertThat(engine.evaluate(event("a", "1"), 0).getViolatedRule().name()).isEqualTo("velocity");
+        assertThat(engine.evaluate(event("b", "1"), 0).isRejected()).isFalse();
+    }
+
+    @Test
+    void theRulesFileTakesPrecedenceOverTheConfiguration() throws IOException {
+        Path file = writeRules("{\"defaultAmountLimit\": 10}", 1_000);
+        rulesConfig.setRulesFile(file.toString());
+
+        engine.reload();
+
+        assertThat(engine.evaluate(event("a", "10.01"), 0).getViolatedRule().name()).isEqualTo("amount-limit");
+    }
+
+    @Test
+    void aMissingRulesFileFallsBackToTheConfiguration() {
+        rulesConfig.setRulesFile(tempDir.resolve("missing.json").toString());
+
+        assertThat(engine.reload()).isEqualTo(1);
+        assertThat(engine.evaluate(event("a", "999"), 0).isRejected()).isFalse();
+    }
+
+    @Test
+    void reloadsWhenTheRulesFileChanges() throws IOException {
+        Path file = writeRules("{\"defaultAmountLimit\": 10}", 1_000);
+        rulesConfig.setRulesFile(file.toString());
+        engine.reload();
+
+        // Mismo mtime: no se relee aunque el contenido sea otro
+        writeRules("{\"defaultAmountLimit\": 100}", 1_000);
+        engine.reloadIfChanged();
+        assertThat(engine.evaluate(event("a", "50"), 0).isRejected()).isTrue();
+
+        writeRules("{\"defaultAmountLimit\": 100}", 2_000);
+        engine.reloadIfChanged();
+        assertThat(engine.evaluate(event("a", "50"), 0).isRejected()).isFalse();
+        assertThat(engine.evaluate(event("a", "100.01"), 0).isRejected()).isTrue();
+    }
+
+    @Test
+    void keepsThePreviousRulesWhenAReloadFails() throws IOException {
+        Path file = writeRules("{\"defaultAmountLimit\": 10}", 1_000);
+        rulesConfig.setRulesFile(file.toString());
+        engine.reload();
+
+        writeRules("{\"defaultAmountLimit\": ", 2_000);
+        assertThatThrownBy(engine::reloadIfChanged).isInstanceOf(IllegalStateException.class);
+        assertThat(engine.evaluate(event("a", "10.01"), 0).getViolatedRule().name()).isEqualTo("amount-limit");
+
+        writeRules("{\"velocityMaxAmount\": 1E+30}", 3_000);
+        assertThatThrownBy(engine::reloadIfChanged).isInstanceOf(ArithmeticException.class);
+        assertThat(engine.evaluate(event("a", "10.01"), 0).getViolatedRule().name()).isEqualTo("amount-limit");
+    }
+
+    private Path writeRules(String json, long lastModifiedMillis) throws IOException {
+        Path file = tempDir.resolve("fraud-rules.json");
+        Files.writeString(file, json);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModifiedMillis));
+        return file;
+    }
+
+    private static TransactionCreatedEvent event(String debit, String value) {
+        return TransactionCreatedEvent.builder()
+            .transactionType(new TransactionType("1"))
+            .value(new BigDecimal(value))
+            .accountExternalIdDebit(debit)
+            .accountExternalIdCredit("credit")
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+}
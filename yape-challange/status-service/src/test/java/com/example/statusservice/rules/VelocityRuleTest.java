@@ -0,0 +1,43 @@
+package com.example.statusservice.rules;
+
+import com.example.events.TransactionCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityRuleTest {
+
+    @Test
+    void countAboveTheLimitViolates() {
+        VelocityRule rule = new VelocityRule(3, null);
+
+        assertThat(rule.violates(context(3, Long.MAX_VALUE))).isFalse();
+        assertThat(rule.violates(context(4, 0))).isTrue();
+    }
+
+    @Test
+    void amountAboveTheLimitViolatesInMinorUnits() {
+        VelocityRule rule = new VelocityRule(null, new BigDecimal("50.25"));
+
+        assertThat(rule.violates(context(1_000, 5025))).isFalse();
+        assertThat(rule.violates(context(1, 5026))).isTrue();
+    }
+
+    @Test
+    void eitherLimitViolates() {
+        VelocityRule rule = new VelocityRule(2, new BigDecimal("10"));
+
+        assertThat(rule.violates(context(3, 100))).isTrue();
+        assertThat(rule.violates(context(1, 1001))).isTrue();
+        assertThat(rule.violates(context(2, 1000))).isFalse();
+    }
+
+    private static FraudCheckContext context(long windowCount, long windowAmountMinorUnits) {
+        FraudCheckContext context = new FraudCheckContext()
+            .reset(TransactionCreatedEvent.builder().value(BigDecimal.ONE).build(), 0);
+        context.setWindowTotals(windowCount, windowAmountMinorUnits);
+        return context;
+    }
+}
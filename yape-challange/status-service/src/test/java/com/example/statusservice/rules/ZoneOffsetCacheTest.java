@@ -0,0 +1,54 @@
+package com.example.statusservice.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZoneOffsetCacheTest {
+
+    @Test
+    void matchesAtZoneAcrossDaylightSavingChanges() {
+        for (String zone : List.of("America/New_York", "Europe/London", "America/Lima", "UTC")) {
+            ZoneId zoneId = ZoneId.of(zone);
+            ZoneOffsetCache cache = new ZoneOffsetCache(zoneId);
+            List<LocalDateTime> times = new ArrayList<>();
+            // Cada 7 minutos y 13 segundos durante dos años: pasa por las horas saltadas y repetidas
+            for (LocalDateTime time = LocalDateTime.of(2025, 1, 1, 0, 0, 0, 123_000_000);
+                 time.getYear() < 2027; time = time.plusSeconds(433)) {
+                times.add(time);
+            }
+
+            assertSameInstants(cache, zoneId, times);
+            Collections.shuffle(times, new Random(7));
+            assertSameInstants(cache, zoneId, times);
+        }
+    }
+
+    @Test
+    void resolvesTheSkippedAndRepeatedHours() {
+        ZoneId zoneId = ZoneId.of("America/New_York");
+        ZoneOffsetCache cache = new ZoneOffsetCache(zoneId);
+
+        assertSameInstants(cache, zoneId, List.of(
+            LocalDateTime.of(2026, 3, 8, 1, 59, 59),
+            LocalDateTime.of(2026, 3, 8, 2, 30),
+            LocalDateTime.of(2026, 3, 8, 3, 0),
+            LocalDateTime.of(2026, 11, 1, 0, 59, 59),
+            LocalDateTime.of(2026, 11, 1, 1, 30),
+            LocalDateTime.of(2026, 11, 1, 2, 0)));
+    }
+
+    private static void assertSameInstants(ZoneOffsetCache cache, ZoneId zoneId, List<LocalDateTime> times) {
+        for (LocalDateTime time : times) {
+            assertThat(cache.toEpochMillis(time)).as("%s %s", zoneId, time)
+                .isEqualTo(time.atZone(zoneId).toInstant().toEpochMilli());
+        }
+    }
+}
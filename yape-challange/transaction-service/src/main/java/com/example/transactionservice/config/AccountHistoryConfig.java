@@ -0,0 +1,25 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.account-history")
+@Getter
+@Setter
+public class AccountHistoryConfig {
+
+    private boolean cacheEnabled = true;
+    // Transacciones más recientes guardadas por cuenta y lado; primeras páginas de hasta este tamaño
+    private int recentSize = 50;
+    // Cuentas en caché; Caffeine retiene las más consultadas
+    private long cacheMaximumSize = 10_000;
+    // Páginas con solo estados finales; acota cuánto tarda en verse un alta hecha en otra instancia
+    private Duration expireAfterWrite = Duration.ofSeconds(10);
+    // Páginas con alguna transacción PENDING: su decisión puede aplicarla otra instancia
+    private Duration pendingExpireAfterWrite = Duration.ofSeconds(1);
+}
@@ -0,0 +1,34 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.admission")
+@Getter
+@Setter
+public class AdmissionConfig {
+
+    private boolean enabled = true;
+    // Límite de altas concurrentes: arranca en initialLimit y se ajusta entre minLimit y maxLimit
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    // Cuánto puede crecer la latencia reciente sobre la de referencia antes de reducir el límite
+    private double rttTolerance = 1.5;
+    // Muestras que promedia la latencia reciente y la de referencia
+    private int shortWindow = 10;
+    private int longWindow = 600;
+    // Peso de cada nuevo cálculo sobre el límite actual
+    private double smoothing = 0.2;
+    // Reducción multiplicativa cuando una petición agota el pool de conexiones o expira
+    private double backoffRatio = 0.9;
+    // Señal de Kafka: eventos del outbox sin publicar o relay sin completar un ciclo
+    private long maxOutboxBacklog = 50_000;
+    private Duration maxRelayStall = Duration.ofSeconds(10);
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,18 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.bulk")
+@Getter
+@Setter
+public class BulkTransactionConfig {
+
+    // Filas por INSERT multi-fila y por transacción de base de datos
+    private int chunkSize = 1000;
+    // Chunks persistiéndose a la vez; los resultados se devuelven en orden igualmente
+    private int concurrency = 2;
+}
@@ -0,0 +1,28 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.decision-await")
+@Getter
+@Setter
+public class DecisionAwaitConfig {
+
+    // Máximo aceptado en POST /api/v1/transactions?await=
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    // Transacciones esperando decisión por instancia; por encima se responde 202 sin esperar
+    private int maxWaiters = 50_000;
+    // Sondeo de la base de datos para las decisiones que consume otra instancia
+    private boolean pollEnabled = true;
+    private Duration pollInterval = Duration.ofMillis(50);
+    // Cada espera se consulta tras pollMinBackoff y luego con backoff exponencial hasta pollMaxBackoff
+    private Duration pollMinBackoff = Duration.ofMillis(100);
+    private Duration pollMaxBackoff = Duration.ofSeconds(1);
+    // Transacciones consultadas como máximo en cada sondeo
+    private int pollBatchSize = 500;
+}
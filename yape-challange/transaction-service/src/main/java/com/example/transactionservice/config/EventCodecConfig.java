@@ -0,0 +1,33 @@
+package com.example.transactionservice.config;
+
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.codec.EventCodecs;
+import com.example.events.codec.EventFormat;
+import com.example.events.kafka.EventDeserializer;
+import com.example.events.kafka.EventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "kafka.serialization")
+@Getter
+@Setter
+public class EventCodecConfig {
+    
+    private EventFormat format = EventFormat.BINARY;
+    
+    @Bean
+    public EventSerializer<TransactionCreatedEvent> transactionCreatedSerializer(ObjectMapper objectMapper) {
+        return new EventSerializer<>(EventCodecs.transactionCreated(format, objectMapper));
+    }
+    
+    @Bean
+    public EventDeserializer<TransactionStatusUpdatedEvent> transactionStatusUpdatedDeserializer(ObjectMapper objectMapper) {
+        return new EventDeserializer<>(EventCodecs.transactionStatusUpdated(format, objectMapper));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.idempotency")
+@Getter
+@Setter
+public class IdempotencyConfig {
+
+    // Claves recientes en memoria; el resto se consulta en Postgres
+    private long cacheMaximumSize = 100_000;
+    // Tiempo durante el cual un reintento con la misma clave devuelve la transacción original
+    private Duration retention = Duration.ofHours(24);
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,22 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "outbox.relay")
+@Getter
+@Setter
+public class OutboxConfig {
+
+    private boolean enabled = true;
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofMillis(200);
+    // Espera máxima a las confirmaciones de un lote; al vencer se revierte la transacción del relay
+    // y los eventos se reintentan en la siguiente pasada
+    private Duration publishTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,67 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.partitioning")
+@Getter
+@Setter
+public class PartitioningConfig {
+
+    private boolean enabled = true;
+    private Interval interval = Interval.MONTH;
+    // Particiones creadas por adelantado además de la actual
+    private int premake = 2;
+    // Una partición se retira cuando todo su rango es más antiguo que la retención
+    private Duration retention = Duration.ofDays(365);
+    // true: se exporta a <archive-directory>/<partición>.ndjson.gz y se elimina; false: solo se desvincula
+    private boolean archiveEnabled = true;
+    private Path archiveDirectory = Path.of("archive", "transactions");
+    private Duration maintenanceInterval = Duration.ofHours(1);
+    // Espera máxima por el lock de la tabla padre al crear o desvincular particiones
+    private Duration lockTimeout = Duration.ofSeconds(5);
+
+    public enum Interval {
+        DAY(DateTimeFormatter.ofPattern("yyyyMMdd")),
+        MONTH(DateTimeFormatter.ofPattern("yyyyMM"));
+
+        private final DateTimeFormatter suffixFormat;
+
+        Interval(DateTimeFormatter suffixFormat) {
+            this.suffixFormat = suffixFormat;
+        }
+
+        public LocalDate start(LocalDate date) {
+            return this == DAY ? date : date.withDayOfMonth(1);
+        }
+
+        public LocalDate next(LocalDate start) {
+            return this == DAY ? start.plusDays(1) : start.plusMonths(1);
+        }
+
+        public String suffix(LocalDate start) {
+            return suffixFormat.format(start);
+        }
+
+        // Una partición mensual sigue siendo reconocible tras cambiar a particiones diarias
+        public static Interval ofSuffix(String suffix) {
+            return switch (suffix.length()) {
+                case 8 -> DAY;
+                case 6 -> MONTH;
+                default -> null;
+            };
+        }
+
+        public LocalDate parse(String suffix) {
+            return LocalDate.parse(this == DAY ? suffix : suffix + "01", DateTimeFormatter.BASIC_ISO_DATE);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.transactionservice.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+public class R2dbcConversionsConfig {
+
+    // Reemplaza la de Spring Boot: las columnas uuid se leen en los transactionId String del dominio.
+    // Al escribir, las consultas convierten el parámetro con CAST(... AS UUID)
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+            List.of(UuidToStringConverter.INSTANCE));
+    }
+
+    @ReadingConverter
+    enum UuidToStringConverter implements Converter<UUID, String> {
+        INSTANCE;
+
+        @Override
+        public String convert(UUID source) {
+            return source.toString();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.status-stream")
+@Getter
+@Setter
+public class StatusStreamConfig {
+
+    // Eventos pendientes por suscriptor; al llenarse se descartan los más antiguos
+    private int subscriberBufferSize = 256;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    // Sondeo de la base de datos para las decisiones que consume otra instancia
+    private boolean pollEnabled = true;
+    private Duration pollInterval = Duration.ofMillis(100);
+    // Cada transacción seguida se consulta tras pollMinBackoff y luego con backoff exponencial hasta pollMaxBackoff
+    private Duration pollMinBackoff = Duration.ofMillis(200);
+    private Duration pollMaxBackoff = Duration.ofSeconds(2);
+    // Transacciones consultadas como máximo en cada sondeo
+    private int pollBatchSize = 500;
+    // Ids aceptados en una sola suscripción a /events
+    private int maxTransactionIdsPerRequest = 100;
+    // Transacciones seguidas a la vez en esta instancia; cada una es un sink y entra en el sondeo
+    private int maxWatchedTransactions = 10_000;
+}
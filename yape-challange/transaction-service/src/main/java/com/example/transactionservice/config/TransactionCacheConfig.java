@@ -0,0 +1,22 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.cache")
+@Getter
+@Setter
+public class TransactionCacheConfig {
+
+    private boolean enabled = true;
+    private long maximumSize = 100_000;
+    // Estados finales (ACCEPTED/REJECTED): ya no cambian
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+    // PENDING: otra instancia puede aplicar la decisión, así que solo se absorben ráfagas de lecturas
+    private Duration pendingExpireAfterWrite = Duration.ofSeconds(1);
+}
@@ -0,0 +1,18 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.listing")
+@Getter
+@Setter
+public class TransactionListingConfig {
+
+    private int defaultPageSize = 100;
+    private int maxPageSize = 1000;
+    // Filas que el driver pide por viaje al cursor al hacer streaming
+    private int streamFetchSize = 500;
+}
@@ -0,0 +1,24 @@
+package com.example.transactionservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "transaction.stats")
+@Getter
+@Setter
+public class TransactionStatsConfig {
+
+    private boolean enabled = true;
+    // Cada cuánto se suman los contadores en memoria a transaction_stats_minute
+    private Duration flushInterval = Duration.ofSeconds(5);
+    // Ventana de GET /stats sin from/to, y máxima permitida
+    private Duration defaultWindow = Duration.ofHours(1);
+    private Duration maxWindow = Duration.ofDays(1);
+    private Duration retention = Duration.ofDays(90);
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,60 @@
+package com.example.transactionservice.controller;
+
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.AccountHistoryFilter;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionPage;
+import com.example.transactionservice.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountController {
+
+    private final TransactionService transactionService;
+
+    // Historial de la cuenta como débito, crédito o ambos (por defecto), del más reciente al más antiguo
+    @GetMapping(value = "/{accountId}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TransactionPage>> getAccountHistory(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String side,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/v1/accounts/{}/transactions - Retrieving account history page", accountId);
+
+        return Mono.fromSupplier(() -> new AccountHistoryFilter(accountId, AccountHistoryFilter.Side.of(side), from, to))
+                .flatMap(filter -> transactionService.getAccountHistoryPage(filter, cursor, limit))
+                .map(ResponseEntity::ok)
+                .onErrorResume(InvalidRequestException.class, error -> {
+                    log.warn("Invalid account history request: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    // Streaming NDJSON desde el índice de la cuenta, con backpressure hasta la base de datos
+    @GetMapping(value = "/{accountId}/transactions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Transaction> streamAccountHistory(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String side,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor) {
+        log.info("GET /api/v1/accounts/{}/transactions - Streaming account history", accountId);
+
+        return Flux.defer(() -> transactionService.streamAccountHistory(
+                new AccountHistoryFilter(accountId, AccountHistoryFilter.Side.of(side), from, to), cursor));
+    }
+}
@@ -1,17 +1,42 @@
 package com.example.transactionservice.controller;
 
+import com.example.transactionservice.config.DecisionAwaitConfig;
+import com.example.transactionservice.config.StatusStreamConfig;
 import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.example.transactionservice.dto.BatchItemResult;
 import com.example.transactionservice.dto.CreateTransactionRequest;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionFilter;
+import com.example.transactionservice.dto.TransactionPage;
+import com.example.transactionservice.dto.TransactionStats;
+import com.example.transactionservice.dto.TransactionStatusChange;
+import com.example.transactionservice.service.AdaptiveConcurrencyLimiter;
+import com.example.transactionservice.service.AdmissionRejectedException;
+import com.example.transactionservice.service.BulkTransactionService;
+import com.example.transactionservice.service.IdempotencyKeyConflictException;
+import com.example.transactionservice.service.IdempotencyService;
 import com.example.transactionservice.service.TransactionService;
+import com.example.transactionservice.service.WatcherLimitExceededException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
@@ -19,29 +44,119 @@ import reactor.core.publisher.Mono;
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final BulkTransactionService bulkTransactionService;
+    private final IdempotencyService idempotencyService;
+    private final StatusStreamConfig streamConfig;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+    private final DecisionAwaitConfig awaitConfig;
     
     @PostMapping
     public Mono<ResponseEntity<Transaction>> createTransaction(
-            @Valid @RequestBody CreateTransactionRequest request) {
+            @Valid @RequestBody CreateTransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestParam(value = "await", required = false) String await) {
         log.info("POST /api/v1/transactions - Creating transaction");
         
-        return transactionService.createTransaction(request)
-            .map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
+        Duration awaitTimeout;
+        try {
+            awaitTimeout = parseAwait(await);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid await: {}", e.getMessage());
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (idempotencyKey != null && !IdempotencyService.isValidKey(idempotencyKey)) {
+            log.warn("Invalid idempotency key: length={}", idempotencyKey.length());
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        
+        // Con Idempotency-Key los reintentos devuelven la transacción original sin volver a insertarla
+        // Por encima del límite de concurrencia la petición se rechaza sin tocar la base de datos
+        Mono<Transaction> created = admissionLimiter.execute(() -> idempotencyKey == null
+            ? transactionService.createTransaction(request)
+            : idempotencyService.createTransaction(idempotencyKey, request));
+        
+        // Con ?await= la respuesta espera la decisión fuera del límite de admisión; sin ella a tiempo, 202
+        Mono<ResponseEntity<Transaction>> response = awaitTimeout == null
+            ? created.map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
+            : created
+                .flatMap(transaction -> transactionService.awaitDecision(transaction, awaitTimeout))
+                .map(transaction -> TransactionState.of(transaction.getStatus()).isFinal()
+                    ? ResponseEntity.status(HttpStatus.CREATED).body(transaction)
+                    : ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/transactions/" + transaction.getTransactionId()))
+                        .body(transaction));
+        
+        return response
+            .onErrorResume(AdmissionRejectedException.class, error -> {
+                log.warn("Transaction creation shed: {}", error.getMessage());
+                HttpStatus status = error.getReason() == AdmissionRejectedException.Reason.OUTBOX
+                    ? HttpStatus.SERVICE_UNAVAILABLE
+                    : HttpStatus.TOO_MANY_REQUESTS;
+                return Mono.just(ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, error.getRetryAfter().toSeconds())))
+                    .<Transaction>build());
+            })
+            .onErrorResume(IdempotencyKeyConflictException.class, error -> {
+                log.warn("Idempotency key conflict: {}", error.getMessage());
+                return Mono.just(ResponseEntity.unprocessableEntity().build());
+            })
             .onErrorResume(error -> {
                 log.error("Error creating transaction: {}", error.getMessage());
                 return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
             });
     }
 
-    @GetMapping("")
-    public Flux<ResponseEntity<Transaction>> getTransactions() {
-        log.info("GET /api/v1/transactions - Retrieving all transactions");
+    // Alta masiva: acepta un arreglo JSON o NDJSON y devuelve un resultado por elemento, en orden
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BatchItemResult> createTransactions(@RequestBody Flux<CreateTransactionRequest> requests) {
+        log.info("POST /api/v1/transactions/batch - Creating transactions in bulk");
+
+        return bulkTransactionService.createTransactions(requests);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TransactionPage>> getTransactions(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/v1/transactions - Retrieving transactions page");
+
+        return transactionService.getTransactionsPage(new TransactionFilter(status, from, to), cursor, limit)
+                .map(ResponseEntity::ok)
+                .onErrorResume(InvalidRequestException.class, error -> {
+                    log.warn("Invalid listing request: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    // Streaming NDJSON directo desde el cursor de R2DBC, con backpressure hasta la base de datos
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Transaction> streamTransactions(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor) {
+        log.info("GET /api/v1/transactions - Streaming transactions");
 
-        return transactionService.getAllTransactions()
+        return transactionService.streamTransactions(new TransactionFilter(status, from, to), cursor);
+    }
+    
+    // Conteos e importes por minuto, estado y tipo de transferencia desde el read model agregado
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TransactionStats>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/v1/transactions/stats - Retrieving transaction stats");
+
+        return transactionService.getStats(from, to)
                 .map(ResponseEntity::ok)
-                .onErrorResume(error -> {
-                    log.error("Not content");
-                    return Mono.just(ResponseEntity.noContent().build());
+                .onErrorResume(InvalidRequestException.class, error -> {
+                    log.warn("Invalid stats request: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
                 });
     }
     
@@ -57,6 +172,66 @@ public class TransactionController {
             });
     }
 
+
+    // Server-Sent Events: estado actual y cambios hasta la decisión antifraude
+    @GetMapping(value = "/{transactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<TransactionStatusChange>>>> streamTransactionStatus(
+            @PathVariable String transactionId) {
+        log.info("GET /api/v1/transactions/{}/events - Subscribing to status changes", transactionId);
+
+        return transactionService.getTransactionById(transactionId)
+            .map(transaction -> ResponseEntity.ok(withHeartbeat(transactionService.watchTransaction(transactionId))))
+            .onErrorResume(WatcherLimitExceededException.class, error -> {
+                log.warn("Status stream rejected: {}", error.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            })
+            .onErrorResume(error -> {
+                log.error("Transaction not found: {}", transactionId);
+                return Mono.just(ResponseEntity.notFound().build());
+            });
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<TransactionStatusChange>>>> streamStatusChanges(
+            @RequestParam(required = false, defaultValue = "") Set<String> transactionIds,
+            @RequestParam(required = false) String status) {
+        log.info("GET /api/v1/transactions/events - Subscribing to status changes: transactionIds={}, status={}",
+            transactionIds.size(), status);
+
+        // Los límites se comprueban antes de abrir el stream, para poder responder con un estado HTTP
+        return Mono.fromSupplier(() -> ResponseEntity.ok(
+                withHeartbeat(transactionService.watchTransactions(transactionIds, status))))
+            .onErrorResume(InvalidRequestException.class, error -> {
+                log.warn("Invalid status stream request: {}", error.getMessage());
+                return Mono.just(ResponseEntity.badRequest().build());
+            })
+            .onErrorResume(WatcherLimitExceededException.class, error -> {
+                log.warn("Status stream rejected: {}", error.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            });
+    }
+
+    // Acepta 5s, 500ms, PT5S...; null sin await
+    private Duration parseAwait(String await) {
+        if (await == null) {
+            return null;
+        }
+        Duration timeout = DurationStyle.detectAndParse(await.trim());
+        if (timeout.isNegative() || timeout.isZero() || timeout.compareTo(awaitConfig.getMaxTimeout()) > 0) {
+            throw new IllegalArgumentException("await must be positive and at most " + awaitConfig.getMaxTimeout());
+        }
+        return timeout;
+    }
+
+    private Flux<ServerSentEvent<TransactionStatusChange>> withHeartbeat(Flux<TransactionStatusChange> changes) {
+        // Comentarios periódicos para que proxies y balanceadores no cierren la conexión inactiva
+        Flux<ServerSentEvent<TransactionStatusChange>> heartbeats = Flux.interval(streamConfig.getHeartbeatInterval())
+            .map(tick -> ServerSentEvent.<TransactionStatusChange>builder().comment("keepalive").build());
+        // publish comparte una única suscripción a los cambios entre ambas ramas
+        return changes.publish(shared -> Flux.merge(
+            shared.map(change -> ServerSentEvent.builder(change).event("status").build()),
+            heartbeats.takeUntilOther(shared.then())));
+    }
     
     @GetMapping("/health")
     public Mono<ResponseEntity<String>> health() {
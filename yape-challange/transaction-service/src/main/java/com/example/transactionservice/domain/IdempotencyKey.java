@@ -0,0 +1,25 @@
+package com.example.transactionservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    private String idempotencyKey;
+    private String transactionId;
+    // SHA-256 del cuerpo original: la misma clave con otro cuerpo es un error del cliente
+    private String requestHash;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.example.transactionservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("outbox_events")
+public class OutboxEvent {
+
+    @Id
+    private Long id;
+    private String aggregateId;
+    private String topic;
+    private String eventKey;
+    private byte[] payload;
+    private LocalDateTime createdAt;
+}
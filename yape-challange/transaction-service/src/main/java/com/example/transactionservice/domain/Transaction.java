@@ -9,14 +9,18 @@ import org.springframework.data.relational.core.mapping.Table;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.regex.Pattern;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table("transactions")
 public class Transaction {
     
+    private static final Pattern TRANSACTION_ID = Pattern.compile(
+        "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    
     @Id
     private Long id;
     private String transactionId;
@@ -27,4 +31,13 @@ public class Transaction {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Contador de cambios de estado, lo incrementan los UPDATE guardados. No es @Version: las filas no
+    // se guardan con save(); la comparación optimista es la guarda sobre el estado de origen, que
+    // avanza junto con la versión porque ninguna transición vuelve a un estado anterior
+    private Long version;
+
+    // transaction_id es uuid: un id con otro formato no puede existir y la consulta fallaría al convertirlo
+    public static boolean isValidTransactionId(String transactionId) {
+        return transactionId != null && TRANSACTION_ID.matcher(transactionId).matches();
+    }
 }
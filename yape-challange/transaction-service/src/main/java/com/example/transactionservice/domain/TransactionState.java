@@ -0,0 +1,53 @@
+package com.example.transactionservice.domain;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Máquina de estados de una transacción: PENDING -> ACCEPTED | REJECTED; los estados finales no cambian
+public enum TransactionState {
+
+    PENDING,
+    ACCEPTED,
+    REJECTED;
+
+    // Estados desde los que se puede llegar a cada estado
+    private static final Map<TransactionState, Set<TransactionState>> SOURCES = Map.of(
+        PENDING, EnumSet.noneOf(TransactionState.class),
+        ACCEPTED, EnumSet.of(PENDING),
+        REJECTED, EnumSet.of(PENDING));
+
+    public static TransactionState of(String status) {
+        try {
+            return valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown transaction status: " + status);
+        }
+    }
+
+    public Set<TransactionState> sources() {
+        return SOURCES.get(this);
+    }
+
+    // Nombres de los estados de origen, para la condición del UPDATE
+    public String[] sourceNames() {
+        return sources().stream().map(Enum::name).toArray(String[]::new);
+    }
+
+    public boolean canTransitionTo(TransactionState target) {
+        return target.sources().contains(this);
+    }
+
+    // Un estado desconocido no se trata como final
+    public static boolean isFinal(String status) {
+        try {
+            return of(status).isFinal();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean isFinal() {
+        return SOURCES.values().stream().noneMatch(sources -> sources.contains(this));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHistoryFilter {
+
+    private String account;
+    private Side side;
+    // Rango semiabierto [from, to) sobre created_at
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Lado de la transacción en el que aparece la cuenta
+    public enum Side {
+        DEBIT,
+        CREDIT,
+        BOTH;
+
+        public static Side of(String side) {
+            if (side == null || side.isBlank()) {
+                return BOTH;
+            }
+            try {
+                return valueOf(side.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("side must be one of DEBIT, CREDIT, BOTH: " + side, e);
+            }
+        }
+    }
+
+    // Sin rango: la petición pide la actividad más reciente de la cuenta
+    public boolean isUnbounded() {
+        return from == null && to == null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.transactionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public enum Outcome { CREATED, INVALID, FAILED }
+
+    // Posición del elemento en el cuerpo de la petición
+    private long index;
+    private Outcome outcome;
+    private String transactionId;
+    private List<String> errors;
+}
@@ -0,0 +1,13 @@
+package com.example.transactionservice.dto;
+
+// Parámetro de la petición no válido: los controladores lo responden con 400; cualquier otro error es un 500
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
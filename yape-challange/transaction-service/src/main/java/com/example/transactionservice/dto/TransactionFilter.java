@@ -0,0 +1,20 @@
+package com.example.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+
+    private String status;
+    // Rango semiabierto [from, to) sobre created_at
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
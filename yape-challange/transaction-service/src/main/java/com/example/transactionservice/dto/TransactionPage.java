@@ -0,0 +1,20 @@
+package com.example.transactionservice.dto;
+
+import com.example.transactionservice.domain.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+
+    private List<Transaction> items;
+    // null cuando no hay más páginas
+    private String nextCursor;
+}
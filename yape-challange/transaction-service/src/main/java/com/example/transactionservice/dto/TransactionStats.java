@@ -0,0 +1,21 @@
+package com.example.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStats {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // Ordenados por minuto, estado y tipo de transferencia; solo combinaciones con actividad
+    private List<TransactionStatsBucket> buckets;
+}
@@ -0,0 +1,23 @@
+package com.example.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatsBucket {
+
+    // Inicio del minuto en que las transacciones entraron en el estado
+    private LocalDateTime minute;
+    private String status;
+    private int transferTypeId;
+    private long count;
+    private BigDecimal value;
+}
@@ -1,12 +0,0 @@
-package com.example.transactionservice.dto;
-
-import lombok.*;
-
-@Getter
-@Setter
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class TransactionStatus {
-    private String name;
-}
@@ -0,0 +1,19 @@
+package com.example.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatusChange {
+
+    private String transactionId;
+    private String status;
+    private LocalDateTime updatedAt;
+}
@@ -1,30 +0,0 @@
-package com.example.transactionservice.dto;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.time.LocalDateTime;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class TransactionStatusUpdatedEvent {
-    
-    private String transactionId;
-    private String oldStatus;
-    private String newStatus;
-    private String reason;
-    private String updatedBy;
-    
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime updatedAt;
-    
-    private String eventId;
-    
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime eventTimestamp;
-}
@@ -0,0 +1,27 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.IdempotencyKey;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends R2dbcRepository<IdempotencyKey, String> {
+    
+    // 0 filas si otra petición ya registró la clave (espera a que esa transacción termine)
+    @Modifying
+    @Query("""
+        INSERT INTO idempotency_keys (idempotency_key, transaction_id, request_hash, created_at)
+        VALUES (:idempotencyKey, CAST(:transactionId AS UUID), :requestHash, :createdAt)
+        ON CONFLICT (idempotency_key) DO NOTHING
+        """)
+    Mono<Integer> insertIfAbsent(String idempotencyKey, String transactionId, String requestHash, LocalDateTime createdAt);
+    
+    @Modifying
+    @Query("DELETE FROM idempotency_keys WHERE created_at < :cutoff")
+    Mono<Integer> deleteCreatedBefore(LocalDateTime cutoff);
+}
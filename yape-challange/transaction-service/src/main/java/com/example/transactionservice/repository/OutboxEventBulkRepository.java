@@ -0,0 +1,11 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.OutboxEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface OutboxEventBulkRepository {
+
+    Mono<Long> insertAll(List<OutboxEvent> events);
+}
@@ -0,0 +1,57 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OutboxEventBulkRepositoryImpl implements OutboxEventBulkRepository {
+
+    // El payload viaja en base64 dentro de un TEXT[]: el driver no codifica BYTEA[] de forma fiable
+    private static final String INSERT_ALL = """
+        INSERT INTO outbox_events (aggregate_id, topic, event_key, payload, created_at)
+        SELECT v.aggregate_id, v.topic, v.event_key, decode(v.payload, 'base64'), v.created_at
+        FROM UNNEST(CAST(:aggregateIds AS VARCHAR[]), CAST(:topics AS VARCHAR[]), CAST(:eventKeys AS VARCHAR[]),
+                    CAST(:payloads AS TEXT[]), CAST(:createdAts AS TIMESTAMP[])) WITH ORDINALITY
+             AS v(aggregate_id, topic, event_key, payload, created_at, ordinality)
+        ORDER BY v.ordinality
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0L);
+        }
+        int size = events.size();
+        String[] aggregateIds = new String[size];
+        String[] topics = new String[size];
+        String[] eventKeys = new String[size];
+        String[] payloads = new String[size];
+        LocalDateTime[] createdAts = new LocalDateTime[size];
+        Base64.Encoder encoder = Base64.getEncoder();
+        for (int i = 0; i < size; i++) {
+            OutboxEvent event = events.get(i);
+            aggregateIds[i] = event.getAggregateId();
+            topics[i] = event.getTopic();
+            eventKeys[i] = event.getEventKey();
+            payloads[i] = encoder.encodeToString(event.getPayload());
+            createdAts[i] = event.getCreatedAt();
+        }
+        
+        return databaseClient.sql(INSERT_ALL)
+            .bind("aggregateIds", aggregateIds)
+            .bind("topics", topics)
+            .bind("eventKeys", eventKeys)
+            .bind("payloads", payloads)
+            .bind("createdAts", createdAts)
+            .fetch()
+            .rowsUpdated();
+    }
+}
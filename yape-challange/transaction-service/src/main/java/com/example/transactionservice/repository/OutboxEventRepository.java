@@ -0,0 +1,21 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.OutboxEvent;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface OutboxEventRepository extends R2dbcRepository<OutboxEvent, Long>, OutboxEventBulkRepository {
+
+    // SKIP LOCKED permite que varias instancias drenen el outbox sin pisarse
+    @Query("SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    Flux<OutboxEvent> lockNextBatch(int limit);
+
+    // Estimación del planner (autovacuum/ANALYZE): una lectura de catálogo en lugar de recorrer la tabla;
+    // 0 si la tabla nunca se analizó
+    @Query("SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'outbox_events'::regclass")
+    Mono<Long> estimateCount();
+}
@@ -0,0 +1,15 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface TransactionBulkRepository {
+
+    // Alta individual con la misma sentencia; devuelve la fila con el id generado
+    Mono<Transaction> insert(Transaction transaction);
+
+    // Inserta todo el lote en un solo INSERT multi-fila; devuelve las filas insertadas
+    Mono<Long> insertAll(List<Transaction> transactions);
+}
@@ -0,0 +1,84 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransactionBulkRepositoryImpl implements TransactionBulkRepository {
+
+    // Un arreglo por columna: el tamaño del SQL y el número de parámetros no dependen del lote.
+    // La misma sentencia registra cada fila en transaction_locator
+    private static final String INSERT_ALL = """
+        WITH v AS (
+            SELECT *
+            FROM UNNEST(CAST(:transactionIds AS UUID[]), CAST(:debits AS VARCHAR[]), CAST(:credits AS VARCHAR[]),
+                        CAST(:transferTypeIds AS INTEGER[]), CAST(:values AS NUMERIC[]), CAST(:statuses AS VARCHAR[]),
+                        CAST(:createdAts AS TIMESTAMP[]))
+                 AS v(transaction_id, debit, credit, transfer_type_id, value, status, created_at)
+        ), locator AS (
+            INSERT INTO transaction_locator (transaction_id, created_at)
+            SELECT transaction_id, created_at FROM v
+        )
+        INSERT INTO transactions (transaction_id, account_external_id_debit, account_external_id_credit,
+                                  transfer_type_id, value, status, created_at, updated_at)
+        SELECT v.transaction_id, v.debit, v.credit, v.transfer_type_id, v.value, v.status, v.created_at, v.created_at
+        FROM v
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Mono<Transaction> insert(Transaction transaction) {
+        return bind(INSERT_ALL + "RETURNING *", List.of(transaction))
+            .map((row, metadata) -> converter.read(Transaction.class, row, metadata))
+            .one();
+    }
+
+    @Override
+    public Mono<Long> insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return bind(INSERT_ALL, transactions)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(String sql, List<Transaction> transactions) {
+        int size = transactions.size();
+        String[] transactionIds = new String[size];
+        String[] debits = new String[size];
+        String[] credits = new String[size];
+        Integer[] transferTypeIds = new Integer[size];
+        BigDecimal[] values = new BigDecimal[size];
+        String[] statuses = new String[size];
+        LocalDateTime[] createdAts = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = transactions.get(i);
+            transactionIds[i] = transaction.getTransactionId();
+            debits[i] = transaction.getAccountExternalIdDebit();
+            credits[i] = transaction.getAccountExternalIdCredit();
+            transferTypeIds[i] = transaction.getTransferTypeId();
+            values[i] = transaction.getValue();
+            statuses[i] = transaction.getStatus();
+            createdAts[i] = transaction.getCreatedAt();
+        }
+        
+        return databaseClient.sql(sql)
+            .bind("transactionIds", transactionIds)
+            .bind("debits", debits)
+            .bind("credits", credits)
+            .bind("transferTypeIds", transferTypeIds)
+            .bind("values", values)
+            .bind("statuses", statuses)
+            .bind("createdAts", createdAts);
+    }
+}
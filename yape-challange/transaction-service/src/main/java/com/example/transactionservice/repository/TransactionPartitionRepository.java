@@ -0,0 +1,98 @@
+package com.example.transactionservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+// DDL de las particiones de transactions. Los nombres de partición no admiten parámetros:
+// solo se aceptan los que genera PartitionMaintenanceService (transactions_p<fecha>)
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_p[0-9]+");
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> isPartitioned() {
+        return databaseClient.sql("SELECT relkind = 'p' AS partitioned FROM pg_class WHERE oid = to_regclass('transactions')")
+            .map(row -> row.get("partitioned", Boolean.class))
+            .one()
+            .defaultIfEmpty(false);
+    }
+
+    public Flux<String> findPartitions() {
+        return databaseClient.sql("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'transactions'::regclass
+                """)
+            .map(row -> row.get("relname", String.class))
+            .all()
+            .filter(name -> PARTITION_NAME.matcher(name).matches());
+    }
+
+    // Una sola instancia mantiene las particiones; el lock se libera al terminar la transacción
+    public Mono<Boolean> tryMaintenanceLock() {
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(hashtext('transactions_partition_maintenance')) AS locked")
+            .map(row -> row.get("locked", Boolean.class))
+            .one();
+    }
+
+    // Las altas esperan mientras se crea o desvincula una partición: se limita esa espera
+    public Mono<Void> setLockTimeout(Duration timeout) {
+        return databaseClient.sql("SET LOCAL lock_timeout = '" + timeout.toMillis() + "ms'")
+            .then();
+    }
+
+    public Mono<Void> createPartition(String partition, LocalDate from, LocalDate to) {
+        return databaseClient.sql("CREATE TABLE IF NOT EXISTS " + checked(partition)
+                + " PARTITION OF transactions FOR VALUES FROM ('" + from + "') TO ('" + to + "')"
+                + " WITH (fillfactor = 90)")
+            .then();
+    }
+
+    // Bloquea las escrituras en la partición (no en la tabla padre) hasta el final de la transacción
+    public Mono<Void> lockPartition(String partition) {
+        return databaseClient.sql("LOCK TABLE " + checked(partition) + " IN SHARE MODE")
+            .then();
+    }
+
+    public Flux<String> exportRows(String partition, int fetchSize) {
+        return databaseClient.sql("SELECT row_to_json(t)::text AS row FROM " + checked(partition)
+                + " t ORDER BY created_at, id")
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map(row -> row.get("row", String.class))
+            .all();
+    }
+
+    public Mono<Long> deleteLocators(String partition) {
+        return databaseClient.sql("DELETE FROM transaction_locator l USING " + checked(partition)
+                + " t WHERE l.transaction_id = t.transaction_id")
+            .fetch()
+            .rowsUpdated();
+    }
+
+    public Mono<Void> detachPartition(String partition) {
+        return databaseClient.sql("ALTER TABLE transactions DETACH PARTITION " + checked(partition))
+            .then();
+    }
+
+    public Mono<Void> dropPartition(String partition) {
+        return databaseClient.sql("DROP TABLE " + checked(partition))
+            .then();
+    }
+
+    private static String checked(String partition) {
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Invalid partition name: " + partition);
+        }
+        return partition;
+    }
+}
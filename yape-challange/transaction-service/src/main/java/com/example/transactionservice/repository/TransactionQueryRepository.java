@@ -0,0 +1,16 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.AccountHistoryFilter;
+import com.example.transactionservice.dto.TransactionCursor;
+import com.example.transactionservice.dto.TransactionFilter;
+import reactor.core.publisher.Flux;
+
+public interface TransactionQueryRepository {
+
+    // Filas en orden (created_at, id) descendente a partir del cursor; limit <= 0 devuelve todas
+    Flux<Transaction> findByFilter(TransactionFilter filter, TransactionCursor after, int limit, int fetchSize);
+
+    // Mismo orden y cursor, solo las filas en las que participa la cuenta
+    Flux<Transaction> findByAccount(AccountHistoryFilter filter, TransactionCursor after, int limit, int fetchSize);
+}
@@ -0,0 +1,101 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.AccountHistoryFilter;
+import com.example.transactionservice.dto.TransactionCursor;
+import com.example.transactionservice.dto.TransactionFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TransactionQueryRepositoryImpl implements TransactionQueryRepository {
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<Transaction> findByFilter(TransactionFilter filter, TransactionCursor after, int limit, int fetchSize) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM transactions WHERE TRUE");
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = :status");
+            bindings.put("status", filter.getStatus());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND created_at >= :from");
+            bindings.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND created_at < :to");
+            bindings.put("to", filter.getTo());
+        }
+        if (after != null) {
+            // Comparación de filas: se resuelve como un rango sobre el índice (created_at, id)
+            sql.append(" AND (created_at, id) < (:cursorCreatedAt, :cursorId)");
+            bindings.put("cursorCreatedAt", after.getCreatedAt());
+            bindings.put("cursorId", after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT :limit");
+            bindings.put("limit", limit);
+        }
+        
+        return execute(sql.toString(), bindings, fetchSize);
+    }
+
+    @Override
+    public Flux<Transaction> findByAccount(AccountHistoryFilter filter, TransactionCursor after, int limit, int fetchSize) {
+        // Cada lado recorre su índice (cuenta, created_at, id); con BOTH se combinan ambos y la rama
+        // de crédito excluye las filas que la de débito ya devuelve
+        String rows = switch (filter.getSide()) {
+            case DEBIT -> "SELECT * FROM transactions WHERE account_external_id_debit = :account";
+            case CREDIT -> "SELECT * FROM transactions WHERE account_external_id_credit = :account";
+            case BOTH -> "SELECT * FROM transactions WHERE account_external_id_debit = :account"
+                + " UNION ALL SELECT * FROM transactions WHERE account_external_id_credit = :account"
+                + " AND account_external_id_debit <> :account";
+        };
+        StringBuilder sql = new StringBuilder("SELECT * FROM (").append(rows).append(") t WHERE TRUE");
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        bindings.put("account", filter.getAccount());
+        
+        if (filter.getFrom() != null) {
+            sql.append(" AND created_at >= :from");
+            bindings.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND created_at < :to");
+            bindings.put("to", filter.getTo());
+        }
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (:cursorCreatedAt, :cursorId)");
+            bindings.put("cursorCreatedAt", after.getCreatedAt());
+            bindings.put("cursorId", after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT :limit");
+            bindings.put("limit", limit);
+        }
+        
+        return execute(sql.toString(), bindings, fetchSize);
+    }
+
+    private Flux<Transaction> execute(String sql, Map<String, Object> bindings, int fetchSize) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        // Con fetchSize el driver lee el cursor por tramos según la demanda del suscriptor
+        return spec
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map((row, metadata) -> converter.read(Transaction.class, row, metadata))
+            .all();
+    }
+}
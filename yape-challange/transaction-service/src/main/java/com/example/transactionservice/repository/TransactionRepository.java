@@ -1,12 +1,61 @@
 package com.example.transactionservice.repository;
 
 import com.example.transactionservice.domain.Transaction;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Repository
-public interface TransactionRepository extends R2dbcRepository<Transaction, Long> {
+public interface TransactionRepository extends R2dbcRepository<Transaction, Long>, TransactionQueryRepository,
+        TransactionBulkRepository {
     
+    // El localizador da el created_at de la fila: en ejecución solo se recorre su partición
+    @Query("""
+        SELECT t.* FROM transaction_locator l
+        JOIN transactions t ON t.transaction_id = l.transaction_id AND t.created_at = l.created_at
+        WHERE l.transaction_id = CAST(:transactionId AS UUID)
+        """)
     Mono<Transaction> findByTransactionId(String transactionId);
+    
+    // Lectura por lote de las que ya están en alguno de los estados dados (las esperas de ?await=)
+    @Query("""
+        SELECT t.* FROM UNNEST(CAST(:transactionIds AS UUID[])) AS v(transaction_id)
+        JOIN transaction_locator l ON l.transaction_id = v.transaction_id
+        JOIN transactions t ON t.transaction_id = l.transaction_id AND t.created_at = l.created_at
+        WHERE t.status = ANY(CAST(:statuses AS VARCHAR[]))
+        """)
+    Flux<Transaction> findByTransactionIdsAndStatusIn(String[] transactionIds, String[] statuses);
+    
+    // Transición guardada en una sola sentencia: solo cambia si el estado actual es un origen
+    // válido; vacío si la transacción no existe o la transición no está permitida
+    @Query("""
+        UPDATE transactions t
+        SET status = :status, updated_at = :updatedAt, version = t.version + 1
+        FROM transaction_locator l
+        WHERE l.transaction_id = CAST(:transactionId AS UUID)
+          AND t.transaction_id = l.transaction_id AND t.created_at = l.created_at
+          AND t.status = ANY(CAST(:fromStatuses AS VARCHAR[]))
+        RETURNING t.*
+        """)
+    Mono<Transaction> transitionStatus(String transactionId, String[] fromStatuses, String status,
+                                       LocalDateTime updatedAt);
+    
+    // Actualización set-based: un solo UPDATE para todo el lote, con la misma guarda por fila
+    // (fromStatuses[i] son los orígenes válidos separados por comas); devuelve las filas actualizadas
+    @Query("""
+        UPDATE transactions t
+        SET status = v.status, updated_at = :updatedAt, version = t.version + 1
+        FROM UNNEST(CAST(:transactionIds AS UUID[]), CAST(:statuses AS VARCHAR[]),
+                    CAST(:fromStatuses AS VARCHAR[])) AS v(transaction_id, status, from_statuses)
+        JOIN transaction_locator l ON l.transaction_id = v.transaction_id
+        WHERE t.transaction_id = l.transaction_id AND t.created_at = l.created_at
+          AND t.status = ANY(string_to_array(v.from_statuses, ','))
+        RETURNING t.*
+        """)
+    Flux<Transaction> updateStatuses(String[] transactionIds, String[] statuses, String[] fromStatuses,
+                                     LocalDateTime updatedAt);
 }
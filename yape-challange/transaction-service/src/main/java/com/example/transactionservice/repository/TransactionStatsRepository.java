@@ -0,0 +1,85 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.dto.TransactionStatsBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Agregados por minuto: las instancias suman sus incrementos sobre la misma fila
+@Repository
+@RequiredArgsConstructor
+public class TransactionStatsRepository {
+
+    private static final String ADD_ALL = """
+        INSERT INTO transaction_stats_minute (bucket_minute, status, transfer_type_id, tx_count, value_sum)
+        SELECT * FROM UNNEST(CAST(:minutes AS TIMESTAMP[]), CAST(:statuses AS VARCHAR[]),
+                             CAST(:transferTypeIds AS INTEGER[]), CAST(:counts AS BIGINT[]), CAST(:values AS NUMERIC[]))
+        ON CONFLICT (bucket_minute, status, transfer_type_id) DO UPDATE
+        SET tx_count = transaction_stats_minute.tx_count + EXCLUDED.tx_count,
+            value_sum = transaction_stats_minute.value_sum + EXCLUDED.value_sum
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    // Las claves del lote son únicas: ON CONFLICT no admite dos filas con la misma clave
+    public Mono<Long> addAll(List<TransactionStatsBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return Mono.just(0L);
+        }
+        int size = buckets.size();
+        LocalDateTime[] minutes = new LocalDateTime[size];
+        String[] statuses = new String[size];
+        Integer[] transferTypeIds = new Integer[size];
+        Long[] counts = new Long[size];
+        BigDecimal[] values = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            TransactionStatsBucket bucket = buckets.get(i);
+            minutes[i] = bucket.getMinute();
+            statuses[i] = bucket.getStatus();
+            transferTypeIds[i] = bucket.getTransferTypeId();
+            counts[i] = bucket.getCount();
+            values[i] = bucket.getValue();
+        }
+        return databaseClient.sql(ADD_ALL)
+            .bind("minutes", minutes)
+            .bind("statuses", statuses)
+            .bind("transferTypeIds", transferTypeIds)
+            .bind("counts", counts)
+            .bind("values", values)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    // Recorre la PK: el coste depende de los minutos pedidos, no del tamaño de transactions
+    public Flux<TransactionStatsBucket> findBetween(LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql("""
+                SELECT bucket_minute, status, transfer_type_id, tx_count, value_sum
+                FROM transaction_stats_minute
+                WHERE bucket_minute >= :from AND bucket_minute < :to
+                ORDER BY bucket_minute, status, transfer_type_id
+                """)
+            .bind("from", from)
+            .bind("to", to)
+            .map(row -> TransactionStatsBucket.builder()
+                .minute(row.get("bucket_minute", LocalDateTime.class))
+                .status(row.get("status", String.class))
+                .transferTypeId(row.get("transfer_type_id", Integer.class))
+                .count(row.get("tx_count", Long.class))
+                .value(row.get("value_sum", BigDecimal.class))
+                .build())
+            .all();
+    }
+
+    public Mono<Long> deleteBefore(LocalDateTime cutoff) {
+        return databaseClient.sql("DELETE FROM transaction_stats_minute WHERE bucket_minute < :cutoff")
+            .bind("cutoff", cutoff)
+            .fetch()
+            .rowsUpdated();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.AccountHistoryConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.example.transactionservice.dto.AccountHistoryFilter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Actividad reciente por cuenta y lado: las recentSize + 1 transacciones más nuevas, suficientes
+// para servir una primera página y saber si hay más. Cualquier alta o cambio de estado en el que
+// participa la cuenta invalida sus entradas, pero solo en esta instancia: una página con alguna
+// transacción PENDING vive pendingExpireAfterWrite, porque la decisión puede consumirla otra instancia,
+// y las altas hechas en otra instancia aparecen como tarde tras expireAfterWrite
+@Component
+@Slf4j
+public class AccountHistoryCache {
+
+    private final AccountHistoryConfig config;
+    private final AsyncCache<String, List<Transaction>> cache;
+
+    public AccountHistoryCache(AccountHistoryConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getCacheMaximumSize())
+            .expireAfter(new StateExpiry(config.getExpireAfterWrite(), config.getPendingExpireAfterWrite()))
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account-history");
+        log.info("Account history cache: enabled={}, recentSize={}, maximumSize={}, expireAfterWrite={}, pendingExpireAfterWrite={}",
+            config.isCacheEnabled(), config.getRecentSize(), config.getCacheMaximumSize(), config.getExpireAfterWrite(),
+            config.getPendingExpireAfterWrite());
+    }
+
+    public boolean isEnabled() {
+        return config.isCacheEnabled();
+    }
+
+    public int getRecentSize() {
+        return config.getRecentSize();
+    }
+
+    public Mono<List<Transaction>> get(String account, AccountHistoryFilter.Side side,
+                                       Function<Integer, Mono<List<Transaction>>> loader) {
+        // Las consultas simultáneas de la misma cuenta comparten una sola lectura
+        CompletableFuture<List<Transaction>> future = cache.get(key(account, side),
+            (key, executor) -> loader.apply(config.getRecentSize() + 1).toFuture());
+        return Mono.fromFuture(future, true);
+    }
+
+    // Una carga en curso también se descarta: su resultado ya no entra en la caché
+    public void invalidate(Transaction transaction) {
+        if (!config.isCacheEnabled()) {
+            return;
+        }
+        cache.synchronous().invalidateAll(List.of(
+            key(transaction.getAccountExternalIdDebit(), AccountHistoryFilter.Side.DEBIT),
+            key(transaction.getAccountExternalIdDebit(), AccountHistoryFilter.Side.BOTH),
+            key(transaction.getAccountExternalIdCredit(), AccountHistoryFilter.Side.CREDIT),
+            key(transaction.getAccountExternalIdCredit(), AccountHistoryFilter.Side.BOTH)));
+    }
+
+    private static String key(String account, AccountHistoryFilter.Side side) {
+        return side.name() + ':' + account;
+    }
+
+    // Una página expira según su transacción menos avanzada; leerla no alarga su vida
+    static class StateExpiry implements Expiry<String, List<Transaction>> {
+
+        private final long finalNanos;
+        private final long pendingNanos;
+
+        StateExpiry(Duration finalTtl, Duration pendingTtl) {
+            this.finalNanos = finalTtl.toNanos();
+            this.pendingNanos = pendingTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, List<Transaction> transactions, long currentTime) {
+            boolean settled = transactions.stream()
+                .allMatch(transaction -> TransactionState.isFinal(transaction.getStatus()));
+            return settled ? finalNanos : pendingNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, List<Transaction> transactions, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, transactions, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, List<Transaction> transactions, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.AdmissionConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Control de admisión del alta de transacciones con un límite de concurrencia adaptativo
+ * (gradiente, al estilo de Netflix concurrency-limits): mientras la latencia reciente se
+ * mantiene cerca de la de referencia el límite crece en ~sqrt(límite); cuando sube, el límite
+ * se reduce en proporción, y un timeout o un pool agotado lo recorta de forma multiplicativa.
+ * Lo que excede el límite se rechaza al instante en lugar de encolarse hasta expirar.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final AdmissionConfig config;
+    private final OutboxRelayService outboxRelay;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedByConcurrency;
+    private final Counter rejectedByOutbox;
+    private final Counter droppedCounter;
+    private volatile int limit;
+    // Estado del gradiente, protegido por el monitor de la instancia
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(AdmissionConfig config, OutboxRelayService outboxRelay, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.outboxRelay = outboxRelay;
+        this.estimatedLimit = config.getInitialLimit();
+        this.limit = config.getInitialLimit();
+        this.rejectedByConcurrency = meterRegistry.counter("transaction.admission.rejected", "reason", "concurrency");
+        this.rejectedByOutbox = meterRegistry.counter("transaction.admission.rejected", "reason", "outbox");
+        this.droppedCounter = meterRegistry.counter("transaction.admission.dropped");
+        Gauge.builder("transaction.admission.limit", this, AdaptiveConcurrencyLimiter::limit)
+            .description("Altas concurrentes admitidas")
+            .register(meterRegistry);
+        Gauge.builder("transaction.admission.in.flight", inFlight, AtomicInteger::get)
+            .description("Altas en curso")
+            .register(meterRegistry);
+        Gauge.builder("transaction.admission.rtt.short", this, limiter -> limiter.shortRttNanos / 1_000_000.0)
+            .description("Latencia reciente del alta en ms")
+            .register(meterRegistry);
+        Gauge.builder("transaction.admission.rtt.long", this, limiter -> limiter.longRttNanos / 1_000_000.0)
+            .description("Latencia de referencia del alta en ms")
+            .register(meterRegistry);
+        log.info("Admission control: enabled={}, limit={} [{}..{}], maxOutboxBacklog={}",
+            config.isEnabled(), config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+            config.getMaxOutboxBacklog());
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> work) {
+        if (!config.isEnabled()) {
+            return Mono.defer(work);
+        }
+        return Mono.defer(() -> {
+            AdmissionRejectedException.Reason rejection = tryAcquire();
+            if (rejection != null) {
+                return Mono.error(new AdmissionRejectedException(rejection, config.getRetryAfter()));
+            }
+            long start = System.nanoTime();
+            int inFlightAtStart = inFlight.get();
+            return Mono.defer(work)
+                .doOnSuccess(value -> onSample(System.nanoTime() - start, inFlightAtStart))
+                .doOnError(error -> {
+                    if (isOverload(error)) {
+                        onDropped();
+                    }
+                })
+                .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private AdmissionRejectedException.Reason tryAcquire() {
+        // Kafka lento se ve en el outbox: crece el backlog o el relay deja de completar lotes
+        if (outboxRelay.backlog() > config.getMaxOutboxBacklog()
+                || outboxRelay.timeSinceProgress().compareTo(config.getMaxRelayStall()) > 0) {
+            rejectedByOutbox.increment();
+            return AdmissionRejectedException.Reason.OUTBOX;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedByConcurrency.increment();
+                return AdmissionRejectedException.Reason.CONCURRENCY;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return null;
+            }
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        shortRttNanos = shortRttNanos == 0 ? rttNanos : ewma(shortRttNanos, rttNanos, config.getShortWindow());
+        longRttNanos = longRttNanos == 0 ? rttNanos : ewma(longRttNanos, rttNanos, config.getLongWindow());
+        // Tras una degradación larga la referencia baja rápido en cuanto la latencia se recupera
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos = 2 * shortRttNanos;
+        }
+        // Sin carga suficiente la latencia no dice nada sobre el límite
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - config.getSmoothing()) + target * config.getSmoothing());
+    }
+
+    private synchronized void onDropped() {
+        droppedCounter.increment();
+        update(estimatedLimit * config.getBackoffRatio());
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), newLimit));
+        int rounded = (int) estimatedLimit;
+        if (rounded != limit) {
+            log.debug("Admission limit changed: {} -> {} (shortRtt={}ms, longRtt={}ms)",
+                limit, rounded, shortRttNanos / 1_000_000, longRttNanos / 1_000_000);
+            limit = rounded;
+        }
+    }
+
+    private static double ewma(double current, double sample, int window) {
+        double factor = 2.0 / (window + 1);
+        return current * (1 - factor) + sample * factor;
+    }
+
+    // Pool de conexiones agotado o consulta expirada: señal de sobrecarga, no de petición inválida
+    private static boolean isOverload(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcTimeoutException
+                    || cause instanceof R2dbcTransientResourceException
+                    || cause instanceof TimeoutException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof TransientDataAccessResourceException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
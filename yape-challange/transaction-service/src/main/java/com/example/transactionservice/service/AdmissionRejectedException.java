@@ -0,0 +1,30 @@
+package com.example.transactionservice.service;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Reason reason, Duration retryAfter) {
+        super("Request rejected by admission control: " + reason.name().toLowerCase());
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public enum Reason {
+        // Límite de concurrencia alcanzado
+        CONCURRENCY,
+        // Kafka no da abasto: el outbox crece o el relay no avanza
+        OUTBOX
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.BulkTransactionConfig;
+import com.example.transactionservice.domain.OutboxEvent;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.BatchItemResult;
+import com.example.transactionservice.dto.CreateTransactionRequest;
+import com.example.transactionservice.repository.OutboxEventRepository;
+import com.example.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class BulkTransactionService {
+
+    private final TransactionService transactionService;
+    private final TransactionStatsService transactionStats;
+    private final AccountHistoryCache accountHistoryCache;
+    private final TransactionRepository transactionRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final BulkTransactionConfig bulkConfig;
+    // Un contador por resultado, creado una vez: record() no busca en el registro por cada elemento
+    private final Map<BatchItemResult.Outcome, Counter> itemCounters = new EnumMap<>(BatchItemResult.Outcome.class);
+    
+    public BulkTransactionService(TransactionService transactionService,
+                                  TransactionStatsService transactionStats,
+                                  AccountHistoryCache accountHistoryCache,
+                                  TransactionRepository transactionRepository,
+                                  OutboxEventRepository outboxEventRepository,
+                                  TransactionalOperator transactionalOperator,
+                                  Validator validator,
+                                  BulkTransactionConfig bulkConfig,
+                                  MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.transactionStats = transactionStats;
+        this.accountHistoryCache = accountHistoryCache;
+        this.transactionRepository = transactionRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+        this.bulkConfig = bulkConfig;
+        for (BatchItemResult.Outcome outcome : BatchItemResult.Outcome.values()) {
+            itemCounters.put(outcome, meterRegistry.counter("transaction.bulk.items", "outcome", outcome.name()));
+        }
+    }
+
+    // Las peticiones se validan y persisten por chunks a medida que llegan; no se carga el cuerpo completo
+    public Flux<BatchItemResult> createTransactions(Flux<CreateTransactionRequest> requests) {
+        return requests
+            .index()
+            .buffer(bulkConfig.getChunkSize())
+            .flatMapSequential(this::persistChunk, bulkConfig.getConcurrency());
+    }
+
+    private Flux<BatchItemResult> persistChunk(List<Tuple2<Long, CreateTransactionRequest>> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        
+        for (Tuple2<Long, CreateTransactionRequest> item : chunk) {
+            List<String> errors = validate(item.getT2());
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.builder()
+                    .index(item.getT1())
+                    .outcome(BatchItemResult.Outcome.INVALID)
+                    .errors(errors)
+                    .build());
+                continue;
+            }
+            Transaction transaction = transactionService.newTransaction(item.getT2(), now);
+            transactions.add(transaction);
+            results.add(BatchItemResult.builder()
+                .index(item.getT1())
+                .outcome(BatchItemResult.Outcome.CREATED)
+                .transactionId(transaction.getTransactionId())
+                .build());
+        }
+        if (transactions.isEmpty()) {
+            return record(results);
+        }
+        
+        // Filas y eventos del outbox en la misma transacción; el relay los publica en lotes
+        List<OutboxEvent> outboxEvents = transactions.stream().map(transactionService::toOutboxEvent).toList();
+        return transactionRepository.insertAll(transactions)
+            .then(outboxEventRepository.insertAll(outboxEvents))
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(inserted -> {
+                log.info("Bulk chunk persisted: items={}, created={}", chunk.size(), inserted);
+                transactions.forEach(transaction -> {
+                    transactionStats.recordCreated(transaction);
+                    accountHistoryCache.invalidate(transaction);
+                });
+            })
+            .thenMany(Flux.defer(() -> record(results)))
+            .onErrorResume(error -> {
+                log.error("Error persisting bulk chunk of {} items: {}", chunk.size(), error.getMessage(), error);
+                for (BatchItemResult result : results) {
+                    if (result.getOutcome() == BatchItemResult.Outcome.CREATED) {
+                        result.setOutcome(BatchItemResult.Outcome.FAILED);
+                        result.setTransactionId(null);
+                        result.setErrors(List.of(error.getMessage()));
+                    }
+                }
+                return record(results);
+            });
+    }
+
+    private List<String> validate(CreateTransactionRequest request) {
+        if (request == null) {
+            return List.of("request must not be null");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<CreateTransactionRequest> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private Flux<BatchItemResult> record(List<BatchItemResult> results) {
+        for (BatchItemResult result : results) {
+            itemCounters.get(result.getOutcome()).increment();
+        }
+        return Flux.fromIterable(results);
+    }
+}
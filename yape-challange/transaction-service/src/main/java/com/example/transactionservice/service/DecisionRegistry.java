@@ -0,0 +1,197 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.DecisionAwaitConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.example.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Peticiones esperando la decisión antifraude, indexadas por transactionId. El consumidor completa
+ * la entrada con un remove sobre el mapa, sin recorrer a los que esperan. Cada entrada sale del
+ * mapa al decidirse, al vencer su timeout o al cancelarse la petición, y el número de entradas
+ * está acotado por maxWaiters. Las decisiones que consume otra instancia se leen con un único
+ * sondeo en lote: cada espera se consulta con backoff exponencial, no en cada ciclo.
+ */
+@Component
+@Slf4j
+public class DecisionRegistry {
+
+    private static final String[] FINAL_STATUSES = Arrays.stream(TransactionState.values())
+        .filter(TransactionState::isFinal)
+        .map(Enum::name)
+        .toArray(String[]::new);
+
+    private final DecisionAwaitConfig config;
+    private final TransactionRepository transactionRepository;
+    private final Map<String, Waiter> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter decidedCounter;
+    private final Counter timedOutCounter;
+    private final Counter rejectedCounter;
+    private final Counter polledCounter;
+    private Disposable poller;
+
+    public DecisionRegistry(DecisionAwaitConfig config, TransactionRepository transactionRepository,
+                            MeterRegistry meterRegistry) {
+        this.config = config;
+        this.transactionRepository = transactionRepository;
+        this.decidedCounter = meterRegistry.counter("transaction.decision.await", "outcome", "decided");
+        this.timedOutCounter = meterRegistry.counter("transaction.decision.await", "outcome", "timeout");
+        this.rejectedCounter = meterRegistry.counter("transaction.decision.await", "outcome", "rejected");
+        this.polledCounter = meterRegistry.counter("transaction.decision.await.polled");
+        Gauge.builder("transaction.decision.waiters", size, AtomicInteger::get)
+            .description("Transacciones con peticiones esperando su decisión")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void startPolling() {
+        if (!config.isPollEnabled()) {
+            log.warn("Decision polling disabled: only decisions consumed by this instance complete awaits");
+            return;
+        }
+        poller = Flux.interval(config.getPollInterval(), config.getPollInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> poll(), 1)
+            .subscribe();
+    }
+    
+    @PreDestroy
+    public void stopPolling() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    // La transacción decidida, o vacío si no llega a tiempo o el registro está lleno.
+    // current se consulta ya registrado: cubre la decisión procesada justo antes de registrarse
+    public Mono<Transaction> await(String transactionId, Duration timeout, Supplier<Transaction> current) {
+        return Mono.defer(() -> {
+            Waiter waiter = join(transactionId);
+            if (waiter == null) {
+                rejectedCounter.increment();
+                log.warn("Decision registry full ({} waiters), not awaiting transaction {}", size.get(), transactionId);
+                return Mono.empty();
+            }
+            Transaction known = current.get();
+            if (known != null && TransactionState.of(known.getStatus()).isFinal()) {
+                complete(known);
+            }
+            return waiter.sink.asMono()
+                .timeout(timeout, Mono.empty())
+                .doOnNext(decided -> decidedCounter.increment())
+                .switchIfEmpty(Mono.fromRunnable(timedOutCounter::increment))
+                .doFinally(signal -> leave(transactionId, waiter));
+        });
+    }
+
+    public void complete(Transaction transaction) {
+        Waiter waiter = waiters.remove(transaction.getTransactionId());
+        if (waiter != null) {
+            size.decrementAndGet();
+            waiter.sink.tryEmitValue(transaction);
+        }
+    }
+
+    // Una sola consulta para las esperas a las que les toca, como mucho pollBatchSize; las que
+    // siguen sin decidir se vuelven a consultar tras el doble de espera
+    Mono<Void> poll() {
+        long now = System.nanoTime();
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Waiter> entry : waiters.entrySet()) {
+            if (due.size() >= config.getPollBatchSize()) {
+                break;
+            }
+            if (entry.getValue().pollDue(now, config.getPollMaxBackoff().toNanos())) {
+                due.add(entry.getKey());
+            }
+        }
+        if (due.isEmpty()) {
+            return Mono.empty();
+        }
+        return transactionRepository.findByTransactionIdsAndStatusIn(due.toArray(String[]::new), FINAL_STATUSES)
+            .doOnNext(transaction -> {
+                polledCounter.increment();
+                complete(transaction);
+            })
+            .onErrorResume(error -> {
+                log.warn("Error polling decisions for {} awaited transactions: {}", due.size(), error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+    
+    // Las peticiones sobre la misma transacción (reintentos idempotentes) comparten la entrada
+    private Waiter join(String transactionId) {
+        Waiter[] joined = new Waiter[1];
+        waiters.compute(transactionId, (key, existing) -> {
+            if (existing != null) {
+                existing.subscribers++;
+                joined[0] = existing;
+                return existing;
+            }
+            if (size.get() >= config.getMaxWaiters()) {
+                return null;
+            }
+            size.incrementAndGet();
+            joined[0] = new Waiter(System.nanoTime(), config.getPollMinBackoff().toNanos());
+            return joined[0];
+        });
+        return joined[0];
+    }
+
+    // Sin efecto si la entrada ya se completó o fue reemplazada por una posterior
+    private void leave(String transactionId, Waiter waiter) {
+        waiters.computeIfPresent(transactionId, (key, existing) -> {
+            if (existing != waiter || --existing.subscribers > 0) {
+                return existing;
+            }
+            size.decrementAndGet();
+            return null;
+        });
+    }
+
+    private static final class Waiter {
+
+        private final Sinks.One<Transaction> sink = Sinks.one();
+        // Solo se modifica dentro de compute sobre la clave
+        private int subscribers = 1;
+        // Solo los modifica el sondeo, que corre en serie
+        private long nextPollNanos;
+        private long backoffNanos;
+
+        private Waiter(long now, long backoffNanos) {
+            this.backoffNanos = backoffNanos;
+            this.nextPollNanos = now + backoffNanos;
+        }
+
+        private boolean pollDue(long now, long maxBackoffNanos) {
+            if (now - nextPollNanos < 0) {
+                return false;
+            }
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+            nextPollNanos = now + backoffNanos;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.transactionservice.service;
+
+// Otra petición registró la misma clave primero; provoca el rollback de la transacción perdedora
+class DuplicateIdempotencyKeyException extends RuntimeException {
+
+    DuplicateIdempotencyKeyException(String idempotencyKey) {
+        super("Idempotency-Key registered concurrently: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.transactionservice.service;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("Idempotency-Key already used with a different request: " + idempotencyKey);
+    }
+}
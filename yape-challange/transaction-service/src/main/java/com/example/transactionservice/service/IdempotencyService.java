@@ -0,0 +1,140 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.IdempotencyConfig;
+import com.example.transactionservice.domain.IdempotencyKey;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.CreateTransactionRequest;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionService transactionService;
+    private final TransactionCache transactionCache;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyConfig idempotencyConfig;
+    // Nivel 1: claves recientes en memoria; nivel 2: tabla idempotency_keys
+    private final Cache<String, IdempotencyKey> recentKeys;
+    // Duplicados concurrentes en esta instancia comparten la misma resolución
+    private final Map<String, Mono<IdempotencyKey>> inFlight = new ConcurrentHashMap<>();
+    private final Counter replayedCounter;
+    private Disposable purger;
+
+    public IdempotencyService(TransactionService transactionService,
+                              TransactionCache transactionCache,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              IdempotencyConfig idempotencyConfig,
+                              MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.transactionCache = transactionCache;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotencyConfig = idempotencyConfig;
+        this.recentKeys = Caffeine.newBuilder()
+            .maximumSize(idempotencyConfig.getCacheMaximumSize())
+            .expireAfterWrite(idempotencyConfig.getRetention())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency.keys");
+        this.replayedCounter = meterRegistry.counter("transaction.idempotency.replayed");
+    }
+
+    @PostConstruct
+    public void startPurge() {
+        purger = Flux.interval(idempotencyConfig.getPurgeInterval(), idempotencyConfig.getPurgeInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> idempotencyKeyRepository
+                .deleteCreatedBefore(LocalDateTime.now().minus(idempotencyConfig.getRetention()))
+                .doOnNext(deleted -> log.info("Expired idempotency keys purged: {}", deleted))
+                .onErrorResume(error -> {
+                    log.error("Error purging idempotency keys: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stopPurge() {
+        if (purger != null && !purger.isDisposed()) {
+            purger.dispose();
+        }
+    }
+
+    public Mono<Transaction> createTransaction(String idempotencyKey, CreateTransactionRequest request) {
+        if (!isValidKey(idempotencyKey)) {
+            return Mono.error(new InvalidRequestException("Idempotency-Key must have 1 to 255 characters"));
+        }
+        String requestHash = requestHash(request);
+        
+        IdempotencyKey known = recentKeys.getIfPresent(idempotencyKey);
+        Mono<IdempotencyKey> resolved = known != null
+            ? Mono.just(known).doOnNext(record -> replayedCounter.increment())
+            : inFlight.computeIfAbsent(idempotencyKey, key -> lookupOrCreate(key, requestHash, request)
+                .doOnNext(record -> recentKeys.put(key, record))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache());
+        
+        return resolved.flatMap(record -> {
+            if (!record.getRequestHash().equals(requestHash)) {
+                return Mono.error(new IdempotencyKeyConflictException(idempotencyKey));
+            }
+            return transactionService.getTransactionById(record.getTransactionId());
+        });
+    }
+
+    public static boolean isValidKey(String idempotencyKey) {
+        return !idempotencyKey.isBlank() && idempotencyKey.length() <= MAX_KEY_LENGTH;
+    }
+
+    private Mono<IdempotencyKey> lookupOrCreate(String idempotencyKey, String requestHash, CreateTransactionRequest request) {
+        return idempotencyKeyRepository.findById(idempotencyKey)
+            .doOnNext(record -> {
+                replayedCounter.increment();
+                log.info("Idempotent replay: key={}, transactionId={}", idempotencyKey, record.getTransactionId());
+            })
+            .switchIfEmpty(Mono.defer(() -> transactionService.createTransaction(request, idempotencyKey, requestHash)
+                // Ya confirmada: la respuesta a los reintentos sale de la caché sin tocar la base de datos
+                .doOnNext(transactionCache::put)
+                .map(transaction -> new IdempotencyKey(
+                    idempotencyKey, transaction.getTransactionId(), requestHash, transaction.getCreatedAt()))
+                // Otra instancia ganó la carrera: se devuelve su registro
+                .onErrorResume(DuplicateIdempotencyKeyException.class,
+                    error -> idempotencyKeyRepository.findById(idempotencyKey))));
+    }
+
+    private static String requestHash(CreateTransactionRequest request) {
+        String canonical = request.getAccountExternalIdDebit() + '\n'
+            + request.getAccountExternalIdCredit() + '\n'
+            + request.getTransferTypeId() + '\n'
+            + request.getValue().stripTrailingZeros().toPlainString();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
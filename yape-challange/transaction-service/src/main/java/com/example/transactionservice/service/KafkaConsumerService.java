@@ -1,80 +1,295 @@
 package com.example.transactionservice.service;
 
-import com.example.transactionservice.dto.TransactionStatusUpdatedEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.events.TransactionStatusUpdatedEvent;
+import com.example.events.dedupe.ConsumerDeduplicator;
+import com.example.events.kafka.EventDeserializer;
+import com.example.events.kafka.OrderedRecordProcessor;
+import com.example.events.kafka.RetryTopicPolicy;
+import com.example.events.kafka.RetryTopicRouter;
+import com.example.transactionservice.config.KafkaConsumerConfig;
+import com.example.transactionservice.dto.TransactionStatusChange;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.errors.SerializationException;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
 import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumerService {
     
-    private final KafkaReceiver<String, String> kafkaReceiver;
-    private final ObjectMapper objectMapper;
+    private final ReceiverOptions<String, byte[]> receiverOptions;
+    private final EventDeserializer<TransactionStatusUpdatedEvent> eventDeserializer;
     private final TransactionService transactionService;
-    private Disposable disposable;
+    private final TransactionCache transactionCache;
+    private final TransactionStatusHub statusHub;
+    private final DecisionRegistry decisionRegistry;
+    private final ConsumerDeduplicator deduplicator;
+    private final KafkaConsumerConfig consumerConfig;
+    private final KafkaReceiver<String, byte[]> retryKafkaReceiver;
+    private final RetryTopicRouter retryRouter;
+    private final PipelineMetrics pipelineMetrics;
+    private final Disposable.Composite receivers = Disposables.composite();
+    private Disposable retryDisposable;
     
     @PostConstruct
     public void startConsuming() {
-        log.info("Starting Kafka consumer for transaction status updates...");
+        int count = Math.max(1, consumerConfig.getReceivers());
+        log.info("Starting {} Kafka consumers for transaction status updates...", count);
+        if (consumerConfig.getBatch().isEnabled()) {
+            KafkaConsumerConfig.Batch batch = consumerConfig.getBatch();
+            log.info("Batch mode enabled: size={}, maxWait={}, parallelism={}",
+                batch.getSize(), batch.getMaxWait(), batch.getParallelism());
+        } else {
+            log.info("Ordered mode enabled: concurrency={}, maxInFlight={}",
+                consumerConfig.getConcurrency(), consumerConfig.getMaxInFlight());
+        }
         
-        disposable = kafkaReceiver.receive()
-            .flatMap(this::processMessage)
-            .subscribe();
+        for (int i = 0; i < count; i++) {
+            startReceiver(i);
+        }
+        
+        if (retryRouter.isEnabled()) {
+            retryDisposable = consumeRetries(retryKafkaReceiver.receive()).subscribe();
+        }
     }
     
     @PreDestroy
     public void stopConsuming() {
-        if (disposable != null && !disposable.isDisposed()) {
-            log.info("Stopping Kafka consumer...");
-            disposable.dispose();
+        if (!receivers.isDisposed()) {
+            log.info("Stopping Kafka consumers...");
+            receivers.dispose();
+        }
+        if (retryDisposable != null && !retryDisposable.isDisposed()) {
+            retryDisposable.dispose();
         }
     }
     
-    private Mono<Void> processMessage(ReceiverRecord<String, String> record) {
+    // Cada receptor es un consumer del grupo con sus particiones, su hilo (deserialización y reglas
+    // fuera del hilo de poll) y sus propios carriles; los receptores no comparten estado de offsets
+    private void startReceiver(int index) {
+        String clientId = receiverOptions.groupId() + "-" + index;
+        Scheduler scheduler = Schedulers.newSingle("kafka-consumer-" + index);
+        ReceiverOptions<String, byte[]> options = receiverOptions
+            .consumerProperty(ConsumerConfig.CLIENT_ID_CONFIG, clientId);
+        
+        KafkaReceiver<String, byte[]> receiver;
+        Flux<Void> pipeline;
+        if (consumerConfig.getBatch().isEnabled()) {
+            KafkaReceiver<String, byte[]> batchReceiver = KafkaReceiver.create(options);
+            receiver = batchReceiver;
+            pipeline = Flux.defer(() -> {
+                // Una cuenta por suscripción: lo que quedó en lotes descartados al fallar el receptor no la desajusta
+                AtomicInteger inFlight = new AtomicInteger();
+                pipelineMetrics.trackInFlight(clientId, inFlight::get);
+                return consumeInBatches(records(batchReceiver, scheduler)
+                    .doOnNext(record -> inFlight.incrementAndGet()), inFlight);
+            });
+        } else {
+            OrderedRecordProcessor<String, byte[]> processor = new OrderedRecordProcessor<>(
+                consumerConfig.getConcurrency(), consumerConfig.getMaxInFlight());
+            receiver = KafkaReceiver.create(options
+                .addAssignListener(processor::assign)
+                .addRevokeListener(processor::revoke));
+            pipelineMetrics.trackInFlight(clientId, processor::inFlight);
+            pipeline = processor.process(records(receiver, scheduler), this::processMessage);
+        }
+        
+        log.info("Kafka consumer {} started", clientId);
+        receivers.add(pipeline.retryWhen(resubscribe(clientId)).subscribe());
+        receivers.add(pipelineMetrics.monitorLag(receiver));
+        receivers.add(scheduler);
+    }
+    
+    // Un registro que no se pudo procesar ni desviar hace fallar el receptor: se recrea el consumer,
+    // que vuelve a leer desde el último offset confirmado de sus particiones
+    private Retry resubscribe(String clientId) {
+        return Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+            .maxBackoff(Duration.ofSeconds(30))
+            .transientErrors(true)
+            .doBeforeRetry(signal -> log.warn("Kafka consumer {} failed, resubscribing: {}",
+                clientId, signal.failure().getMessage()));
+    }
+    
+    private Flux<ReceiverRecord<String, byte[]>> records(KafkaReceiver<String, byte[]> receiver, Scheduler scheduler) {
+        return receiver.receive()
+            .publishOn(scheduler, consumerConfig.getMaxPollRecords());
+    }
+    
+    private Flux<Void> consumeInBatches(Flux<ReceiverRecord<String, byte[]>> records, AtomicInteger inFlight) {
+        KafkaConsumerConfig.Batch batch = consumerConfig.getBatch();
+        int parallelism = batch.getParallelism();
+        
+        // Cada partición cae siempre en el mismo carril y los lotes de un carril se aplican
+        // en serie, así los offsets se confirman en orden
+        return records
+            .groupBy(record -> record.partition() % parallelism)
+            .flatMap(lane -> lane
+                .bufferTimeout(batch.getSize(), batch.getMaxWait(), true)
+                .concatMap(batchRecords -> processBatch(batchRecords)
+                    .doFinally(signal -> inFlight.addAndGet(-batchRecords.size()))), parallelism);
+    }
+    
+    // Cada partición de reintento se procesa en serie: sus registros vencen en el mismo orden en que llegaron
+    private Flux<Void> consumeRetries(Flux<ReceiverRecord<String, byte[]>> records) {
+        log.info("Retry consumer enabled");
+        
+        return records
+            .groupBy(record -> record.receiverOffset().topicPartition(), consumerConfig.getMaxInFlight())
+            .flatMap(partition -> partition.concatMap(this::processRetry), Integer.MAX_VALUE);
+    }
+    
+    private Mono<Void> processBatch(List<ReceiverRecord<String, byte[]>> records) {
+        return pipelineMetrics.timeStage("status.update.batch", Mono.defer(() -> {
+            // Una decisión por transacción: la primera del lote, como al procesar uno a uno
+            Map<String, String> decidedStatus = new LinkedHashMap<>();
+            List<Map.Entry<Integer, String>> processedEventIds = new ArrayList<>();
+            List<Mono<Void>> undecodable = new ArrayList<>();
+            for (ReceiverRecord<String, byte[]> record : records) {
+                try {
+                    TransactionStatusUpdatedEvent event = eventDeserializer.deserialize(
+                        record.topic(),
+                        record.value()
+                    );
+                    pipelineMetrics.recordConsumed(record, event.getEventTimestamp());
+                    if (deduplicator.isDuplicate(record.partition(), record.offset(), event.getEventId())) {
+                        continue;
+                    }
+                    decidedStatus.putIfAbsent(event.getTransactionId(), event.getNewStatus());
+                    if (event.getEventId() != null) {
+                        processedEventIds.add(Map.entry(record.partition(), event.getEventId()));
+                    }
+                } catch (Exception e) {
+                    log.error("Error deserializing message: partition={}, offset={}, error={}",
+                        record.partition(), record.offset(), e.getMessage(), e);
+                    undecodable.add(retryRouter.route(record, new SerializationException("Failed to deserialize message", e)));
+                }
+            }
+            
+            LocalDateTime updatedAt = LocalDateTime.now();
+            return transactionService.updateTransactionStatuses(decidedStatus, updatedAt)
+                .collectList()
+                // Tras el commit la caché y los suscriptores reciben solo las filas que cambiaron;
+                // las transiciones ya aplicadas o no permitidas no devuelven fila
+                .doOnSuccess(updated -> {
+                    updated.forEach(transaction -> {
+                        transactionCache.put(transaction);
+                        statusHub.publish(new TransactionStatusChange(
+                            transaction.getTransactionId(), transaction.getStatus(), transaction.getUpdatedAt()));
+                        decisionRegistry.complete(transaction);
+                    });
+                    processedEventIds.forEach(processed ->
+                        deduplicator.markProcessed(processed.getKey(), processed.getValue()));
+                })
+                .map(List::size)
+                .flatMap(updated -> Mono.when(undecodable).thenReturn(updated));
+        }))
+        .doOnNext(updated -> log.info("Successfully processed batch: records={}, updated={}", records.size(), updated))
+        .onErrorResume(error -> {
+            // El lote se revirtió completo: registro a registro se aísla el que falla y solo ese va a reintento
+            log.error("Error processing batch of {} records, falling back to one by one: {}",
+                records.size(), error.getMessage(), error);
+            // Los registros ya se midieron al leer el lote
+            return Flux.fromIterable(records)
+                .concatMap(record -> processMessage(record, false))
+                .then(Mono.just(0));
+        })
+        .doOnSuccess(updated -> records.forEach(record -> record.receiverOffset().acknowledge()))
+        // Sin confirmar el lote los offsets de su carril no avanzarían: falla el receptor
+        .doOnError(error -> log.error("Batch of {} records left unacknowledged: {}",
+            records.size(), error.getMessage()))
+        .then();
+    }
+    
+    // Un fallo se desvía al tópico de reintento y el registro se confirma; solo queda sin
+    // confirmar si el desvío mismo falla
+    private Mono<Void> processMessage(ReceiverRecord<String, byte[]> record) {
+        return processMessage(record, true);
+    }
+    
+    private Mono<Void> processMessage(ReceiverRecord<String, byte[]> record, boolean measureLatency) {
+        return pipelineMetrics.timeStage("status.update", handle(record, record.partition(), measureLatency))
+            .onErrorResume(error -> {
+                log.error("Error processing message for transaction: {}, error: {}",
+                    record.key(), error.getMessage(), error);
+                return retryRouter.route(record, error);
+            });
+    }
+    
+    private Mono<Void> processRetry(ReceiverRecord<String, byte[]> record) {
+        return retryRouter.awaitDue(record)
+            // Los reintentos esperaron su backoff a propósito: no cuentan como latencia del flujo
+            .then(Mono.defer(() -> handle(record, RetryTopicPolicy.originalPartition(record), false)))
+            .onErrorResume(error -> {
+                log.error("Retry attempt {} failed for transaction: {}, error: {}",
+                    RetryTopicPolicy.attempt(record.headers()), record.key(), error.getMessage());
+                // Si no se puede desviar, se insiste: confirmar aquí perdería el registro
+                return retryRouter.route(record, error)
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)));
+            })
+            .doOnSuccess(v -> record.receiverOffset().acknowledge());
+    }
+    
+    // partition es la del tópico principal: para un reintento, la de origen
+    private Mono<Void> handle(ReceiverRecord<String, byte[]> record, int partition, boolean measureLatency) {
         return Mono.fromCallable(() -> {
-            log.info("Received message from Kafka: key={}, partition={}, offset={}",
-                record.key(), record.partition(), record.offset());
+            log.info("Received message from Kafka: topic={}, key={}, partition={}, offset={}",
+                record.topic(), record.key(), record.partition(), record.offset());
             
             try {
-                return objectMapper.readValue(
-                    record.value(),
-                    TransactionStatusUpdatedEvent.class
+                return eventDeserializer.deserialize(
+                    record.topic(),
+                    record.value()
                 );
             } catch (Exception e) {
                 log.error("Error deserializing message: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to deserialize message", e);
+                throw new SerializationException("Failed to deserialize message", e);
             }
         })
         .flatMap(event -> {
+            if (measureLatency) {
+                pipelineMetrics.recordConsumed(record, event.getEventTimestamp());
+            }
+            if (deduplicator.isDuplicate(partition, record.offset(), event.getEventId())) {
+                return Mono.empty();
+            }
             log.info("Processing status update: transactionId={}, oldStatus={}, newStatus={}",
                 event.getTransactionId(), event.getOldStatus(), event.getNewStatus());
             
             return transactionService.updateTransactionStatus(
                 event.getTransactionId(),
                 event.getNewStatus()
-            );
-        })
-        .doOnSuccess(transaction -> {
-            log.info("Successfully processed status update for transaction: {}",
-                record.key());
-            record.receiverOffset().acknowledge();
-        })
-        .doOnError(error -> {
-            log.error("Error processing message for transaction: {}, error: {}",
-                record.key(), error.getMessage(), error);
-            // En producción, aquí podrías implementar lógica de retry o dead letter queue
-            record.receiverOffset().acknowledge(); // Acknowledge para evitar reprocessamiento infinito
+            ).doOnNext(transaction -> {
+                deduplicator.markProcessed(partition, event.getEventId());
+                transactionCache.put(transaction);
+                statusHub.publish(new TransactionStatusChange(
+                    transaction.getTransactionId(), transaction.getStatus(), transaction.getUpdatedAt()));
+                decisionRegistry.complete(transaction);
+                log.info("Successfully processed status update for transaction: {}",
+                    record.key());
+            });
         })
-        .onErrorResume(error -> Mono.empty())
         .then();
     }
 }
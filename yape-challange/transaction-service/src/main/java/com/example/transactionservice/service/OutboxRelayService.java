@@ -0,0 +1,147 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.OutboxConfig;
+import com.example.transactionservice.domain.OutboxEvent;
+import com.example.transactionservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxConfig outboxConfig;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile long lastProgressNanos = System.nanoTime();
+    private Counter publishedCounter;
+    private Counter failedBatchesCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer batchTimer;
+    private Disposable disposable;
+
+    @PostConstruct
+    public void startRelay() {
+        publishedCounter = meterRegistry.counter("outbox.relay.published");
+        failedBatchesCounter = meterRegistry.counter("outbox.relay.failed.batches");
+        batchSizeSummary = meterRegistry.summary("outbox.relay.batch.size");
+        batchTimer = meterRegistry.timer("outbox.relay.batch.duration");
+        Gauge.builder("outbox.backlog", backlog, AtomicLong::get)
+            .description("Eventos pendientes de publicar en el outbox")
+            .register(meterRegistry);
+
+        if (!outboxConfig.isEnabled()) {
+            log.warn("Outbox relay disabled");
+            return;
+        }
+
+        log.info("Starting outbox relay: batchSize={}, pollInterval={}",
+            outboxConfig.getBatchSize(), outboxConfig.getPollInterval());
+
+        disposable = Flux.interval(Duration.ZERO, outboxConfig.getPollInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> drain()
+                .onErrorResume(error -> {
+                    failedBatchesCounter.increment();
+                    log.error("Outbox relay cycle failed: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stopRelay() {
+        if (disposable != null && !disposable.isDisposed()) {
+            log.info("Stopping outbox relay...");
+            disposable.dispose();
+        }
+    }
+
+    // Eventos pendientes según el último lote del relay o, si no lo vació, la estimación de la tabla
+    public long backlog() {
+        return backlog.get();
+    }
+
+    // Tiempo desde el último lote completado; crece mientras Kafka no confirma los envíos
+    public Duration timeSinceProgress() {
+        return disposable == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - lastProgressNanos);
+    }
+
+    private Mono<Void> drain() {
+        // Mientras los lotes salgan llenos seguimos drenando sin esperar al siguiente tick
+        return relayBatch()
+            .expand(published -> published >= outboxConfig.getBatchSize() ? relayBatch() : Mono.empty())
+            .concatMap(this::updateBacklog)
+            .onErrorResume(error -> estimateBacklog().then(Mono.error(error)))
+            .then();
+    }
+
+    private Mono<Integer> relayBatch() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return outboxEventRepository.lockNextBatch(outboxConfig.getBatchSize())
+                .collectList()
+                .flatMap(this::publishAndDelete)
+                .as(transactionalOperator::transactional)
+                .doOnNext(published -> {
+                    lastProgressNanos = System.nanoTime();
+                    if (published > 0) {
+                        batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                        batchSizeSummary.record(published);
+                        publishedCounter.increment(published);
+                    }
+                });
+        });
+    }
+
+    private Mono<Integer> publishAndDelete(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        return kafkaProducerService.publishOutboxEvents(events)
+            .then(outboxEventRepository.deleteAllById(ids))
+            .thenReturn(events.size());
+    }
+
+    // Sin un count() por ciclo: un lote incompleto deja el outbox vacío (salvo lo que otras instancias
+    // tienen bloqueado y están publicando); tras un lote lleno o un fallo el relay no sabe cuánto queda
+    // y se usa la estimación, al menos un lote
+    private Mono<Void> updateBacklog(int published) {
+        if (published < outboxConfig.getBatchSize()) {
+            backlog.set(0);
+            return Mono.empty();
+        }
+        return estimateBacklog();
+    }
+
+    private Mono<Void> estimateBacklog() {
+        return outboxEventRepository.estimateCount()
+            .doOnNext(estimate -> backlog.set(Math.max(estimate, outboxConfig.getBatchSize())))
+            .onErrorResume(error -> {
+                log.debug("Could not estimate outbox backlog: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
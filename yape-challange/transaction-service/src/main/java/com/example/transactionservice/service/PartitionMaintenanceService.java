@@ -0,0 +1,286 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.PartitioningConfig;
+import com.example.transactionservice.repository.TransactionPartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Mantenimiento de las particiones por created_at de transactions: crea por adelantado las
+ * particiones de los próximos intervalos y retira las que quedan fuera de la retención. Retirar
+ * una partición es una sola transacción: se bloquean sus escrituras, se exporta a un NDJSON
+ * comprimido, se borran sus entradas del localizador y se desvincula y elimina. Si algo falla,
+ * la partición sigue adjunta y se reintenta en la siguiente pasada.
+ */
+// Con spring.sql.init la primera pasada espera a que schema.sql haya creado la tabla
+@Service
+@Slf4j
+@DependsOnDatabaseInitialization
+public class PartitionMaintenanceService {
+
+    private static final String PARTITION_PREFIX = "transactions_p";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final PartitioningConfig config;
+    private final AtomicInteger partitionCount = new AtomicInteger();
+    private final Counter createdCounter;
+    private final Counter retiredCounter;
+    private final Counter archivedRowsCounter;
+    private Disposable disposable;
+
+    public PartitionMaintenanceService(TransactionPartitionRepository partitionRepository,
+                                       TransactionalOperator transactionalOperator,
+                                       PartitioningConfig config,
+                                       MeterRegistry meterRegistry) {
+        this.partitionRepository = partitionRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.config = config;
+        this.createdCounter = meterRegistry.counter("transaction.partitions.created");
+        this.retiredCounter = meterRegistry.counter("transaction.partitions.retired");
+        this.archivedRowsCounter = meterRegistry.counter("transaction.partitions.archived.rows");
+        Gauge.builder("transaction.partitions", partitionCount, AtomicInteger::get)
+            .description("Particiones adjuntas a transactions")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startMaintenance() {
+        if (!config.isEnabled()) {
+            log.warn("Partition maintenance disabled");
+            return;
+        }
+        log.info("Starting partition maintenance: interval={}, premake={}, retention={}, archive={}",
+            config.getInterval(), config.getPremake(), config.getRetention(),
+            config.isArchiveEnabled() ? config.getArchiveDirectory().toAbsolutePath() : "disabled");
+
+        // La primera pasada termina antes de aceptar altas: sin la partición actual
+        // las filas caerían en transactions_default
+        maintain()
+            .timeout(STARTUP_TIMEOUT)
+            .onErrorResume(error -> {
+                log.error("Initial partition maintenance failed: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .block();
+
+        disposable = Flux.interval(config.getMaintenanceInterval(), config.getMaintenanceInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> maintain()
+                .onErrorResume(error -> {
+                    log.error("Partition maintenance failed: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stopMaintenance() {
+        if (disposable != null && !disposable.isDisposed()) {
+            disposable.dispose();
+        }
+    }
+
+    private Mono<Void> maintain() {
+        return partitionRepository.isPartitioned()
+            .flatMap(partitioned -> {
+                if (!partitioned) {
+                    log.warn("Table transactions is not partitioned; run db/partition-transactions.sql");
+                    return Mono.empty();
+                }
+                return createPartitions()
+                    .then(retirePartitions())
+                    .then(partitionRepository.findPartitions().count())
+                    .doOnNext(count -> partitionCount.set(count.intValue()))
+                    .then();
+            });
+    }
+
+    private Mono<Void> createPartitions() {
+        PartitioningConfig.Interval interval = config.getInterval();
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate start = interval.start(LocalDate.now());
+        for (int i = 0; i <= config.getPremake(); i++) {
+            starts.add(start);
+            start = interval.next(start);
+        }
+        return partitionRepository.findPartitions().collect(Collectors.toSet())
+            .flatMapMany(existing -> Flux.fromIterable(starts)
+                .filter(from -> !existing.contains(PARTITION_PREFIX + interval.suffix(from))))
+            // Cada partición en su propia transacción: un fallo no impide crear las siguientes
+            .concatMap(from -> createPartition(PARTITION_PREFIX + interval.suffix(from), from, interval.next(from)))
+            .then();
+    }
+
+    private Mono<Void> createPartition(String partition, LocalDate from, LocalDate to) {
+        return partitionRepository.tryMaintenanceLock()
+            .filter(Boolean::booleanValue)
+            .flatMap(locked -> partitionRepository.setLockTimeout(config.getLockTimeout())
+                .then(partitionRepository.createPartition(partition, from, to))
+                .thenReturn(partition))
+            .as(transactionalOperator::transactional)
+            .doOnNext(created -> {
+                createdCounter.increment();
+                log.info("Partition created: {} [{}, {})", created, from, to);
+            })
+            .onErrorResume(error -> {
+                // Falla si transactions_default ya contiene filas del rango
+                log.error("Error creating partition {}: {}", partition, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Void> retirePartitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getRetention());
+        return partitionRepository.findPartitions()
+            .filter(partition -> isExpired(partition, cutoff))
+            .sort()
+            .concatMap(this::retirePartition)
+            .then();
+    }
+
+    // Expirada cuando el final de su rango ya es anterior al corte de retención
+    private static boolean isExpired(String partition, LocalDateTime cutoff) {
+        String suffix = partition.substring(PARTITION_PREFIX.length());
+        PartitioningConfig.Interval interval = PartitioningConfig.Interval.ofSuffix(suffix);
+        if (interval == null) {
+            return false;
+        }
+        return !interval.next(interval.parse(suffix)).atStartOfDay().isAfter(cutoff);
+    }
+
+    private Mono<Void> retirePartition(String partition) {
+        Path archive = config.getArchiveDirectory().resolve(partition + ".ndjson.gz");
+        Path temp = config.getArchiveDirectory().resolve(partition + ".ndjson.gz.tmp");
+        return partitionRepository.tryMaintenanceLock()
+            .filter(Boolean::booleanValue)
+            .flatMap(locked -> partitionRepository.setLockTimeout(config.getLockTimeout())
+                .then(partitionRepository.lockPartition(partition))
+                .then(config.isArchiveEnabled() ? export(partition, temp) : Mono.just(0L))
+                .flatMap(rows -> partitionRepository.deleteLocators(partition)
+                    .then(partitionRepository.detachPartition(partition))
+                    // Sin archivo la tabla desvinculada se conserva con sus datos
+                    .then(config.isArchiveEnabled()
+                        ? partitionRepository.dropPartition(partition).then(publish(temp, archive))
+                        : Mono.empty())
+                    .thenReturn(rows)))
+            .as(transactionalOperator::transactional)
+            .doOnNext(rows -> {
+                retiredCounter.increment();
+                archivedRowsCounter.increment(rows);
+                if (config.isArchiveEnabled()) {
+                    log.info("Partition archived: {} ({} rows) -> {}", partition, rows, archive);
+                } else {
+                    log.info("Partition detached: {}", partition);
+                }
+            })
+            .doOnError(error -> deleteQuietly(temp))
+            .onErrorResume(error -> {
+                log.error("Error retiring partition {}: {}", partition, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Long> export(String partition, Path file) {
+        return Mono.using(
+            () -> openArchive(file),
+            writer -> partitionRepository.exportRows(partition, EXPORT_FETCH_SIZE)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(row -> writeLine(writer, row))
+                .count()
+                // El cierre escribe el final del gzip: si falla, la partición no se elimina
+                .doOnNext(rows -> close(writer)),
+            PartitionMaintenanceService::closeQuietly);
+    }
+
+    // El archivo queda en disco antes del commit que elimina la partición
+    private Mono<Void> publish(Path temp, Path archive) {
+        return Mono.<Void>fromRunnable(() -> {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                try {
+                    Files.move(temp, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Writer openArchive(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8));
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Error closing archive: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
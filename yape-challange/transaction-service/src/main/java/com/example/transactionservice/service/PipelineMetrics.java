@@ -0,0 +1,43 @@
+package com.example.transactionservice.service;
+
+import com.example.events.kafka.ConsumerPipelineMetrics;
+import com.example.transactionservice.config.KafkaConsumerConfig;
+import com.example.transactionservice.config.KafkaTopicConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Métricas del consumidor más la latencia total hasta la decisión y las transiciones rechazadas
+@Component
+public class PipelineMetrics extends ConsumerPipelineMetrics {
+
+    private final Map<String, Timer> decisionTimers = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(KafkaTopicConfig topicConfig, KafkaConsumerConfig consumerConfig, MeterRegistry meterRegistry) {
+        super(topicConfig.getAntiFraudValidation(), consumerConfig.getMetrics().getLagInterval(), meterRegistry);
+    }
+
+    // Desde el alta de la transacción hasta que se aplica su estado final
+    public void recordDecision(String status, LocalDateTime createdAt, LocalDateTime decidedAt) {
+        if (createdAt == null || decidedAt == null) {
+            return;
+        }
+        Duration latency = Duration.between(createdAt, decidedAt);
+        decisionTimers.computeIfAbsent(status, key -> Timer.builder("transaction.decision.latency")
+                .description("Desde la creación de la transacción hasta que se aplica su estado final")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    // Decisión que la máquina de estados no permite aplicar sobre el estado actual
+    public void recordRejectedTransition(String from, String to) {
+        meterRegistry.counter("transaction.status.transitions.rejected", "from", from, "to", to).increment();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.TransactionCacheConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Solo la instancia que consume el evento de estado actualiza su caché: las demás siguen sirviendo
+// lo que cargaron. Por eso un estado final puede vivir expireAfterWrite, pero uno que aún puede
+// cambiar (PENDING) solo pendingExpireAfterWrite
+@Component
+@Slf4j
+public class TransactionCache {
+
+    private final TransactionCacheConfig cacheConfig;
+    private final AsyncCache<String, Transaction> cache;
+
+    public TransactionCache(TransactionCacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        this.cacheConfig = cacheConfig;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheConfig.getMaximumSize())
+            .expireAfter(new StateExpiry(cacheConfig.getExpireAfterWrite(), cacheConfig.getPendingExpireAfterWrite()))
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transactions");
+        log.info("Transaction cache: enabled={}, maximumSize={}, expireAfterWrite={}, pendingExpireAfterWrite={}",
+            cacheConfig.isEnabled(), cacheConfig.getMaximumSize(), cacheConfig.getExpireAfterWrite(),
+            cacheConfig.getPendingExpireAfterWrite());
+    }
+
+    public Mono<Transaction> get(String transactionId, Function<String, Mono<Transaction>> loader) {
+        if (!cacheConfig.isEnabled()) {
+            return loader.apply(transactionId);
+        }
+        // Las lecturas concurrentes de la misma clave comparten una sola consulta; si no existe
+        // la fila el futuro termina en null y Caffeine no guarda nada
+        CompletableFuture<Transaction> future = cache.get(transactionId,
+            (key, executor) -> loader.apply(key).toFuture());
+        // Cancelar una petición no debe cancelar la carga que comparten las demás
+        return Mono.fromFuture(future, true);
+    }
+
+    public void put(Transaction transaction) {
+        if (cacheConfig.isEnabled()) {
+            cache.put(transaction.getTransactionId(), CompletableFuture.completedFuture(transaction));
+        }
+    }
+
+    // Solo lo que ya está cargado; nunca consulta la base de datos
+    public Transaction getIfPresent(String transactionId) {
+        if (!cacheConfig.isEnabled()) {
+            return null;
+        }
+        CompletableFuture<Transaction> future = cache.getIfPresent(transactionId);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+    }
+
+    // Expiración por entrada según el estado; leer una entrada no alarga su vida
+    static class StateExpiry implements Expiry<String, Transaction> {
+
+        private final long finalNanos;
+        private final long pendingNanos;
+
+        StateExpiry(Duration finalTtl, Duration pendingTtl) {
+            this.finalNanos = finalTtl.toNanos();
+            this.pendingNanos = pendingTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Transaction transaction, long currentTime) {
+            return TransactionState.isFinal(transaction.getStatus()) ? finalNanos : pendingNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Transaction transaction, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, transaction, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Transaction transaction, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.transactionservice.service;
 
+import com.example.events.TransactionCreatedEvent;
+import com.example.events.TransactionStatus;
+import com.example.events.TransactionType;
+import com.example.events.kafka.EventSerializer;
+import com.example.events.kafka.NonRetryableException;
+import com.example.transactionservice.config.KafkaTopicConfig;
+import com.example.transactionservice.config.TransactionListingConfig;
+import com.example.transactionservice.domain.OutboxEvent;
 import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.example.transactionservice.dto.AccountHistoryFilter;
 import com.example.transactionservice.dto.CreateTransactionRequest;
-import com.example.transactionservice.dto.TransactionCreatedEvent;
-import com.example.transactionservice.dto.TransactionStatus;
-import com.example.transactionservice.dto.TransactionType;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionCursor;
+import com.example.transactionservice.dto.TransactionFilter;
+import com.example.transactionservice.dto.TransactionPage;
+import com.example.transactionservice.dto.TransactionStats;
+import com.example.transactionservice.dto.TransactionStatusChange;
+import com.example.transactionservice.repository.IdempotencyKeyRepository;
+import com.example.transactionservice.repository.OutboxEventRepository;
 import com.example.transactionservice.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -22,71 +46,309 @@ import java.util.UUID;
 public class TransactionService {
     
     private final TransactionRepository transactionRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final KafkaTopicConfig topicConfig;
+    private final EventSerializer<TransactionCreatedEvent> eventSerializer;
+    private final TransactionCache transactionCache;
+    private final TransactionListingConfig listingConfig;
+    private final TransactionStatusHub statusHub;
+    private final PipelineMetrics pipelineMetrics;
+    private final TransactionStatsService transactionStats;
+    private final AccountHistoryCache accountHistoryCache;
+    private final DecisionRegistry decisionRegistry;
     
     @Transactional
     public Mono<Transaction> createTransaction(CreateTransactionRequest request) {
         log.info("Creating new transaction: {}", request.getTransferTypeId());
         
-        String transactionId = UUID.randomUUID().toString();
+        return persist(newTransaction(request, LocalDateTime.now()));
+    }
+    
+    @Transactional
+    public Mono<Transaction> createTransaction(CreateTransactionRequest request, String idempotencyKey, String requestHash) {
+        log.info("Creating new transaction with idempotency key: {}", idempotencyKey);
         
-        Transaction transaction = Transaction.builder()
-            .transactionId(transactionId)
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = newTransaction(request, now);
+        // La clave se registra antes que la fila: un duplicado concurrente se detiene aquí sin insertar nada
+        return idempotencyKeyRepository.insertIfAbsent(idempotencyKey, transaction.getTransactionId(), requestHash, now)
+            .flatMap(inserted -> inserted == 0
+                ? Mono.error(new DuplicateIdempotencyKeyException(idempotencyKey))
+                : persist(transaction));
+    }
+    
+    private Mono<Transaction> persist(Transaction transaction) {
+        return pipelineMetrics.timeStage("create", transactionRepository.insert(transaction)
+            .flatMap(savedTransaction -> {
+                log.info("Transaction saved: {}", savedTransaction.getTransactionId());
+                
+                // Registrar el evento en el outbox dentro de la misma transacción;
+                // OutboxRelayService se encarga de publicarlo en Kafka
+                return outboxEventRepository.save(toOutboxEvent(savedTransaction))
+                    .then(onCommit(() -> {
+                        transactionStats.recordCreated(savedTransaction);
+                        accountHistoryCache.invalidate(savedTransaction);
+                    }))
+                    .thenReturn(savedTransaction);
+            }))
+            .doOnSuccess(tx -> log.info("Transaction created and event queued: {}", tx.getTransactionId()))
+            .doOnError(error -> log.error("Error creating transaction: {}", error.getMessage(), error));
+    }
+    
+    Transaction newTransaction(CreateTransactionRequest request, LocalDateTime now) {
+        return Transaction.builder()
+            .transactionId(UUID.randomUUID().toString())
             .accountExternalIdDebit(request.getAccountExternalIdDebit())
             .accountExternalIdCredit(request.getAccountExternalIdCredit())
             .transferTypeId(request.getTransferTypeId())
             .value(request.getValue())
-            .status("PENDING")
-            .createdAt(LocalDateTime.now())
-            .updatedAt(LocalDateTime.now())
+            .status(TransactionState.PENDING.name())
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+    
+    OutboxEvent toOutboxEvent(Transaction transaction) {
+        TransactionCreatedEvent event = TransactionCreatedEvent.builder()
+            .transactionId(transaction.getTransactionId())
+            .transactionType(new TransactionType(String.valueOf(transaction.getTransferTypeId())))
+            .transactionStatus(new TransactionStatus(transaction.getStatus()))
+            .value(transaction.getValue())
+            .accountExternalIdDebit(transaction.getAccountExternalIdDebit())
+            .accountExternalIdCredit(transaction.getAccountExternalIdCredit())
+            .createdAt(transaction.getCreatedAt())
+            .eventId(UUID.randomUUID().toString())
+            .eventTimestamp(LocalDateTime.now())
             .build();
         
-        return transactionRepository.save(transaction)
-            .flatMap(savedTransaction -> {
-                log.info("Transaction saved: {}", savedTransaction.getTransactionId());
-                
-                // Crear evento
-                TransactionCreatedEvent event = TransactionCreatedEvent.builder()
-                    .transactionId(savedTransaction.getTransactionId())
-                    .transactionType(new TransactionType(String.valueOf(savedTransaction.getTransferTypeId())))
-                    .transactionStatus(new TransactionStatus(savedTransaction.getStatus()))
-                    .value(savedTransaction.getValue())
-                    .createdAt(savedTransaction.getCreatedAt())
-                    .build();
-                
-                // Publicar evento
-                return kafkaProducerService.publishTransactionCreation(event)
-                    .thenReturn(savedTransaction);
-            })
-            .doOnSuccess(tx -> log.info("Transaction created and event published: {}", tx.getTransactionId()))
-            .doOnError(error -> log.error("Error creating transaction: {}", error.getMessage(), error));
+        return OutboxEvent.builder()
+            .aggregateId(transaction.getTransactionId())
+            .topic(topicConfig.getTransactionCreation())
+            // Clave por cuenta débito: todas sus altas van a la misma partición, donde status-service
+            // mantiene la ventana de velocidad de la cuenta
+            .eventKey(transaction.getAccountExternalIdDebit())
+            .payload(eventSerializer.serialize(topicConfig.getTransactionCreation(), event))
+            .createdAt(event.getEventTimestamp())
+            .build();
     }
     
     public Mono<Transaction> getTransactionById(String transactionId) {
         log.info("Retrieving transaction: {}", transactionId);
-        return transactionRepository.findByTransactionId(transactionId)
+        if (!Transaction.isValidTransactionId(transactionId)) {
+            return Mono.error(new RuntimeException("Transaction not found: " + transactionId));
+        }
+        return transactionCache.get(transactionId, transactionRepository::findByTransactionId)
             .switchIfEmpty(Mono.error(new RuntimeException("Transaction not found: " + transactionId)));
     }
 
-    public Flux<Transaction> getAllTransactions() {
-        log.info("Retrieving all transactions");
-        return transactionRepository.findAll()
-                .switchIfEmpty(Mono.error(new RuntimeException("Not content: ")));
+    public Mono<TransactionPage> getTransactionsPage(TransactionFilter filter, String cursor, Integer limit) {
+        int pageSize = Math.min(limit == null ? listingConfig.getDefaultPageSize() : limit, listingConfig.getMaxPageSize());
+        if (pageSize <= 0) {
+            return Mono.error(new InvalidRequestException("limit must be positive"));
+        }
+        log.info("Retrieving transactions page: filter={}, cursor={}, limit={}", filter, cursor, pageSize);
+        
+        // Se pide una fila de más para saber si existe una página siguiente
+        return Flux.defer(() -> transactionRepository.findByFilter(
+                filter, decodeCursor(cursor), pageSize + 1, pageSize + 1))
+            .collectList()
+            .map(rows -> toPage(rows, pageSize));
+    }
+    
+    // rows trae al menos una fila más que la página cuando existe una página siguiente
+    private static TransactionPage toPage(List<Transaction> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> items = rows.subList(0, pageSize);
+        return new TransactionPage(items, TransactionCursor.of(items.get(pageSize - 1)).encode());
     }
 
-    @Transactional
+    public Flux<Transaction> streamTransactions(TransactionFilter filter, String cursor) {
+        log.info("Streaming transactions: filter={}, cursor={}", filter, cursor);
+        return Flux.defer(() -> transactionRepository.findByFilter(
+            filter, decodeCursor(cursor), 0, listingConfig.getStreamFetchSize()));
+    }
+    
+    // La primera página sin rango se sirve desde la actividad reciente en caché si cabe en ella
+    public Mono<TransactionPage> getAccountHistoryPage(AccountHistoryFilter filter, String cursor, Integer limit) {
+        int pageSize = Math.min(limit == null ? listingConfig.getDefaultPageSize() : limit, listingConfig.getMaxPageSize());
+        if (pageSize <= 0) {
+            return Mono.error(new InvalidRequestException("limit must be positive"));
+        }
+        log.info("Retrieving account history page: filter={}, cursor={}, limit={}", filter, cursor, pageSize);
+        
+        boolean cached = accountHistoryCache.isEnabled() && filter.isUnbounded()
+            && (cursor == null || cursor.isBlank()) && pageSize <= accountHistoryCache.getRecentSize();
+        Mono<List<Transaction>> rows = cached
+            ? accountHistoryCache.get(filter.getAccount(), filter.getSide(),
+                size -> transactionRepository.findByAccount(filter, null, size, size).collectList())
+            : Flux.defer(() -> transactionRepository.findByAccount(
+                filter, decodeCursor(cursor), pageSize + 1, pageSize + 1)).collectList();
+        return rows.map(found -> toPage(found, pageSize));
+    }
+    
+    public Flux<Transaction> streamAccountHistory(AccountHistoryFilter filter, String cursor) {
+        log.info("Streaming account history: filter={}, cursor={}", filter, cursor);
+        return Flux.defer(() -> transactionRepository.findByAccount(
+            filter, decodeCursor(cursor), 0, listingConfig.getStreamFetchSize()));
+    }
+    
+    // La transacción con su decisión si llega antes del timeout; si no, tal como esté en la base de datos
+    public Mono<Transaction> awaitDecision(Transaction transaction, Duration timeout) {
+        if (TransactionState.of(transaction.getStatus()).isFinal()) {
+            return Mono.just(transaction);
+        }
+        String transactionId = transaction.getTransactionId();
+        return decisionRegistry.await(transactionId, timeout, () -> transactionCache.getIfPresent(transactionId))
+            // La decisión pudo aplicarse tras el último sondeo: una última lectura antes de responder sin ella
+            .switchIfEmpty(Mono.defer(() -> transactionRepository.findByTransactionId(transactionId)))
+            .defaultIfEmpty(transaction);
+    }
+    
+    // Estado actual seguido de los cambios en vivo; termina cuando la transacción deja PENDING.
+    // El hub entrega también las decisiones que consume otra instancia (sondeo de la base de datos)
+    public Flux<TransactionStatusChange> watchTransaction(String transactionId) {
+        statusHub.checkCapacity(1);
+        // merge se suscribe primero al hub, así ningún cambio posterior a la lectura se pierde
+        return Flux.merge(
+                statusHub.watch(transactionId),
+                getTransactionById(transactionId).map(this::toStatusChange))
+            .takeUntil(change -> !TransactionState.PENDING.name().equals(change.getStatus()));
+    }
+
+    public Flux<TransactionStatusChange> watchTransactions(Set<String> transactionIds, String status) {
+        Predicate<TransactionStatusChange> withStatus = change -> status == null || status.equals(change.getStatus());
+        // Con ids concretos basta seguir cada transacción; sin ellos, el stream de todos los cambios
+        if (transactionIds.isEmpty()) {
+            return statusHub.subscribe(withStatus);
+        }
+        statusHub.checkTransactionIds(transactionIds.size());
+        statusHub.checkCapacity(transactionIds.size());
+        return Flux.fromIterable(transactionIds)
+            .flatMap(statusHub::watch, Math.max(1, transactionIds.size()))
+            .filter(withStatus);
+    }
+
+    private TransactionStatusChange toStatusChange(Transaction transaction) {
+        return new TransactionStatusChange(
+            transaction.getTransactionId(), transaction.getStatus(), transaction.getUpdatedAt());
+    }
+    
+    public Mono<TransactionStats> getStats(LocalDateTime from, LocalDateTime to) {
+        log.info("Retrieving transaction stats: from={}, to={}", from, to);
+        return transactionStats.getStats(from, to);
+    }
+    
+    private TransactionCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+    }
+
+    // Un solo round-trip: UPDATE condicionado al estado de origen. Vacío si la transición no
+    // aplica (duplicado tardío o decisión contradictoria); solo entonces se consulta la fila
     public Mono<Transaction> updateTransactionStatus(String transactionId, String newStatus) {
         log.info("Updating transaction status: transactionId={}, newStatus={}", transactionId, newStatus);
         
-        return transactionRepository.findByTransactionId(transactionId)
-            .switchIfEmpty(Mono.error(new RuntimeException("Transaction not found: " + transactionId)))
-            .flatMap(transaction -> {
-                transaction.setStatus(newStatus);
-                transaction.setUpdatedAt(LocalDateTime.now());
-                return transactionRepository.save(transaction);
+        return Mono.defer(() -> {
+                // Ni un id que no es uuid ni un estado desconocido se resuelven reintentando
+                if (!Transaction.isValidTransactionId(transactionId)) {
+                    return Mono.error(new NonRetryableException("Transaction not found: " + transactionId));
+                }
+                TransactionState target;
+                try {
+                    target = TransactionState.of(newStatus);
+                } catch (IllegalArgumentException e) {
+                    return Mono.error(new NonRetryableException(e.getMessage(), e));
+                }
+                return transactionRepository.transitionStatus(
+                        transactionId, target.sourceNames(), target.name(), LocalDateTime.now())
+                    .switchIfEmpty(Mono.defer(() -> rejectedTransition(transactionId, target)));
+            })
+            .flatMap(tx -> onCommit(() -> decided(tx)).thenReturn(tx))
+            .doOnNext(tx -> {
+                pipelineMetrics.recordDecision(tx.getStatus(), tx.getCreatedAt(), tx.getUpdatedAt());
+                log.info("Transaction status updated: transactionId={}, status={}, version={}",
+                    tx.getTransactionId(), tx.getStatus(), tx.getVersion());
             })
-            .doOnSuccess(tx -> log.info("Transaction status updated: transactionId={}, status={}",
-                tx.getTransactionId(), tx.getStatus()))
             .doOnError(error -> log.error("Error updating transaction status: {}", error.getMessage(), error));
     }
+    
+    private Mono<Transaction> rejectedTransition(String transactionId, TransactionState target) {
+        return transactionRepository.findByTransactionId(transactionId)
+            .switchIfEmpty(Mono.error(new RuntimeException("Transaction not found: " + transactionId)))
+            .flatMap(current -> {
+                if (target.name().equals(current.getStatus())) {
+                    log.debug("Transition already applied: transactionId={}, status={}", transactionId, target);
+                } else {
+                    pipelineMetrics.recordRejectedTransition(current.getStatus(), target.name());
+                    log.warn("Illegal status transition ignored: transactionId={}, {} -> {}",
+                        transactionId, current.getStatus(), target);
+                }
+                return Mono.empty();
+            });
+    }
+    
+    // Los estados de decisión son finales: dentro del lote gana la primera decisión de cada
+    // transacción, igual que al procesar uno a uno
+    @Transactional
+    public Flux<Transaction> updateTransactionStatuses(Map<String, String> statusByTransactionId, LocalDateTime updatedAt) {
+        // Un id que no es uuid o un estado desconocido harían fallar el lote entero: esa entrada se
+        // descarta, como cualquier id desconocido, y el resto del lote se aplica
+        List<String> ids = new ArrayList<>(statusByTransactionId.size());
+        List<TransactionState> targets = new ArrayList<>(statusByTransactionId.size());
+        for (Map.Entry<String, String> entry : statusByTransactionId.entrySet()) {
+            if (!Transaction.isValidTransactionId(entry.getKey())) {
+                log.warn("Status update ignored, invalid transactionId: {}", entry.getKey());
+                continue;
+            }
+            try {
+                targets.add(TransactionState.of(entry.getValue()));
+                ids.add(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                log.warn("Status update ignored for transactionId {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        
+        int size = ids.size();
+        String[] transactionIds = ids.toArray(new String[0]);
+        String[] statuses = new String[size];
+        String[] fromStatuses = new String[size];
+        for (int i = 0; i < size; i++) {
+            TransactionState target = targets.get(i);
+            statuses[i] = target.name();
+            fromStatuses[i] = String.join(",", target.sourceNames());
+        }
+        
+        return transactionRepository.updateStatuses(transactionIds, statuses, fromStatuses, updatedAt)
+            .doOnNext(tx -> pipelineMetrics.recordDecision(tx.getStatus(), tx.getCreatedAt(), tx.getUpdatedAt()))
+            .collectList()
+            .flatMapMany(updated -> onCommit(() -> updated.forEach(this::decided))
+                .thenMany(Flux.fromIterable(updated)))
+            .doOnError(error -> log.error("Error updating transaction statuses: {}", error.getMessage(), error));
+    }
+    
+    private void decided(Transaction transaction) {
+        transactionStats.recordDecided(transaction);
+        accountHistoryCache.invalidate(transaction);
+    }
+    
+    // Ejecuta la acción al confirmarse la transacción en curso, o en el acto si no hay ninguna:
+    // un rollback no deja contadas ni invalidadas filas que no existen
+    private static Mono<Void> onCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronization -> synchronization.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public Mono<Void> afterCommit() {
+                    return Mono.fromRunnable(action);
+                }
+            }))
+            .onErrorResume(NoTransactionException.class, error -> Mono.empty())
+            .switchIfEmpty(Mono.fromRunnable(action))
+            .then();
+    }
 }
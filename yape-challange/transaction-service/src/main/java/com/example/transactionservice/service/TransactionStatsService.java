@@ -0,0 +1,238 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.TransactionStatsConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionStats;
+import com.example.transactionservice.dto.TransactionStatsBucket;
+import com.example.transactionservice.repository.TransactionStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Read model de estadísticas: cuántas transacciones y por qué importe entran en cada estado, por
+ * minuto y tipo de transferencia. Las altas y los cambios de estado confirmados suman en contadores
+ * LongAdder en memoria, sin bloqueos en el camino de escritura; cada flushInterval los incrementos
+ * se suman a transaction_stats_minute y los contadores vuelven a cero. Las consultas leen esa tabla
+ * y añaden lo que esta instancia aún no ha volcado, también lo que está en un flush sin confirmar;
+ * lo de otras instancias llega en su siguiente flush.
+ */
+@Service
+@Slf4j
+public class TransactionStatsService {
+
+    // Misma escala que transactions.value: los importes se acumulan como enteros exactos
+    private static final int VALUE_SCALE = 4;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::getMinute)
+        .thenComparing(Key::getStatus)
+        .thenComparingInt(Key::getTransferTypeId);
+
+    private final TransactionStatsRepository statsRepository;
+    private final TransactionStatsConfig config;
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    // Buckets quitados del mapa en el flush anterior: se vacían una vez más por si un escritor
+    // que ya los tenía sumó después. Solo los toca el flush, que nunca se ejecuta en paralelo
+    private volatile Map<Key, Bucket> retiring = Map.of();
+    // Incrementos ya quitados de los contadores cuya escritura aún no terminó: las consultas los
+    // siguen sumando hasta que se confirman o, si fallan, vuelven a los contadores
+    private volatile Map<Key, long[]> flushing = Map.of();
+    private Disposable flusher;
+    private Disposable purger;
+
+    public TransactionStatsService(TransactionStatsRepository statsRepository, TransactionStatsConfig config) {
+        this.statsRepository = statsRepository;
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void startFlush() {
+        if (!config.isEnabled()) {
+            log.warn("Transaction stats disabled");
+            return;
+        }
+        log.info("Transaction stats: flushInterval={}, retention={}", config.getFlushInterval(), config.getRetention());
+        flusher = Flux.interval(config.getFlushInterval(), config.getFlushInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> flush(), 1)
+            .subscribe();
+        purger = Flux.interval(config.getPurgeInterval(), config.getPurgeInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> statsRepository.deleteBefore(LocalDateTime.now().minus(config.getRetention()))
+                .doOnNext(deleted -> log.info("Expired transaction stats purged: {}", deleted))
+                .onErrorResume(error -> {
+                    log.error("Error purging transaction stats: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stopFlush() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.dispose();
+        purger.dispose();
+        // Lo acumulado desde el último flush no se pierde al parar
+        flush().block(SHUTDOWN_TIMEOUT);
+    }
+
+    public void recordCreated(Transaction transaction) {
+        record(transaction.getCreatedAt(), transaction);
+    }
+
+    public void recordDecided(Transaction transaction) {
+        record(transaction.getUpdatedAt(), transaction);
+    }
+
+    private void record(LocalDateTime at, Transaction transaction) {
+        if (!config.isEnabled() || at == null) {
+            return;
+        }
+        Key key = new Key(at.truncatedTo(ChronoUnit.MINUTES), transaction.getStatus(), transaction.getTransferTypeId());
+        buckets.computeIfAbsent(key, k -> new Bucket()).add(1, toUnits(transaction.getValue()));
+    }
+
+    public Mono<TransactionStats> getStats(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to == null ? LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1) : to;
+        LocalDateTime start = from == null ? end.minus(config.getDefaultWindow()) : from;
+        if (!start.isBefore(end)) {
+            return Mono.error(new InvalidRequestException("from must be before to"));
+        }
+        if (Duration.between(start, end).compareTo(config.getMaxWindow()) > 0) {
+            return Mono.error(new InvalidRequestException("window must not exceed " + config.getMaxWindow()));
+        }
+
+        return statsRepository.findBetween(start, end)
+            .collect(() -> new TreeMap<Key, TransactionStatsBucket>(KEY_ORDER),
+                (merged, bucket) -> merged.put(new Key(bucket.getMinute(), bucket.getStatus(), bucket.getTransferTypeId()), bucket))
+            .map(merged -> {
+                Map<Key, long[]> inFlight = flushing;
+                buckets.forEach((key, bucket) -> addUnflushed(merged, key, bucket.count.sum(), bucket.units.sum(), start, end));
+                retiring.forEach((key, bucket) -> addUnflushed(merged, key, bucket.count.sum(), bucket.units.sum(), start, end));
+                inFlight.forEach((key, delta) -> addUnflushed(merged, key, delta[0], delta[1], start, end));
+                return TransactionStats.builder()
+                    .from(start)
+                    .to(end)
+                    .buckets(new ArrayList<>(merged.values()))
+                    .build();
+            });
+    }
+
+    private static void addUnflushed(Map<Key, TransactionStatsBucket> merged, Key key, long count, long units,
+                                     LocalDateTime start, LocalDateTime end) {
+        if (count == 0 || key.getMinute().isBefore(start) || !key.getMinute().isBefore(end)) {
+            return;
+        }
+        merged.merge(key, toBucket(key, count, fromUnits(units)), (stored, pending) -> {
+            stored.setCount(stored.getCount() + pending.getCount());
+            stored.setValue(stored.getValue().add(pending.getValue()));
+            return stored;
+        });
+    }
+
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+                Map<Key, long[]> deltas = new HashMap<>();
+                retiring.forEach((key, bucket) -> drain(key, bucket, deltas));
+                Map<Key, Bucket> retired = new HashMap<>();
+                // Los minutos ya cerrados se quitan del mapa; un evento tardío crea un bucket nuevo
+                LocalDateTime closed = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1);
+                buckets.forEach((key, bucket) -> {
+                    drain(key, bucket, deltas);
+                    if (key.getMinute().isBefore(closed) && buckets.remove(key, bucket)) {
+                        retired.put(key, bucket);
+                    }
+                });
+                retiring = retired;
+                if (deltas.isEmpty()) {
+                    return Mono.empty();
+                }
+
+                List<TransactionStatsBucket> rows = new ArrayList<>(deltas.size());
+                deltas.forEach((key, delta) -> rows.add(toBucket(key, delta[0], fromUnits(delta[1]))));
+                flushing = deltas;
+                return statsRepository.addAll(rows)
+                    .doOnSuccess(written -> {
+                        flushing = Map.of();
+                        log.debug("Transaction stats flushed: {} buckets", written);
+                    })
+                    .onErrorResume(error -> {
+                        // Los incrementos vuelven a memoria y se reintentan en el siguiente flush
+                        log.error("Error flushing transaction stats: {}", error.getMessage());
+                        deltas.forEach((key, delta) -> buckets.computeIfAbsent(key, k -> new Bucket()).add(delta[0], delta[1]));
+                        flushing = Map.of();
+                        return Mono.empty();
+                    })
+                    .then();
+            });
+    }
+
+    private static void drain(Key key, Bucket bucket, Map<Key, long[]> deltas) {
+        long count = bucket.count.sumThenReset();
+        long units = bucket.units.sumThenReset();
+        if (count != 0 || units != 0) {
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += count;
+            delta[1] += units;
+        }
+    }
+
+    private static TransactionStatsBucket toBucket(Key key, long count, BigDecimal value) {
+        return TransactionStatsBucket.builder()
+            .minute(key.getMinute())
+            .status(key.getStatus())
+            .transferTypeId(key.getTransferTypeId())
+            .count(count)
+            .value(value)
+            .build();
+    }
+
+    private static long toUnits(BigDecimal value) {
+        return value == null ? 0 : value.setScale(VALUE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, VALUE_SCALE);
+    }
+
+    @Value
+    private static class Key {
+        LocalDateTime minute;
+        String status;
+        int transferTypeId;
+    }
+
+    // Contadores repartidos en celdas: las escrituras concurrentes no compiten por la misma línea de caché
+    private static final class Bucket {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder units = new LongAdder();
+
+        void add(long transactions, long valueUnits) {
+            count.add(transactions);
+            units.add(valueUnits);
+        }
+    }
+}
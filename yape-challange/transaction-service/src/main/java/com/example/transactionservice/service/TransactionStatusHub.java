@@ -0,0 +1,235 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.StatusStreamConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.domain.TransactionState;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionStatusChange;
+import com.example.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/*
+ * Los suscriptores de una transacción concreta se indexan por id: publicar un cambio solo toca a
+ * quienes siguen esa transacción. El stream filtrado de todos los cambios (/events) es un sink aparte
+ * al que solo se emite si tiene suscriptores. Las decisiones que consume otra instancia no pasan por
+ * este hub: las transacciones seguidas que siguen PENDING se leen de la base de datos con un único
+ * sondeo en lote y backoff exponencial por transacción, como en DecisionRegistry. Cada seguidor
+ * recibe la decisión una sola vez, venga del consumidor local o del sondeo. Las transacciones
+ * seguidas a la vez tienen un máximo por instancia.
+ */
+@Component
+@Slf4j
+public class TransactionStatusHub {
+
+    private static final String[] FINAL_STATUSES = Arrays.stream(TransactionState.values())
+        .filter(TransactionState::isFinal)
+        .map(Enum::name)
+        .toArray(String[]::new);
+
+    // directBestEffort nunca bloquea al emisor: cada suscriptor tiene su propio buffer acotado
+    private final Sinks.Many<TransactionStatusChange> firehose = Sinks.many().multicast().directBestEffort();
+    private final Map<String, Watcher> watchers = new ConcurrentHashMap<>();
+    private final StatusStreamConfig streamConfig;
+    private final TransactionRepository transactionRepository;
+    private final Counter droppedCounter;
+    private final Counter polledCounter;
+    private final Counter rejectedCounter;
+    private Disposable poller;
+
+    public TransactionStatusHub(StatusStreamConfig streamConfig, TransactionRepository transactionRepository,
+                                MeterRegistry meterRegistry) {
+        this.streamConfig = streamConfig;
+        this.transactionRepository = transactionRepository;
+        this.droppedCounter = meterRegistry.counter("transaction.status.stream.dropped");
+        this.polledCounter = meterRegistry.counter("transaction.status.stream.polled");
+        this.rejectedCounter = meterRegistry.counter("transaction.status.stream.rejected");
+        Gauge.builder("transaction.status.stream.subscribers", firehose, Sinks.Many::currentSubscriberCount)
+            .description("Suscriptores conectados al stream de todos los estados")
+            .register(meterRegistry);
+        Gauge.builder("transaction.status.stream.watched", watchers, Map::size)
+            .description("Transacciones con al menos un suscriptor")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startPolling() {
+        if (!streamConfig.isPollEnabled()) {
+            log.warn("Status stream polling disabled: only decisions consumed by this instance reach watchers");
+            return;
+        }
+        poller = Flux.interval(streamConfig.getPollInterval(), streamConfig.getPollInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> poll(), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stopPolling() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    public void publish(TransactionStatusChange change) {
+        Watcher watcher = watchers.get(change.getTransactionId());
+        if (watcher != null) {
+            watcher.emit(change);
+        }
+        if (firehose.currentSubscriberCount() > 0) {
+            // Los consumidores de Kafka publican desde varios hilos y el sink exige emisiones serializadas
+            synchronized (firehose) {
+                firehose.tryEmitNext(change);
+            }
+        }
+    }
+
+    public void checkTransactionIds(int count) {
+        if (count > streamConfig.getMaxTransactionIdsPerRequest()) {
+            throw new InvalidRequestException("At most " + streamConfig.getMaxTransactionIdsPerRequest()
+                + " transactionIds per subscription");
+        }
+    }
+
+    // Falla de inmediato si seguir count transacciones más superaría maxWatchedTransactions, antes de
+    // abrir el stream; watch lo vuelve a comprobar por cada transacción nueva
+    public void checkCapacity(int count) {
+        if (watchers.size() + count > streamConfig.getMaxWatchedTransactions()) {
+            rejectedCounter.increment();
+            throw new WatcherLimitExceededException(streamConfig.getMaxWatchedTransactions());
+        }
+    }
+
+    // Cambios de una sola transacción; sumarse a una ya seguida no cuenta para el límite
+    public Flux<TransactionStatusChange> watch(String transactionId) {
+        return Flux.defer(() -> {
+                if (!watchers.containsKey(transactionId)
+                        && watchers.size() >= streamConfig.getMaxWatchedTransactions()) {
+                    rejectedCounter.increment();
+                    return Flux.error(new WatcherLimitExceededException(streamConfig.getMaxWatchedTransactions()));
+                }
+                Watcher watcher = watchers.compute(transactionId, (id, existing) -> (existing != null
+                    ? existing
+                    : new Watcher(System.nanoTime(), streamConfig.getPollMinBackoff().toNanos())).join());
+                return watcher.sink.asFlux().doFinally(signal -> leave(transactionId, watcher));
+            })
+            .transform(this::bounded);
+    }
+
+    public Flux<TransactionStatusChange> subscribe(Predicate<TransactionStatusChange> filter) {
+        return firehose.asFlux()
+            .filter(filter)
+            .transform(this::bounded);
+    }
+
+    private Flux<TransactionStatusChange> bounded(Flux<TransactionStatusChange> changes) {
+        return changes.onBackpressureBuffer(streamConfig.getSubscriberBufferSize(),
+            dropped -> {
+                droppedCounter.increment();
+                log.debug("Slow subscriber, dropping status change: {}", dropped.getTransactionId());
+            },
+            BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    // El último suscriptor en salir retira la entrada; compute la hace atómica frente a un join concurrente
+    private void leave(String transactionId, Watcher watcher) {
+        watchers.computeIfPresent(transactionId,
+            (id, existing) -> existing == watcher && existing.leave() == 0 ? null : existing);
+    }
+
+    // Una sola consulta para las transacciones seguidas a las que les toca, como mucho pollBatchSize;
+    // las ya decididas no se vuelven a consultar
+    Mono<Void> poll() {
+        long now = System.nanoTime();
+        long maxBackoffNanos = streamConfig.getPollMaxBackoff().toNanos();
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Watcher> entry : watchers.entrySet()) {
+            if (due.size() >= streamConfig.getPollBatchSize()) {
+                break;
+            }
+            // Un id que no es uuid no existe y haría fallar la consulta del lote entero
+            if (Transaction.isValidTransactionId(entry.getKey()) && entry.getValue().pollDue(now, maxBackoffNanos)) {
+                due.add(entry.getKey());
+            }
+        }
+        if (due.isEmpty()) {
+            return Mono.empty();
+        }
+        return transactionRepository.findByTransactionIdsAndStatusIn(due.toArray(String[]::new), FINAL_STATUSES)
+            .doOnNext(transaction -> {
+                Watcher watcher = watchers.get(transaction.getTransactionId());
+                if (watcher != null && watcher.emit(new TransactionStatusChange(
+                        transaction.getTransactionId(), transaction.getStatus(), transaction.getUpdatedAt()))) {
+                    polledCounter.increment();
+                }
+            })
+            .onErrorResume(error -> {
+                log.warn("Error polling decisions for {} watched transactions: {}", due.size(), error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private static class Watcher {
+
+        private final Sinks.Many<TransactionStatusChange> sink = Sinks.many().multicast().directBestEffort();
+        // Solo se modifica dentro de compute sobre la entrada del mapa
+        private int subscribers;
+        // Los estados de decisión son finales: después ya no hay nada que emitir ni que sondear
+        private volatile boolean decided;
+        // Solo los modifica el sondeo, que corre en serie
+        private long nextPollNanos;
+        private long backoffNanos;
+
+        Watcher(long now, long backoffNanos) {
+            this.backoffNanos = backoffNanos;
+            this.nextPollNanos = now + backoffNanos;
+        }
+
+        Watcher join() {
+            subscribers++;
+            return this;
+        }
+
+        int leave() {
+            return --subscribers;
+        }
+
+        // Dos particiones, o una partición y el sondeo, pueden traer la misma decisión a la vez;
+        // false si ya se había emitido
+        synchronized boolean emit(TransactionStatusChange change) {
+            if (decided) {
+                return false;
+            }
+            decided = !TransactionState.PENDING.name().equals(change.getStatus());
+            sink.tryEmitNext(change);
+            return true;
+        }
+
+        boolean pollDue(long now, long maxBackoffNanos) {
+            if (decided || now - nextPollNanos < 0) {
+                return false;
+            }
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+            nextPollNanos = now + backoffNanos;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.transactionservice.service;
+
+// El hub ya sigue maxWatchedTransactions transacciones en esta instancia
+public class WatcherLimitExceededException extends RuntimeException {
+
+    public WatcherLimitExceededException(int maxWatchedTransactions) {
+        super("Status stream watcher limit reached: " + maxWatchedTransactions);
+    }
+}
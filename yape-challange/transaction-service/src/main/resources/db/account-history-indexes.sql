@@ -0,0 +1,34 @@
+-- Índices del historial por cuenta sobre una base existente, sin bloquear las escrituras:
+--   psql -v ON_ERROR_STOP=1 -d transactions_db -f account-history-indexes.sql
+-- Un índice de tabla particionada no admite CONCURRENTLY: se crea vacío en la tabla padre (ON ONLY),
+-- cada partición construye el suyo con CONCURRENTLY y después se adjunta. Con todas las particiones
+-- adjuntas el índice padre pasa a válido. Es repetible: lo ya creado o adjuntado se omite.
+CREATE INDEX IF NOT EXISTS idx_transactions_debit_created_at
+    ON ONLY transactions (account_external_id_debit, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_credit_created_at
+    ON ONLY transactions (account_external_id_credit, created_at DESC, id DESC);
+
+SELECT format('CREATE INDEX CONCURRENTLY IF NOT EXISTS %I ON %I (%I, created_at DESC, id DESC)',
+              c.relname || '_' || side.name || '_created_at_idx', c.relname, side.column_name)
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+CROSS JOIN (VALUES ('debit', 'account_external_id_debit'), ('credit', 'account_external_id_credit'))
+    AS side(name, column_name)
+WHERE i.inhparent = 'transactions'::regclass
+ORDER BY c.relname, side.name
+\gexec
+
+SELECT format('ALTER INDEX %I ATTACH PARTITION %I',
+              'idx_transactions_' || side.name || '_created_at', c.relname || '_' || side.name || '_created_at_idx')
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+CROSS JOIN (VALUES ('debit'), ('credit')) AS side(name)
+WHERE i.inhparent = 'transactions'::regclass
+  AND NOT EXISTS (
+      SELECT 1 FROM pg_inherits attached
+      WHERE attached.inhrelid = (c.relname || '_' || side.name || '_created_at_idx')::regclass
+  )
+ORDER BY c.relname, side.name
+\gexec
+
+ANALYZE transactions;
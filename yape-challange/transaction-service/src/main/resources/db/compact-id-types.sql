@@ -0,0 +1,22 @@
+-- transaction_id pasa a uuid nativo y transfer_type_id a integer, como en schema.sql.
+-- Se ejecuta una sola vez, con transaction-service detenido y después de partition-transactions.sql:
+--   psql -v ON_ERROR_STOP=1 -d transactions_db -f compact-id-types.sql
+-- Reescribe cada partición y reconstruye sus índices. Si algún valor no es convertible la
+-- transacción falla sin cambios. Las particiones ya desvinculadas conservan los tipos anteriores.
+BEGIN;
+
+ALTER TABLE transactions
+    ALTER COLUMN transaction_id TYPE UUID USING transaction_id::UUID,
+    ALTER COLUMN transfer_type_id TYPE INTEGER USING transfer_type_id::INTEGER;
+
+ALTER TABLE transaction_locator
+    ALTER COLUMN transaction_id TYPE UUID USING transaction_id::UUID;
+
+ALTER TABLE idempotency_keys
+    ALTER COLUMN transaction_id TYPE UUID USING transaction_id::UUID;
+
+COMMIT;
+
+ANALYZE transactions;
+ANALYZE transaction_locator;
+ANALYZE idempotency_keys;
@@ -0,0 +1,11 @@
+-- outbox_events.payload pasa de TEXT (JSON) a BYTEA, como en schema.sql.
+-- Se ejecuta una sola vez, con transaction-service detenido:
+--   psql -v ON_ERROR_STOP=1 -d transactions_db -f outbox-payload-bytea.sql
+-- Los eventos pendientes conservan su JSON en UTF-8: los consumidores detectan el formato de cada
+-- payload y aceptan JSON y binario.
+BEGIN;
+
+ALTER TABLE outbox_events
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+COMMIT;
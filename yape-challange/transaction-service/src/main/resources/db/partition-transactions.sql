@@ -0,0 +1,64 @@
+-- Migración de la tabla transactions sin particionar al esquema particionado de schema.sql.
+-- Se ejecuta una sola vez, con transaction-service detenido:
+--   psql -v ON_ERROR_STOP=1 -d transactions_db -f partition-transactions.sql
+-- Crea particiones mensuales (transaction.partitioning.interval=MONTH) para el rango de datos existente.
+BEGIN;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+-- La secuencia se conserva para que los ids sigan creciendo; los índices antiguos se van con la tabla
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+ALTER TABLE transactions_unpartitioned DROP CONSTRAINT transactions_pkey;
+ALTER TABLE transactions_unpartitioned DROP CONSTRAINT transactions_transaction_id_key;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+    transaction_id VARCHAR(255) NOT NULL,
+    account_external_id_debit VARCHAR(255) NOT NULL,
+    account_external_id_credit VARCHAR(255) NOT NULL,
+    transfer_type_id VARCHAR(255) NOT NULL,
+    value DECIMAL(19, 4) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (created_at, id),
+    UNIQUE (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT WITH (fillfactor = 90);
+
+CREATE TABLE IF NOT EXISTS transaction_locator (
+    transaction_id VARCHAR(255) PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
+
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(date_trunc('month', min(created_at)), date_trunc('month', now()), INTERVAL '1 month')::DATE
+        FROM transactions_unpartitioned
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L) WITH (fillfactor = 90)',
+            'transactions_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO transactions (id, transaction_id, account_external_id_debit, account_external_id_credit,
+                          transfer_type_id, value, status, created_at, updated_at, version)
+SELECT id, transaction_id, account_external_id_debit, account_external_id_credit,
+       transfer_type_id, value, status, created_at, updated_at, version
+FROM transactions_unpartitioned;
+
+INSERT INTO transaction_locator (transaction_id, created_at)
+SELECT transaction_id, created_at FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+ANALYZE transactions;
+ANALYZE transaction_locator;
+
+COMMIT;
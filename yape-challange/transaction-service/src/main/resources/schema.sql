@@ -1,22 +1,82 @@
 -- Schema for Transaction Service
+-- Particionada por rango de created_at: PartitionMaintenanceService crea las particiones futuras
+-- y archiva las que superan la retención. Bases existentes: db/partition-transactions.sql (tabla sin
+-- particionar) y después db/compact-id-types.sql (ids en VARCHAR)
 CREATE TABLE IF NOT EXISTS transactions (
-    id BIGSERIAL PRIMARY KEY,
-    transaction_id VARCHAR(255) UNIQUE NOT NULL,
+    id BIGSERIAL,
+    -- uuid nativo: 16 bytes en la fila y en cada índice frente a los 37 del texto
+    transaction_id UUID NOT NULL,
     account_external_id_debit VARCHAR(255) NOT NULL,
     account_external_id_credit VARCHAR(255) NOT NULL,
-    transfer_type_id VARCHAR(255) NOT NULL,
+    transfer_type_id INTEGER NOT NULL,
     value DECIMAL(19, 4) NOT NULL,
     status VARCHAR(50) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Control de concurrencia optimista: cada cambio de estado incrementa la versión
+    version BIGINT NOT NULL DEFAULT 0,
+    -- La PK cubre la paginación por keyset en orden (created_at, id)
+    PRIMARY KEY (created_at, id),
+    UNIQUE (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Ningún índice incluye status, updated_at ni version: los cambios de estado son actualizaciones HOT
+-- que no escriben en los índices (las particiones se crean con fillfactor 90 para dejar hueco en la página).
+-- La partición por defecto solo recibe filas fuera de las particiones creadas; normalmente está vacía
+CREATE TABLE IF NOT EXISTS transactions_default PARTITION OF transactions DEFAULT WITH (fillfactor = 90);
+
+-- Historial por cuenta: cada lado tiene su índice en el orden del keyset (created_at, id) descendente.
+-- Las particiones lo heredan; en bases existentes se crean con db/account-history-indexes.sql
+CREATE INDEX IF NOT EXISTS idx_transactions_debit_created_at
+    ON transactions (account_external_id_debit, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_credit_created_at
+    ON transactions (account_external_id_credit, created_at DESC, id DESC);
 
--- Indexes
-CREATE INDEX IF NOT EXISTS idx_transaction_id ON transactions(transaction_id);
-CREATE INDEX IF NOT EXISTS idx_status ON transactions(status);
-CREATE INDEX IF NOT EXISTS idx_created_at ON transactions(created_at);
+-- transactionId -> created_at: unicidad global y búsquedas que solo tocan la partición de la fila
+CREATE TABLE IF NOT EXISTS transaction_locator (
+    transaction_id UUID PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
 
 -- Comments
 COMMENT ON TABLE transactions IS 'Tabla de transacciones del sistema';
 COMMENT ON COLUMN transactions.transaction_id IS 'ID único de la transacción (UUID)';
-COMMENT ON COLUMN transactions.status IS 'Estado de la transacción: PENDING, PROCESSING, COMPLETED, FAILED';
+COMMENT ON COLUMN transactions.status IS 'Estado de la transacción: PENDING, ACCEPTED, REJECTED';
+COMMENT ON COLUMN transactions.version IS 'Versión de la fila, incrementada en cada transición de estado';
+COMMENT ON TABLE transaction_locator IS 'Partición (created_at) de cada transacción por transaction_id';
+
+-- Outbox de eventos: se escribe en la misma transacción que la fila de transactions.
+-- Bases con payload TEXT: db/outbox-payload-bytea.sql
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE outbox_events IS 'Eventos pendientes de publicar en Kafka (transactional outbox)';
+
+-- Claves de idempotencia de POST /api/v1/transactions; la PK resuelve las carreras entre instancias
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    transaction_id UUID NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+-- Read model de estadísticas: transacciones que entran en cada estado por minuto y tipo de transferencia.
+-- TransactionStatsService suma aquí sus contadores en memoria; nunca se agrega sobre transactions
+CREATE TABLE IF NOT EXISTS transaction_stats_minute (
+    bucket_minute TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    transfer_type_id INTEGER NOT NULL,
+    tx_count BIGINT NOT NULL,
+    value_sum DECIMAL(24, 4) NOT NULL,
+    PRIMARY KEY (bucket_minute, status, transfer_type_id)
+);
+
+COMMENT ON TABLE transaction_stats_minute IS 'Conteo e importe por minuto, estado y tipo de transferencia (PENDING = altas)';
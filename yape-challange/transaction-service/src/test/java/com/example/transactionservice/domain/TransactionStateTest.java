@@ -0,0 +1,57 @@
+package com.example.transactionservice.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionStateTest {
+
+    @Test
+    void parsesKnownStatuses() {
+        assertThat(TransactionState.of("PENDING")).isEqualTo(TransactionState.PENDING);
+        assertThat(TransactionState.of("ACCEPTED")).isEqualTo(TransactionState.ACCEPTED);
+        assertThat(TransactionState.of("REJECTED")).isEqualTo(TransactionState.REJECTED);
+    }
+
+    @Test
+    void rejectsUnknownStatuses() {
+        assertThatThrownBy(() -> TransactionState.of("APPROVED"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown transaction status: APPROVED");
+        assertThatThrownBy(() -> TransactionState.of(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void onlyPendingTransitionsToADecision() {
+        assertThat(TransactionState.PENDING.canTransitionTo(TransactionState.ACCEPTED)).isTrue();
+        assertThat(TransactionState.PENDING.canTransitionTo(TransactionState.REJECTED)).isTrue();
+        assertThat(TransactionState.ACCEPTED.canTransitionTo(TransactionState.REJECTED)).isFalse();
+        assertThat(TransactionState.REJECTED.canTransitionTo(TransactionState.ACCEPTED)).isFalse();
+        assertThat(TransactionState.ACCEPTED.canTransitionTo(TransactionState.PENDING)).isFalse();
+        assertThat(TransactionState.PENDING.canTransitionTo(TransactionState.PENDING)).isFalse();
+    }
+
+    @Test
+    void sourceNamesFeedTheUpdateGuard() {
+        assertThat(TransactionState.ACCEPTED.sourceNames()).containsExactly("PENDING");
+        assertThat(TransactionState.REJECTED.sourceNames()).containsExactly("PENDING");
+        assertThat(TransactionState.PENDING.sourceNames()).isEmpty();
+    }
+
+    @Test
+    void decisionsAreFinal() {
+        assertThat(TransactionState.ACCEPTED.isFinal()).isTrue();
+        assertThat(TransactionState.REJECTED.isFinal()).isTrue();
+        assertThat(TransactionState.PENDING.isFinal()).isFalse();
+    }
+
+    @Test
+    void unknownStatusesAreNotFinal() {
+        assertThat(TransactionState.isFinal("ACCEPTED")).isTrue();
+        assertThat(TransactionState.isFinal("PENDING")).isFalse();
+        assertThat(TransactionState.isFinal("APPROVED")).isFalse();
+        assertThat(TransactionState.isFinal(null)).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.domain.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountHistoryCacheTest {
+
+    private static final Duration FINAL_TTL = Duration.ofSeconds(10);
+    private static final Duration PENDING_TTL = Duration.ofSeconds(1);
+
+    private final AccountHistoryCache.StateExpiry expiry = new AccountHistoryCache.StateExpiry(FINAL_TTL, PENDING_TTL);
+
+    @Test
+    void settledPagesLiveTheFullTtl() {
+        assertThat(expiry.expireAfterCreate("DEBIT:a", List.of(transaction("ACCEPTED"), transaction("REJECTED")), 0))
+            .isEqualTo(FINAL_TTL.toNanos());
+        assertThat(expiry.expireAfterCreate("DEBIT:a", List.of(), 0)).isEqualTo(FINAL_TTL.toNanos());
+    }
+
+    @Test
+    void anyPendingTransactionShortensThePage() {
+        assertThat(expiry.expireAfterCreate("DEBIT:a", List.of(transaction("ACCEPTED"), transaction("PENDING")), 0))
+            .isEqualTo(PENDING_TTL.toNanos());
+    }
+
+    private static Transaction transaction(String status) {
+        return Transaction.builder().status(status).build();
+    }
+}
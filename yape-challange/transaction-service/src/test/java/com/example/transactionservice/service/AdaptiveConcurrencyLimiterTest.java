@@ -0,0 +1,176 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.AdmissionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final OutboxRelayService outboxRelay = mock(OutboxRelayService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionConfig config = new AdmissionConfig();
+    private final List<Disposable> held = new ArrayList<>();
+
+    @BeforeEach
+    void healthyOutbox() {
+        when(outboxRelay.backlog()).thenReturn(0L);
+        when(outboxRelay.timeSinceProgress()).thenReturn(Duration.ZERO);
+    }
+
+    @AfterEach
+    void release() {
+        held.forEach(Disposable::dispose);
+    }
+
+    @Test
+    void disabledLimiterRunsEverything() {
+        config.setEnabled(false);
+        config.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        hold(limiter, 3);
+
+        StepVerifier.create(limiter.execute(() -> Mono.just("ok")))
+            .expectNext("ok")
+            .verifyComplete();
+        verifyNoInteractions(outboxRelay);
+    }
+
+    @Test
+    void rejectsBeyondTheLimitUntilSlotsAreReleased() {
+        config.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        hold(limiter, 2);
+
+        StepVerifier.create(limiter.execute(() -> Mono.just("ok")))
+            .expectErrorMatches(error -> error instanceof AdmissionRejectedException rejected
+                && rejected.getReason() == AdmissionRejectedException.Reason.CONCURRENCY
+                && rejected.getRetryAfter().equals(config.getRetryAfter()))
+            .verify();
+        assertThat(meterRegistry.counter("transaction.admission.rejected", "reason", "concurrency").count()).isEqualTo(1);
+
+        // Una petición cancelada también libera su plaza
+        held.remove(0).dispose();
+        StepVerifier.create(limiter.execute(() -> Mono.just("ok")))
+            .expectNext("ok")
+            .verifyComplete();
+        assertThat(inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWhileTheOutboxIsBackedUpOrStalled() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        when(outboxRelay.backlog()).thenReturn(config.getMaxOutboxBacklog() + 1);
+        assertRejectedByOutbox(limiter);
+
+        when(outboxRelay.backlog()).thenReturn(0L);
+        when(outboxRelay.timeSinceProgress()).thenReturn(config.getMaxRelayStall().plusSeconds(1));
+        assertRejectedByOutbox(limiter);
+
+        assertThat(meterRegistry.counter("transaction.admission.rejected", "reason", "outbox").count()).isEqualTo(2);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void overloadErrorsShrinkTheLimitMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        StepVerifier.create(limiter.execute(() -> Mono.error(new IllegalArgumentException("invalid"))))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        assertThat(limiter.limit()).isEqualTo(20);
+
+        StepVerifier.create(limiter.execute(() -> Mono.error(
+                new IllegalStateException("pool", new R2dbcTimeoutException("acquire timeout")))))
+            .expectError(IllegalStateException.class)
+            .verify();
+        assertThat(limiter.limit()).isEqualTo(18);
+        assertThat(meterRegistry.counter("transaction.admission.dropped").count()).isEqualTo(1);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.execute(() -> Mono.error(new R2dbcTimeoutException("acquire timeout"))).onErrorComplete().block();
+        }
+        assertThat(limiter.limit()).isEqualTo(config.getMinLimit());
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHoldsUnderLoad() {
+        config.setInitialLimit(4);
+        // Con una tolerancia amplia la latencia nunca se considera degradada
+        config.setRttTolerance(1_000);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        hold(limiter, 2);
+        for (int i = 0; i < 20; i++) {
+            limiter.execute(() -> Mono.just("ok")).block();
+        }
+
+        assertThat(limiter.limit()).isGreaterThan(4);
+    }
+
+    @Test
+    void limitIsNotAdjustedWithoutLoad() {
+        config.setRttTolerance(1_000);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.execute(() -> Mono.just("ok")).block();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        config.setRttTolerance(1.0);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        hold(limiter, 10);
+        limiter.execute(() -> Mono.just("fast")).block();
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(() -> Mono.delay(Duration.ofMillis(20)).thenReturn("slow")).block();
+        }
+
+        assertThat(limiter.limit()).isLessThan(20);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(config, outboxRelay, meterRegistry);
+    }
+
+    // Peticiones que ocupan su plaza hasta que se cancelan
+    private void hold(AdaptiveConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            held.add(limiter.execute(Mono::never).subscribe());
+        }
+    }
+
+    private void assertRejectedByOutbox(AdaptiveConcurrencyLimiter limiter) {
+        StepVerifier.create(limiter.execute(() -> Mono.just("ok")))
+            .expectErrorMatches(error -> error instanceof AdmissionRejectedException rejected
+                && rejected.getReason() == AdmissionRejectedException.Reason.OUTBOX)
+            .verify();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("transaction.admission.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.DecisionAwaitConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DecisionRegistryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void completesWithALocallyConsumedDecision() {
+        DecisionRegistry registry = registry(Duration.ofHours(1));
+        Transaction accepted = transaction(UUID.randomUUID().toString(), "ACCEPTED");
+
+        StepVerifier.create(registry.await(accepted.getTransactionId(), TIMEOUT, () -> null))
+            .then(() -> registry.complete(accepted))
+            .expectNext(accepted)
+            .verifyComplete();
+
+        assertThat(waiters()).isZero();
+    }
+
+    @Test
+    void completesWithADecisionConsumedByAnotherInstance() {
+        DecisionRegistry registry = registry(Duration.ZERO);
+        String transactionId = UUID.randomUUID().toString();
+        Transaction rejected = transaction(transactionId, "REJECTED");
+        when(transactionRepository.findByTransactionIdsAndStatusIn(any(), any())).thenReturn(Flux.just(rejected));
+
+        StepVerifier.create(registry.await(transactionId, TIMEOUT, () -> null))
+            .then(() -> registry.poll().block())
+            .expectNext(rejected)
+            .verifyComplete();
+
+        verify(transactionRepository).findByTransactionIdsAndStatusIn(
+            new String[] {transactionId}, new String[] {"ACCEPTED", "REJECTED"});
+        assertThat(meterRegistry.counter("transaction.decision.await.polled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersAreNotPolledBeforeTheirBackoff() {
+        DecisionRegistry registry = registry(Duration.ofHours(1));
+        String transactionId = UUID.randomUUID().toString();
+
+        StepVerifier.create(registry.await(transactionId, Duration.ofMillis(100), () -> null))
+            .then(() -> registry.poll().block())
+            .verifyComplete();
+
+        verifyNoInteractions(transactionRepository);
+        assertThat(meterRegistry.counter("transaction.decision.await", "outcome", "timeout").count()).isEqualTo(1);
+    }
+
+    @Test
+    void pollingErrorsKeepTheWaiter() {
+        DecisionRegistry registry = registry(Duration.ZERO);
+        Transaction accepted = transaction(UUID.randomUUID().toString(), "ACCEPTED");
+        when(transactionRepository.findByTransactionIdsAndStatusIn(any(), any()))
+            .thenReturn(Flux.error(new IllegalStateException("connection closed")));
+
+        StepVerifier.create(registry.await(accepted.getTransactionId(), TIMEOUT, () -> null))
+            .then(() -> {
+                registry.poll().block();
+                registry.complete(accepted);
+            })
+            .expectNext(accepted)
+            .verifyComplete();
+    }
+
+    @Test
+    void fullRegistryDoesNotAwait() {
+        DecisionAwaitConfig config = config(Duration.ofHours(1));
+        config.setMaxWaiters(1);
+        DecisionRegistry registry = new DecisionRegistry(config, transactionRepository, meterRegistry);
+
+        StepVerifier.create(registry.await(UUID.randomUUID().toString(), TIMEOUT, () -> null))
+            .then(() -> StepVerifier.create(registry.await(UUID.randomUUID().toString(), TIMEOUT, () -> null))
+                .verifyComplete())
+            .thenCancel()
+            .verify();
+
+        assertThat(meterRegistry.counter("transaction.decision.await", "outcome", "rejected").count()).isEqualTo(1);
+        assertThat(waiters()).isZero();
+    }
+
+    private DecisionRegistry registry(Duration pollMinBackoff) {
+        return new DecisionRegistry(config(pollMinBackoff), transactionRepository, meterRegistry);
+    }
+
+    private static DecisionAwaitConfig config(Duration pollMinBackoff) {
+        DecisionAwaitConfig config = new DecisionAwaitConfig();
+        config.setPollMinBackoff(pollMinBackoff);
+        return config;
+    }
+
+    private double waiters() {
+        return meterRegistry.get("transaction.decision.waiters").gauge().value();
+    }
+
+    private static Transaction transaction(String transactionId, String status) {
+        return Transaction.builder().transactionId(transactionId).status(status).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.IdempotencyConfig;
+import com.example.transactionservice.domain.IdempotencyKey;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.CreateTransactionRequest;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "order-42";
+
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private TransactionCache transactionCache;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Transaction transaction = Transaction.builder()
+        .transactionId(UUID.randomUUID().toString())
+        .status("PENDING")
+        .createdAt(LocalDateTime.now())
+        .build();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(transactionService, transactionCache, idempotencyKeyRepository,
+            new IdempotencyConfig(), meterRegistry);
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneCreation() {
+        Sinks.One<Transaction> created = Sinks.one();
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Mono.empty());
+        when(transactionService.createTransaction(any(CreateTransactionRequest.class), eq(KEY), anyString()))
+            .thenReturn(created.asMono());
+        when(transactionService.getTransactionById(transaction.getTransactionId())).thenReturn(Mono.just(transaction));
+
+        // Ambas peticiones llegan antes de que la primera termine de insertar
+        Mono<Transaction> first = idempotencyService.createTransaction(KEY, request("10")).cache();
+        Mono<Transaction> second = idempotencyService.createTransaction(KEY, request("10")).cache();
+        first.subscribe();
+        second.subscribe();
+        created.tryEmitValue(transaction);
+
+        StepVerifier.create(first).expectNext(transaction).verifyComplete();
+        StepVerifier.create(second).expectNext(transaction).verifyComplete();
+        verify(idempotencyKeyRepository, times(1)).findById(KEY);
+        verify(transactionService, times(1)).createTransaction(any(CreateTransactionRequest.class), eq(KEY), anyString());
+    }
+
+    @Test
+    void aKeyRegisteredByAnotherInstanceReturnsItsTransaction() {
+        AtomicReference<String> requestHash = new AtomicReference<>();
+        // El INSERT ... ON CONFLICT no inserta: otra instancia registró la clave entre la consulta y el alta
+        when(transactionService.createTransaction(any(CreateTransactionRequest.class), eq(KEY), anyString()))
+            .thenAnswer(invocation -> {
+                requestHash.set(invocation.getArgument(2));
+                return Mono.error(new DuplicateIdempotencyKeyException(KEY));
+            });
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Mono.empty(), Mono.fromSupplier(() ->
+            new IdempotencyKey(KEY, transaction.getTransactionId(), requestHash.get(), transaction.getCreatedAt())));
+        when(transactionService.getTransactionById(transaction.getTransactionId())).thenReturn(Mono.just(transaction));
+
+        StepVerifier.create(idempotencyService.createTransaction(KEY, request("10")))
+            .expectNext(transaction)
+            .verifyComplete();
+        verify(idempotencyKeyRepository, times(2)).findById(KEY);
+        verifyNoInteractions(transactionCache);
+    }
+
+    @Test
+    void aRetryIsServedFromRecentKeysAndADifferentBodyConflicts() {
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Mono.empty());
+        when(transactionService.createTransaction(any(CreateTransactionRequest.class), eq(KEY), anyString()))
+            .thenReturn(Mono.just(transaction));
+        when(transactionService.getTransactionById(transaction.getTransactionId())).thenReturn(Mono.just(transaction));
+
+        StepVerifier.create(idempotencyService.createTransaction(KEY, request("10"))).expectNext(transaction).verifyComplete();
+        // 10.00 y 10 son el mismo monto
+        StepVerifier.create(idempotencyService.createTransaction(KEY, request("10.00"))).expectNext(transaction).verifyComplete();
+        StepVerifier.create(idempotencyService.createTransaction(KEY, request("11")))
+            .expectError(IdempotencyKeyConflictException.class)
+            .verify();
+
+        verify(idempotencyKeyRepository, times(1)).findById(KEY);
+        verify(transactionCache).put(transaction);
+        assertThat(meterRegistry.get("transaction.idempotency.replayed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsBlankOrOversizedKeys() {
+        StepVerifier.create(idempotencyService.createTransaction(" ", request("10")))
+            .expectError(InvalidRequestException.class)
+            .verify();
+        StepVerifier.create(idempotencyService.createTransaction("k".repeat(256), request("10")))
+            .expectError(InvalidRequestException.class)
+            .verify();
+        verifyNoInteractions(idempotencyKeyRepository, transactionService);
+    }
+
+    private static CreateTransactionRequest request(String value) {
+        return new CreateTransactionRequest("debit", "credit", 1, new BigDecimal(value));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.domain.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionCacheTest {
+
+    private static final Duration FINAL_TTL = Duration.ofMinutes(5);
+    private static final Duration PENDING_TTL = Duration.ofSeconds(1);
+
+    private final TransactionCache.StateExpiry expiry = new TransactionCache.StateExpiry(FINAL_TTL, PENDING_TTL);
+
+    @Test
+    void finalStatesLiveTheFullTtl() {
+        assertThat(expiry.expireAfterCreate("id", transaction("ACCEPTED"), 0)).isEqualTo(FINAL_TTL.toNanos());
+        assertThat(expiry.expireAfterCreate("id", transaction("REJECTED"), 0)).isEqualTo(FINAL_TTL.toNanos());
+    }
+
+    @Test
+    void pendingAndUnknownStatesExpireQuickly() {
+        assertThat(expiry.expireAfterCreate("id", transaction("PENDING"), 0)).isEqualTo(PENDING_TTL.toNanos());
+        assertThat(expiry.expireAfterCreate("id", transaction("UNKNOWN"), 0)).isEqualTo(PENDING_TTL.toNanos());
+    }
+
+    @Test
+    void replacingPendingWithFinalExtendsTheEntry() {
+        long remaining = expiry.expireAfterCreate("id", transaction("PENDING"), 0);
+
+        assertThat(expiry.expireAfterUpdate("id", transaction("ACCEPTED"), 0, remaining)).isEqualTo(FINAL_TTL.toNanos());
+        assertThat(expiry.expireAfterRead("id", transaction("ACCEPTED"), 0, remaining)).isEqualTo(remaining);
+    }
+
+    private static Transaction transaction(String status) {
+        return Transaction.builder().transactionId("id").status(status).build();
+    }
+}
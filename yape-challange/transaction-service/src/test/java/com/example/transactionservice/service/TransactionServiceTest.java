@@ -0,0 +1,138 @@
+package com.example.transactionservice.service;
+
+import com.example.events.kafka.NonRetryableException;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    private static final String TRANSACTION_ID = UUID.randomUUID().toString();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+    @Mock
+    private TransactionStatsService transactionStats;
+    @Mock
+    private AccountHistoryCache accountHistoryCache;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @Test
+    void appliesTheTransitionGuardedOnItsSourceStates() {
+        Transaction accepted = transaction("ACCEPTED", 1L);
+        when(transactionRepository.transitionStatus(eq(TRANSACTION_ID), eq(new String[] {"PENDING"}),
+                eq("ACCEPTED"), any(LocalDateTime.class)))
+            .thenReturn(Mono.just(accepted));
+
+        StepVerifier.create(transactionService.updateTransactionStatus(TRANSACTION_ID, "ACCEPTED"))
+            .expectNext(accepted)
+            .verifyComplete();
+
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        verify(transactionStats).recordDecided(accepted);
+        verify(accountHistoryCache).invalidate(accepted);
+    }
+
+    @Test
+    void contradictoryDecisionIsCountedAndIgnored() {
+        when(transactionRepository.transitionStatus(eq(TRANSACTION_ID), any(), eq("REJECTED"), any()))
+            .thenReturn(Mono.empty());
+        when(transactionRepository.findByTransactionId(TRANSACTION_ID))
+            .thenReturn(Mono.just(transaction("ACCEPTED", 1L)));
+
+        StepVerifier.create(transactionService.updateTransactionStatus(TRANSACTION_ID, "REJECTED"))
+            .verifyComplete();
+
+        verify(pipelineMetrics).recordRejectedTransition("ACCEPTED", "REJECTED");
+        verifyNoInteractions(transactionStats, accountHistoryCache);
+    }
+
+    @Test
+    void lateDuplicateIsIgnoredWithoutCountingARejection() {
+        when(transactionRepository.transitionStatus(eq(TRANSACTION_ID), any(), eq("ACCEPTED"), any()))
+            .thenReturn(Mono.empty());
+        when(transactionRepository.findByTransactionId(TRANSACTION_ID))
+            .thenReturn(Mono.just(transaction("ACCEPTED", 1L)));
+
+        StepVerifier.create(transactionService.updateTransactionStatus(TRANSACTION_ID, "ACCEPTED"))
+            .verifyComplete();
+
+        verify(pipelineMetrics, never()).recordRejectedTransition(anyString(), anyString());
+    }
+
+    @Test
+    void missingTransactionFailsSoItIsRetried() {
+        when(transactionRepository.transitionStatus(eq(TRANSACTION_ID), any(), eq("ACCEPTED"), any()))
+            .thenReturn(Mono.empty());
+        when(transactionRepository.findByTransactionId(TRANSACTION_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.updateTransactionStatus(TRANSACTION_ID, "ACCEPTED"))
+            .expectErrorMatches(error -> !(error instanceof NonRetryableException)
+                && error.getMessage().equals("Transaction not found: " + TRANSACTION_ID))
+            .verify();
+    }
+
+    @Test
+    void invalidIdsAndUnknownStatusesAreNotRetryable() {
+        StepVerifier.create(transactionService.updateTransactionStatus("not-a-uuid", "ACCEPTED"))
+            .expectError(NonRetryableException.class)
+            .verify();
+        StepVerifier.create(transactionService.updateTransactionStatus(TRANSACTION_ID, "APPROVED"))
+            .expectError(NonRetryableException.class)
+            .verify();
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void batchUpdateGuardsEachRowAndSkipsInvalidEntries() {
+        String invalid = "not-a-uuid";
+        Transaction rejected = transaction("REJECTED", 1L);
+        when(transactionRepository.updateStatuses(eq(new String[] {TRANSACTION_ID}), eq(new String[] {"REJECTED"}),
+                eq(new String[] {"PENDING"}), any(LocalDateTime.class)))
+            .thenReturn(Flux.just(rejected));
+
+        StepVerifier.create(transactionService.updateTransactionStatuses(
+                Map.of(TRANSACTION_ID, "REJECTED", invalid, "ACCEPTED", UUID.randomUUID().toString(), "APPROVED"),
+                LocalDateTime.now()))
+            .expectNext(rejected)
+            .verifyComplete();
+
+        verify(accountHistoryCache).invalidate(rejected);
+    }
+
+    private static Transaction transaction(String status, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+            .transactionId(TRANSACTION_ID)
+            .status(status)
+            .createdAt(now.minusSeconds(1))
+            .updatedAt(now)
+            .version(version)
+            .build();
+    }
+}
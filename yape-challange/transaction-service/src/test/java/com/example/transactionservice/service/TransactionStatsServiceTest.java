@@ -0,0 +1,86 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.TransactionStatsConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.TransactionStats;
+import com.example.transactionservice.dto.TransactionStatsBucket;
+import com.example.transactionservice.repository.TransactionStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionStatsServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private final TransactionStatsRepository statsRepository = mock(TransactionStatsRepository.class);
+    private TransactionStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new TransactionStatsService(statsRepository, new TransactionStatsConfig());
+        when(statsRepository.findBetween(any(), any())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void unflushedIncrementsAreCounted() {
+        statsService.recordCreated(transaction("12.50"));
+        statsService.recordCreated(transaction("7.50"));
+
+        TransactionStatsBucket bucket = stats();
+        assertThat(bucket.getCount()).isEqualTo(2);
+        assertThat(bucket.getValue()).isEqualByComparingTo("20");
+    }
+
+    @Test
+    void incrementsBeingWrittenAreStillCounted() {
+        Sinks.One<Long> write = Sinks.one();
+        when(statsRepository.addAll(any())).thenReturn(write.asMono());
+        statsService.recordCreated(transaction("10"));
+
+        Disposable flush = statsService.flush().subscribe();
+        assertThat(stats().getCount()).isEqualTo(1);
+
+        // Confirmado: a partir de aquí lo cuenta la tabla
+        write.tryEmitValue(1L);
+        assertThat(flush.isDisposed()).isTrue();
+        assertThat(statsService.getStats(NOW.minusMinutes(5), NOW.plusMinutes(1)).block().getBuckets()).isEmpty();
+    }
+
+    @Test
+    void incrementsOfAFailedWriteReturnToTheCounters() {
+        when(statsRepository.addAll(any())).thenReturn(Mono.error(new IllegalStateException("down")));
+        statsService.recordCreated(transaction("10"));
+
+        statsService.flush().block();
+
+        assertThat(stats().getCount()).isEqualTo(1);
+    }
+
+    private TransactionStatsBucket stats() {
+        TransactionStats stats = statsService.getStats(NOW.minusMinutes(5), NOW.plusMinutes(1)).block();
+        assertThat(stats.getBuckets()).hasSize(1);
+        return stats.getBuckets().get(0);
+    }
+
+    private static Transaction transaction(String value) {
+        return Transaction.builder()
+            .status("PENDING")
+            .transferTypeId(1)
+            .value(new BigDecimal(value))
+            .createdAt(NOW)
+            .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.config.StatusStreamConfig;
+import com.example.transactionservice.domain.Transaction;
+import com.example.transactionservice.dto.InvalidRequestException;
+import com.example.transactionservice.dto.TransactionStatusChange;
+import com.example.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransactionStatusHubTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private SimpleMeterRegistry meterRegistry;
+    private StatusStreamConfig config;
+    private TransactionStatusHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new StatusStreamConfig();
+        config.setPollMinBackoff(Duration.ZERO);
+        hub = new TransactionStatusHub(config, transactionRepository, meterRegistry);
+    }
+
+    @Test
+    void watchersReceiveOnlyTheirTransaction() {
+        List<TransactionStatusChange> first = new CopyOnWriteArrayList<>();
+        List<TransactionStatusChange> second = new CopyOnWriteArrayList<>();
+        Disposable a = hub.watch("a").subscribe(first::add);
+        Disposable b = hub.watch("b").subscribe(second::add);
+
+        hub.publish(change("a", "ACCEPTED"));
+        hub.publish(change("c", "REJECTED"));
+
+        assertThat(first).extracting(TransactionStatusChange::getTransactionId).containsExactly("a");
+        assertThat(second).isEmpty();
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    void newTransactionsAreRejectedOnceTheWatcherLimitIsReached() {
+        config.setMaxWatchedTransactions(1);
+        Disposable first = hub.watch("a").subscribe();
+
+        StepVerifier.create(hub.watch("b"))
+            .expectError(WatcherLimitExceededException.class)
+            .verify();
+        Disposable second = hub.watch("a").subscribe();
+        assertThat(watched()).isEqualTo(1);
+        assertThatThrownBy(() -> hub.checkCapacity(1)).isInstanceOf(WatcherLimitExceededException.class);
+        assertThat(meterRegistry.get("transaction.status.stream.rejected").counter().count()).isEqualTo(2);
+
+        first.dispose();
+        second.dispose();
+        StepVerifier.create(hub.watch("b").take(1))
+            .then(() -> hub.publish(change("b", "ACCEPTED")))
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    @Test
+    void oversizedIdListsAreRejected() {
+        config.setMaxTransactionIdsPerRequest(2);
+
+        hub.checkTransactionIds(2);
+        assertThatThrownBy(() -> hub.checkTransactionIds(3)).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void watcherIsRemovedWhenTheLastSubscriberLeaves() {
+        Disposable first = hub.watch("a").subscribe();
+        Disposable second = hub.watch("a").subscribe();
+        assertThat(watched()).isEqualTo(1);
+
+        first.dispose();
+        assertThat(watched()).isEqualTo(1);
+        second.dispose();
+        assertThat(watched()).isZero();
+
+        List<TransactionStatusChange> again = new CopyOnWriteArrayList<>();
+        Disposable third = hub.watch("a").subscribe(again::add);
+        hub.publish(change("a", "ACCEPTED"));
+        assertThat(again).hasSize(1);
+        third.dispose();
+    }
+
+    @Test
+    void firehoseAppliesTheFilter() {
+        List<TransactionStatusChange> rejected = new CopyOnWriteArrayList<>();
+        Disposable subscription = hub.subscribe(change -> "REJECTED".equals(change.getStatus())).subscribe(rejected::add);
+
+        hub.publish(change("a", "ACCEPTED"));
+        hub.publish(change("b", "REJECTED"));
+
+        assertThat(rejected).extracting(TransactionStatusChange::getTransactionId).containsExactly("b");
+        subscription.dispose();
+    }
+
+    @Test
+    void watchersReceiveDecisionsConsumedByAnotherInstance() {
+        String transactionId = UUID.randomUUID().toString();
+        when(transactionRepository.findByTransactionIdsAndStatusIn(any(), any()))
+            .thenReturn(Flux.just(transaction(transactionId, "REJECTED")));
+        List<TransactionStatusChange> changes = new CopyOnWriteArrayList<>();
+        Disposable subscription = hub.watch(transactionId).subscribe(changes::add);
+
+        hub.poll().block();
+
+        verify(transactionRepository).findByTransactionIdsAndStatusIn(
+            new String[] {transactionId}, new String[] {"ACCEPTED", "REJECTED"});
+        assertThat(changes).extracting(TransactionStatusChange::getStatus).containsExactly("REJECTED");
+        assertThat(meterRegistry.counter("transaction.status.stream.polled").count()).isEqualTo(1);
+        subscription.dispose();
+    }
+
+    @Test
+    void aDecisionIsEmittedOnceAndNotPolledAgain() {
+        String transactionId = UUID.randomUUID().toString();
+        when(transactionRepository.findByTransactionIdsAndStatusIn(any(), any()))
+            .thenReturn(Flux.just(transaction(transactionId, "ACCEPTED")));
+        List<TransactionStatusChange> changes = new CopyOnWriteArrayList<>();
+        Disposable subscription = hub.watch(transactionId).subscribe(changes::add);
+
+        hub.publish(change(transactionId, "ACCEPTED"));
+        hub.poll().block();
+
+        assertThat(changes).hasSize(1);
+        verifyNoInteractions(transactionRepository);
+        subscription.dispose();
+    }
+
+    @Test
+    void invalidIdsAreNotPolled() {
+        Disposable subscription = hub.watch("not-a-uuid").subscribe();
+
+        hub.poll().block();
+
+        verifyNoInteractions(transactionRepository);
+        subscription.dispose();
+    }
+
+    private double watched() {
+        return meterRegistry.get("transaction.status.stream.watched").gauge().value();
+    }
+
+    private static Transaction transaction(String transactionId, String status) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .status(status)
+            .updatedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static TransactionStatusChange change(String transactionId, String status) {
+        return new TransactionStatusChange(transactionId, status, LocalDateTime.now());
+    }
+}